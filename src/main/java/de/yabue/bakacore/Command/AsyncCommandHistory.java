@@ -0,0 +1,159 @@
+package de.yabue.bakacore.Command;
+
+import de.yabue.bakacore.Command.CommandExceptions.IllegalRedoException;
+import de.yabue.bakacore.Command.CommandExceptions.IllegalUndoException;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import lombok.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Eine Kommando Historie, die die Kommandos nicht auf dem aufrufenden Thread (in der Regel dem JavaFX Application
+ * Thread), sondern auf einem frei wählbaren {@link Executor} ausführt. Das kann ein Thread Pool sein, aber ab Java 21
+ * z.B. auch {@code Executors.newVirtualThreadPerTaskExecutor()}.
+ * <p>
+ * Alle Aufrufe von {@link #execute(FXCommand)}, {@link #undo()} und {@link #redo()} werden in der Reihenfolge
+ * abgearbeitet, in der sie gestellt wurden. Es läuft nie mehr als eine Aktion dieser Historie gleichzeitig, auch
+ * wenn der Executor mehrere Threads besitzt. Die Properties werden erst nach Abschluss einer Aktion über den
+ * Benachrichtigungs-Executor (standardmäßig {@link Platform#runLater(Runnable)}) aktualisiert.
+ *
+ * @author Yannick Bülter
+ */
+public class AsyncCommandHistory {
+
+    private final CommandHistory history;
+
+    private final Executor executor;
+
+    private final Executor notifier;
+
+    private final SimpleBooleanProperty canUndo;
+
+    private final SimpleBooleanProperty canRedo;
+
+    /**
+     * Die zuletzt eingereihte Aktion. Neue Aktionen werden immer dahinter gehängt.
+     */
+    private CompletableFuture<Void> tail;
+
+    /**
+     * Konstruiert eine neue asynchrone Historie, deren Properties auf dem JavaFX Application Thread aktualisiert werden.
+     *
+     * @param size     Maximale Anzahl an Kommandos.
+     * @param executor Führt die Kommandos aus.
+     */
+    public AsyncCommandHistory(final int size, @NonNull final Executor executor) {
+        this(new CommandHistory(size), executor, Platform::runLater);
+    }
+
+    /**
+     * Konstruiert eine neue asynchrone Historie.
+     *
+     * @param history  Die Historie, die die Kommandos verwaltet. Sie darf danach nur noch über diese Klasse genutzt werden.
+     * @param executor Führt die Kommandos aus.
+     * @param notifier Aktualisiert die Properties, z.B. {@code Platform::runLater}.
+     */
+    public AsyncCommandHistory(@NonNull final CommandHistory history, @NonNull final Executor executor, @NonNull final Executor notifier) {
+        this.history = history;
+        this.executor = executor;
+        this.notifier = notifier;
+        canUndo = new SimpleBooleanProperty(history.canUndo());
+        canRedo = new SimpleBooleanProperty(history.canRedo());
+        tail = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Führt ein Kommando asynchron aus und fügt es der Historie hinzu.
+     *
+     * @param command Das Kommando, das ausgeführt werden soll.
+     * @return Wird abgeschlossen, sobald das Kommando ausgeführt wurde.
+     */
+    public CompletableFuture<Void> execute(@NonNull final FXCommand command) {
+        return submit(() -> history.execute(command));
+    }
+
+    /**
+     * Macht das letzte Kommando asynchron rückgängig.
+     *
+     * @return Wird abgeschlossen, sobald das Kommando rückgängig gemacht wurde. Schlägt das fehl, wird es mit dem
+     * Fehler abgeschlossen, z.B. einer {@link IllegalUndoException}.
+     */
+    public CompletableFuture<Void> undo() {
+        return submit(() -> {
+            try {
+                history.undoChecked();
+            } catch (IllegalUndoException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Wiederholt das zuletzt rückgängig gemachte Kommando asynchron.
+     *
+     * @return Wird abgeschlossen, sobald das Kommando wiederholt wurde. Schlägt das fehl, wird es mit dem Fehler
+     * abgeschlossen, z.B. einer {@link IllegalRedoException}.
+     */
+    public CompletableFuture<Void> redo() {
+        return submit(() -> {
+            try {
+                history.redoChecked();
+            } catch (IllegalRedoException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Erlaubt es anderen Objekten zu wissen, ob Aktionen rückgängig gemacht werden können, oder nicht.
+     *
+     * @return {@code true}, wenn etwas rückgängig gemacht werden kann.
+     */
+    public ReadOnlyBooleanProperty undoProperty() {
+        return ReadOnlyBooleanProperty.readOnlyBooleanProperty(canUndo);
+    }
+
+    /**
+     * Erlaubt es anderen Objekten zu wissen, ob Aktionen wiederholt werden können, oder nicht.
+     *
+     * @return {@code true}, wenn etwas wiederholt werden kann.
+     */
+    public ReadOnlyBooleanProperty redoProperty() {
+        return ReadOnlyBooleanProperty.readOnlyBooleanProperty(canRedo);
+    }
+
+    /**
+     * Hängt eine Aktion an die Warteschlange an. Sie startet erst, wenn die vorherige Aktion abgeschlossen ist,
+     * egal ob diese erfolgreich war oder nicht.
+     *
+     * @param action Die Aktion, die auf der Historie ausgeführt werden soll.
+     * @return Wird mit dem Ergebnis der Aktion abgeschlossen.
+     */
+    private synchronized CompletableFuture<Void> submit(final Runnable action) {
+        CompletableFuture<Void> next = tail.handle((result, error) -> (Void) null).thenRunAsync(() -> {
+            try {
+                action.run();
+            } finally {
+                publish();
+            }
+        }, executor);
+        tail = next;
+        return next;
+    }
+
+    /**
+     * Überträgt den Zustand der Historie über den Benachrichtigungs-Executor auf die Properties.
+     */
+    private void publish() {
+        final boolean undo = history.canUndo();
+        final boolean redo = history.canRedo();
+        notifier.execute(() -> {
+            canUndo.set(undo);
+            canRedo.set(redo);
+        });
+    }
+}
@@ -2,15 +2,42 @@ package de.yabue.bakacore.Command;
 
 import de.yabue.bakacore.Command.CommandExceptions.IllegalRedoException;
 import de.yabue.bakacore.Command.CommandExceptions.IllegalUndoException;
+import de.yabue.bakacore.Observable.FXBridge;
+import de.yabue.bakacore.Observable.LiteBooleanProperty;
+import de.yabue.bakacore.Observable.LiteObservable;
 import javafx.beans.property.ReadOnlyBooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
 import lombok.Getter;
+import lombok.Setter;
 
-import java.sql.SQLDataException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Implementiert eine Kommando Historie, die eine Vielzahl von Kommandos verwalten kann.
  * Sie dient dazu, dem Programmierer die Aufgabe abzunehmen, die Kommandos selbst verwalten zu müssen.
+ * <p>
+ * Die Kommandos liegen in einem Ringpuffer. Ab {@code head} folgen zuerst die ausgeführten Kommandos
+ * ({@code undoCount} Stück) und direkt dahinter die rückgängig gemachten Kommandos ({@code redoCount} Stück),
+ * die den Redo-Stapel bilden. Dadurch sind {@link #execute(FXCommand)}, {@link #undo()} und {@link #redo()}
+ * unabhängig von der Größe der Historie und kommen ohne Allokationen aus.
+ * <p>
+ * Optional kann die Historie zusätzlich über ein Gewichtsbudget begrenzt werden. Jedes Kommando wird beim
+ * Hinzufügen mit einem {@link CommandWeigher} gewogen. Übersteigt die Summe das Budget, werden die ältesten
+ * Kommandos verworfen, bis das Budget wieder eingehalten wird. Das zuletzt ausgeführte Kommando bleibt dabei
+ * immer erhalten.
+ * <p>
+ * Kommandos, die {@link FXCommand#mergeWith(FXCommand)} überschreiben, können mit ihrem Nachfolger zu einem
+ * Eintrag zusammengeführt werden. Über {@link #setMergeWindow(long)} lässt sich das auf Kommandos begrenzen,
+ * die kurz nacheinander ausgeführt wurden.
+ * <p>
+ * Mit {@link #beginBatch()} und {@link #commit()} werden mehrere Kommandos zu einem {@link CompositeCommand}
+ * zusammengefasst, das nur einen Eintrag belegt. Die Properties ändern sich dabei erst beim {@link #commit()}.
+ * {@link #rollback()} macht alle Kommandos des Batches rückgängig.
+ * <p>
+ * Ist ein {@link CommandJournal} gesetzt, wird jede Änderung an der Historie darin vermerkt.
  *
  * @author Yannick Bülter
  */
@@ -19,80 +46,290 @@ public class CommandHistory {
     @Getter
     private final int size;
 
-    private FXCommand[] commands;
+    private final FXCommand[] commands;
 
-    private int position;
+    /**
+     * Gewichte der Kommandos, parallel zu {@link #commands}. {@code null}, wenn nicht gewogen wird.
+     */
+    private final long[] weights;
+
+    private final CommandWeigher weigher;
+
+    @Getter
+    private final long maxWeight;
+
+    @Getter
+    private long totalWeight;
+
+    @Getter
+    private long evictionCount;
+
+    @Getter
+    private long evictedWeight;
+
+    /**
+     * Maximaler Abstand in Millisekunden, in dem zwei Kommandos noch zusammengeführt werden.
+     * {@code 0} bedeutet, dass der Abstand keine Rolle spielt.
+     */
+    @Getter
+    @Setter
+    private long mergeWindow;
+
+    /**
+     * Index des ältesten Kommandos im Ringpuffer.
+     */
+    private int head;
+
+    /**
+     * Anzahl der Kommandos, die rückgängig gemacht werden können.
+     */
+    private int undoCount;
+
+    /**
+     * Anzahl der Kommandos, die wiederholt werden können.
+     */
+    private int redoCount;
+
+    /**
+     * Die Kommandos des laufenden Batches. {@code null}, wenn kein Batch läuft.
+     */
+    private List<FXCommand> batch;
 
-    private final SimpleBooleanProperty canUndo;
+    private int batchDepth;
 
-    private final SimpleBooleanProperty canRedo;
+    /**
+     * Vermerkt alle Änderungen an der Historie. {@code null}, wenn nichts vermerkt wird.
+     */
+    @Getter
+    @Setter
+    private CommandJournal journal;
 
-    private FXCommand lastCommand;
+    private final LiteBooleanProperty canUndo;
+
+    private final LiteBooleanProperty canRedo;
+
+    /**
+     * JavaFX Gegenstücke zu {@link #canUndo} und {@link #canRedo}. Werden erst bei Bedarf erzeugt, damit die
+     * Historie auch ohne JavaFX genutzt werden kann.
+     */
+    private ReadOnlyBooleanProperty undoFX;
+
+    private ReadOnlyBooleanProperty redoFX;
 
 
     public CommandHistory(final int size) {
+        this(size, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Konstruiert eine Historie, die sowohl über die Anzahl der Kommandos, als auch über deren
+     * Gewicht begrenzt ist. Das Gewicht meldet jedes Kommando über {@link FXCommand#getWeight()}.
+     *
+     * @param size      Maximale Anzahl an Kommandos.
+     * @param maxWeight Maximales Gesamtgewicht aller Kommandos.
+     */
+    public CommandHistory(final int size, final long maxWeight) {
+        this(size, maxWeight, CommandWeigher.REPORTED);
+    }
+
+    /**
+     * Konstruiert eine Historie, die sowohl über die Anzahl der Kommandos, als auch über deren
+     * Gewicht begrenzt ist.
+     *
+     * @param size      Maximale Anzahl an Kommandos.
+     * @param maxWeight Maximales Gesamtgewicht aller Kommandos.
+     * @param weigher   Bestimmt das Gewicht eines Kommandos. Bei {@code null} wird nur die Anzahl begrenzt.
+     */
+    public CommandHistory(final int size, final long maxWeight, final CommandWeigher weigher) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Die Historie muss mindestens ein Kommando aufnehmen können!");
+        }
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Das Gewichtsbudget darf nicht negativ sein!");
+        }
         this.size = size;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
         commands = new FXCommand[size];
-        position = -1;
-        canUndo = new SimpleBooleanProperty(false);
-        canRedo = new SimpleBooleanProperty(false);
+        weights = weigher == null ? null : new long[size];
+        head = 0;
+        undoCount = 0;
+        redoCount = 0;
+        canUndo = new LiteBooleanProperty(false);
+        canRedo = new LiteBooleanProperty(false);
     }
 
     /**
      * Führt ein übergebenes Kommando aus und fügt es der Kommando Historie hinzu, wenn es
-     * rückgängig gemacht werden kann.
+     * rückgängig gemacht werden kann. Alle Kommandos, die bis dahin wiederholt werden konnten, werden verworfen.
+     * Kann das zuletzt ausgeführte Kommando das neue Kommando aufnehmen, wird kein neuer Eintrag angelegt.
+     * Läuft ein Batch, wird das Kommando stattdessen dem Batch hinzugefügt. Schlägt es fehl, wird der gesamte
+     * Batch zurückgerollt.
      *
      * @param command Das Kommando, das ausgeführt werden soll.
      */
     public void execute(final FXCommand command) {
+        if (batch != null) {
+            try {
+                command.execute();
+            } catch (RuntimeException e) {
+                rollbackBatch(e);
+                throw e;
+            }
+            if (command.isUndoable()) {
+                batch.add(command);
+            }
+        } else {
+            command.execute();
+            if (command.isUndoable()) {
+                journalExecuted(command, record(command, true));
+            }
+        }
+    }
+
+    /**
+     * Führt ein Kommando aus einem {@link CommandJournal} erneut aus. Ob es mit dem letzten Eintrag zusammengeführt
+     * wird, entscheidet nicht das {@link #setMergeWindow(long) Zeitfenster}, sondern der Eintrag im Journal: Beim
+     * erneuten Ausführen liegen alle Kommandos zeitlich dicht beieinander, auch wenn sie ursprünglich weit
+     * auseinander lagen.
+     *
+     * @param command Das Kommando, das ausgeführt werden soll.
+     * @param merged  {@code true}, wenn das Kommando ursprünglich mit dem letzten Eintrag zusammengeführt wurde.
+     */
+    void replay(final FXCommand command, final boolean merged) {
         command.execute();
-        if (command.isUndoable()) {
-            if (position + 1 == size) {
-                FXCommand[] temp = new FXCommand[size];
-                for (int i = 0; i < size - 1; i++) {
-                    temp[i] = commands[i + 1];
-                }
-                commands = temp;
+        if (command.isUndoable()
+                && !(merged && redoCount == 0 && undoCount > 0 && merge(command, false))) {
+            record(command, false);
+        }
+    }
+
+    /**
+     * Beginnt einen Batch. Alle folgenden Kommandos werden bis zum {@link #commit()} gesammelt und danach
+     * gemeinsam rückgängig gemacht und wiederholt. Batches dürfen verschachtelt werden, es zählt dann nur der äußerste.
+     */
+    public void beginBatch() {
+        if (batch == null) {
+            batch = new ArrayList<>();
+        }
+        batchDepth++;
+    }
+
+    /**
+     * Schließt einen Batch ab und legt seine Kommandos als einen Eintrag in der Historie ab.
+     */
+    public void commit() {
+        if (batch == null) {
+            throw new IllegalStateException("Es wurde kein Batch begonnen!");
+        }
+        batchDepth--;
+        if (batchDepth == 0) {
+            List<FXCommand> done = batch;
+            batch = null;
+            if (!done.isEmpty()) {
+                CompositeCommand composite = CompositeCommand.executed(done);
+                record(composite, false);
+                journalExecuted(composite, false);
             }
-            position = position + 1 == size ? position : position + 1;
-            commands[position] = command;
-            canUndo.setValue(true);
         }
     }
 
+    /**
+     * Macht alle Kommandos des laufenden Batches rückgängig und beendet ihn, auch wenn er verschachtelt ist.
+     *
+     * @throws IllegalStateException Wenn kein Batch läuft oder ein Kommando nicht rückgängig gemacht werden konnte.
+     */
+    public void rollback() {
+        if (batch == null) {
+            throw new IllegalStateException("Es wurde kein Batch begonnen!");
+        }
+        rollbackBatch(null);
+    }
+
+    /**
+     * Beendet den laufenden Batch und macht seine Kommandos rückgängig.
+     *
+     * @param cause Der Fehler, der das Zurückrollen ausgelöst hat, oder {@code null}.
+     */
+    private void rollbackBatch(final RuntimeException cause) {
+        List<FXCommand> done = batch;
+        batch = null;
+        batchDepth = 0;
+        CompositeCommand.rollback(done.toArray(new FXCommand[done.size()]), done.size(), cause);
+    }
+
+    /**
+     * @return {@code true}, wenn gerade ein Batch läuft.
+     */
+    public boolean isBatchActive() {
+        return batch != null;
+    }
+
     /**
      * Macht das letzte Kommando, welches ausgeführt wurde, rückgängig.
      */
     public void undo() {
-        int old_pos = position;
         try {
-            commands[position].undo();
-            lastCommand = commands[position];
-            position = position - 1 > -1 ? position - 1 : 0;
+            undoChecked();
         } catch (IllegalUndoException e) {
             e.printStackTrace();
         }
-        canUndo.setValue(commands[position].getCommandState() == ExecutionState.UNDO);
-        canRedo.setValue(commands[old_pos].getCommandState() == ExecutionState.REDO);
+    }
+
+    /**
+     * Wie {@link #undo()}, reicht den Fehler aber weiter, wenn das Kommando nicht rückgängig gemacht werden kann.
+     *
+     * @throws IllegalUndoException Wenn das Kommando nicht rückgängig gemacht werden kann. Es bleibt dann ausgeführt.
+     */
+    void undoChecked() throws IllegalUndoException {
+        checkNoBatch();
+        if (undoCount > 0) {
+            try {
+                commands[index(undoCount - 1)].undo();
+                undoCount--;
+                redoCount++;
+                if (journal != null) {
+                    journal.undone();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                updateProperties();
+            }
+        }
     }
 
     /**
      * Führt das zuletzt rückgängig gemachte Kommando wieder aus.
      */
     public void redo() {
-        if (canRedo.getValue()) {
+        try {
+            redoChecked();
+        } catch (IllegalRedoException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Wie {@link #redo()}, reicht den Fehler aber weiter, wenn das Kommando nicht wiederholt werden kann.
+     *
+     * @throws IllegalRedoException Wenn das Kommando nicht wiederholt werden kann. Es bleibt dann rückgängig gemacht.
+     */
+    void redoChecked() throws IllegalRedoException {
+        checkNoBatch();
+        if (redoCount > 0) {
             try {
-                lastCommand.redo();
-                for (int i = 0; i < size; i++) {
-                    if (lastCommand == commands[i]) {
-                        position = i;
-                        canUndo.setValue(lastCommand.getCommandState() == ExecutionState.UNDO);
-                    }
+                commands[index(undoCount)].redo();
+                undoCount++;
+                redoCount--;
+                if (journal != null) {
+                    journal.redone();
                 }
-            } catch (IllegalRedoException e) {
-                e.printStackTrace();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                updateProperties();
             }
-            canRedo.setValue(false);
         }
     }
 
@@ -102,7 +339,10 @@ public class CommandHistory {
      * @return {@code true}, wenn etwas rückgängig gemacht werden kann.
      */
     public ReadOnlyBooleanProperty undoProperty() {
-        return ReadOnlyBooleanProperty.readOnlyBooleanProperty(canUndo);
+        if (undoFX == null) {
+            undoFX = FXBridge.readOnly(canUndo);
+        }
+        return undoFX;
     }
 
     /**
@@ -111,7 +351,231 @@ public class CommandHistory {
      * @return {@code true}, wenn etwas wiederholt werden kann.
      */
     public ReadOnlyBooleanProperty redoProperty() {
-        return ReadOnlyBooleanProperty.readOnlyBooleanProperty(canRedo);
+        if (redoFX == null) {
+            redoFX = FXBridge.readOnly(canRedo);
+        }
+        return redoFX;
+    }
+
+    /**
+     * Wie {@link #undoProperty()}, aber ohne JavaFX.
+     *
+     * @return Ein beobachtbarer Wert, der {@code true} ist, wenn etwas rückgängig gemacht werden kann.
+     */
+    public LiteObservable<Boolean> undoObservable() {
+        return canUndo;
+    }
+
+    /**
+     * Wie {@link #redoProperty()}, aber ohne JavaFX.
+     *
+     * @return Ein beobachtbarer Wert, der {@code true} ist, wenn etwas wiederholt werden kann.
+     */
+    public LiteObservable<Boolean> redoObservable() {
+        return canRedo;
+    }
+
+    /**
+     * @return {@code true}, wenn etwas rückgängig gemacht werden kann.
+     */
+    public boolean canUndo() {
+        return canUndo.get();
+    }
+
+    /**
+     * @return {@code true}, wenn etwas wiederholt werden kann.
+     */
+    public boolean canRedo() {
+        return canRedo.get();
+    }
+
+    /**
+     * Liefert die Anzahl der Kommandos, die aktuell in der Historie liegen.
+     *
+     * @return Anzahl der rückgängig machbaren und der wiederholbaren Kommandos.
+     */
+    public int getCount() {
+        return undoCount + redoCount;
+    }
+
+    /**
+     * @return Anzahl der Kommandos, die rückgängig gemacht werden können.
+     */
+    public int getUndoCount() {
+        return undoCount;
+    }
+
+    /**
+     * @return Anzahl der Kommandos, die wiederholt werden können.
+     */
+    public int getRedoCount() {
+        return redoCount;
+    }
+
+    /**
+     * Liefert alle Kommandos der Historie, vom ältesten bis zum neuesten. Die ersten {@link #getUndoCount()}
+     * Kommandos sind ausgeführt, der Rest wurde rückgängig gemacht.
+     *
+     * @return Eine Kopie der Einträge.
+     */
+    List<FXCommand> entries() {
+        List<FXCommand> entries = new ArrayList<>(undoCount + redoCount);
+        for (int i = 0; i < undoCount + redoCount; i++) {
+            entries.add(commands[index(i)]);
+        }
+        return entries;
+    }
+
+    /**
+     * Ersetzt den Inhalt der Historie durch bereits ausgeführte bzw. rückgängig gemachte Kommandos, ohne diese
+     * auszuführen.
+     *
+     * @param entries   Die Kommandos, vom ältesten bis zum neuesten.
+     * @param undoCount Anzahl der Kommandos, die davon ausgeführt sind.
+     */
+    void restore(final List<FXCommand> entries, final int undoCount) {
+        Arrays.fill(commands, null);
+        if (weights != null) {
+            Arrays.fill(weights, 0L);
+        }
+        totalWeight = 0L;
+        head = 0;
+        int skip = Math.max(0, entries.size() - size);
+        for (int i = skip; i < entries.size(); i++) {
+            commands[i - skip] = entries.get(i);
+            if (weights != null) {
+                weights[i - skip] = weigher.weigh(entries.get(i));
+                totalWeight += weights[i - skip];
+            }
+        }
+        this.undoCount = Math.max(0, undoCount - skip);
+        this.redoCount = entries.size() - skip - this.undoCount;
+        updateProperties();
+    }
+
+    private void journalExecuted(final FXCommand command, final boolean merged) {
+        if (journal != null) {
+            try {
+                journal.executed(command, merged);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Legt ein bereits ausgeführtes Kommando in der Historie ab.
+     *
+     * @param command    Das ausgeführte Kommando.
+     * @param allowMerge {@code true}, wenn das Kommando mit dem letzten Eintrag zusammengeführt werden darf.
+     * @return {@code true}, wenn das Kommando mit dem letzten Eintrag zusammengeführt wurde.
+     */
+    private boolean record(final FXCommand command, final boolean allowMerge) {
+        if (allowMerge && redoCount == 0 && undoCount > 0 && merge(command, true)) {
+            return true;
+        }
+        clearRedo();
+        if (undoCount == size) {
+            evictOldest();
+        }
+        int i = index(undoCount);
+        commands[i] = command;
+        undoCount++;
+        if (weights != null) {
+            weights[i] = weigher.weigh(command);
+            totalWeight += weights[i];
+            enforceWeight();
+        }
+        canUndo.set(true);
+        canRedo.set(false);
+        return false;
+    }
+
+    private void checkNoBatch() {
+        if (batch != null) {
+            throw new IllegalStateException("Während eines Batches kann nichts rückgängig gemacht oder wiederholt werden!");
+        }
+    }
+
+    /**
+     * Versucht, ein Kommando in das zuletzt ausgeführte Kommando aufzunehmen.
+     *
+     * @param command     Das neue, bereits ausgeführte Kommando.
+     * @param checkWindow {@code true}, wenn das {@link #mergeWindow} beachtet werden soll.
+     * @return {@code true}, wenn das Kommando aufgenommen wurde.
+     */
+    private boolean merge(final FXCommand command, final boolean checkWindow) {
+        int i = index(undoCount - 1);
+        FXCommand last = commands[i];
+        if (checkWindow && mergeWindow > 0 && command.getExecutionTime() - last.getExecutionTime() > mergeWindow) {
+            return false;
+        }
+        if (!last.merge(command)) {
+            return false;
+        }
+        if (weights != null) {
+            totalWeight -= weights[i];
+            weights[i] = weigher.weigh(last);
+            totalWeight += weights[i];
+            enforceWeight();
+        }
+        return true;
+    }
+
+    /**
+     * Verwirft die ältesten Kommandos, bis das Gewichtsbudget eingehalten wird.
+     */
+    private void enforceWeight() {
+        while (totalWeight > maxWeight && undoCount > 1) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Verwirft das älteste Kommando der Historie.
+     */
+    private void evictOldest() {
+        commands[head] = null;
+        if (weights != null) {
+            totalWeight -= weights[head];
+            evictedWeight += weights[head];
+            weights[head] = 0L;
+        }
+        head = index(1);
+        undoCount--;
+        evictionCount++;
+    }
+
+    /**
+     * Verwirft den Redo-Stapel. Jeder Eintrag wird genau einmal freigegeben, die Kosten verteilen sich
+     * also auf die vorherigen Aufrufe von {@link #undo()}.
+     */
+    private void clearRedo() {
+        while (redoCount > 0) {
+            redoCount--;
+            int i = index(undoCount + redoCount);
+            commands[i] = null;
+            if (weights != null) {
+                totalWeight -= weights[i];
+                weights[i] = 0L;
+            }
+        }
+    }
+
+    private void updateProperties() {
+        canUndo.set(undoCount > 0);
+        canRedo.set(redoCount > 0);
+    }
+
+    /**
+     * Rechnet einen Abstand zum ältesten Eintrag in einen Index im Ringpuffer um.
+     *
+     * @param offset Abstand zu {@code head}.
+     * @return Der Index im Ringpuffer.
+     */
+    private int index(final int offset) {
+        int i = head + offset;
+        return i >= size ? i - size : i;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,486 @@
+package de.yabue.bakacore.Command;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Ein Journal, das alle Änderungen an einer {@link CommandHistory} fortlaufend in eine Datei schreibt, damit die
+ * Historie nach einem Absturz wiederhergestellt werden kann. Die Kommandos müssen dafür vollständig serialisierbar
+ * sein und beim erneuten Ausführen auf demselben Ausgangszustand dasselbe Ergebnis liefern.
+ * <p>
+ * Jeder Eintrag besteht aus Länge, CRC32 Prüfsumme, Typ und Nutzdaten. Ein unvollständiger Eintrag am Ende der
+ * Datei wird bei der Wiederherstellung abgeschnitten. Einträge werden gemäß {@link JournalSyncPolicy} gesammelt
+ * und gemeinsam geschrieben (Group Commit). Eine angefangene Gruppe wird spätestens nach {@code maxDelayMillis}
+ * geschrieben, auch wenn keine weiteren Einträge folgen. Schlägt dieses Schreiben fehl, wirft der nächste Aufruf von
+ * {@link #flush()} den Fehler.
+ * <p>
+ * Über {@link #checkpoint(CommandHistory, Serializable)} wird das Journal verdichtet: Die Datei wird durch einen
+ * einzigen Eintrag mit einem Schnappschuss des Modells und den Kommandos der Historie ersetzt. Dadurch bleibt die
+ * Wiederherstellungszeit begrenzt.
+ * <p>
+ * Typischer Ablauf beim Start:
+ * <pre>
+ * CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.GROUP, 32);
+ * journal.recover(history, snapshot -&gt; model.restore((ModelState) snapshot));
+ * history.setJournal(journal);
+ * </pre>
+ *
+ * @author Yannick Bülter
+ */
+public class CommandJournal implements Closeable {
+
+    private static final byte EXECUTE = 1;
+
+    private static final byte UNDO = 2;
+
+    private static final byte REDO = 3;
+
+    private static final byte CHECKPOINT = 4;
+
+    /**
+     * Wie {@link #EXECUTE}, das Kommando wurde aber mit dem letzten Eintrag der Historie zusammengeführt.
+     */
+    private static final byte MERGE = 5;
+
+    private static final int HEADER = 9;
+
+    @Getter
+    private final File file;
+
+    @Getter
+    private final JournalSyncPolicy policy;
+
+    @Getter
+    private final int groupSize;
+
+    @Getter
+    private final long maxDelayMillis;
+
+    /**
+     * Schreibt angefangene Gruppen nach {@link #maxDelayMillis}. {@code null}, wenn jeder Eintrag sofort geschrieben
+     * wird oder nicht nach Zeit geschrieben werden soll.
+     */
+    private final ScheduledExecutorService flusher;
+
+    private boolean flushScheduled;
+
+    /**
+     * Fehler beim Schreiben nach Zeit. Er wird beim nächsten {@link #flush()} geworfen, da der Thread des
+     * {@link #flusher} niemanden hat, dem er ihn melden kann.
+     */
+    private IOException delayedFailure;
+
+    private FileChannel channel;
+
+    private ByteBuffer pending;
+
+    private int pendingRecords;
+
+    private final CRC32 crc;
+
+    private int checkpointInterval;
+
+    private int recordsSinceCheckpoint;
+
+    private CommandHistory checkpointHistory;
+
+    private Supplier<? extends Serializable> snapshotSupplier;
+
+    /**
+     * Öffnet ein Journal. Existiert die Datei noch nicht, wird sie angelegt.
+     *
+     * @param file      Die Journal Datei.
+     * @param policy    Bestimmt, wann geschrieben und synchronisiert wird.
+     * @param groupSize Anzahl an Einträgen, die bei {@link JournalSyncPolicy#GROUP} und {@link JournalSyncPolicy#NEVER}
+     *                  gesammelt werden, bevor sie geschrieben werden.
+     * @throws IOException Wenn die Datei nicht geöffnet werden kann.
+     */
+    public CommandJournal(@NonNull final File file, @NonNull final JournalSyncPolicy policy, final int groupSize) throws IOException {
+        this(file, policy, groupSize, 1000L);
+    }
+
+    /**
+     * Öffnet ein Journal. Existiert die Datei noch nicht, wird sie angelegt.
+     *
+     * @param file           Die Journal Datei.
+     * @param policy         Bestimmt, wann geschrieben und synchronisiert wird.
+     * @param groupSize      Anzahl an Einträgen, die bei {@link JournalSyncPolicy#GROUP} und
+     *                       {@link JournalSyncPolicy#NEVER} gesammelt werden, bevor sie geschrieben werden.
+     * @param maxDelayMillis Wie lange der erste Eintrag einer Gruppe höchstens ungeschrieben bleibt. {@code 0} schaltet
+     *                       das Schreiben nach Zeit ab, die Gruppe wird dann erst mit {@link #flush()} oder beim
+     *                       Schließen geschrieben.
+     * @throws IOException Wenn die Datei nicht geöffnet werden kann.
+     */
+    public CommandJournal(@NonNull final File file, @NonNull final JournalSyncPolicy policy, final int groupSize,
+                          final long maxDelayMillis) throws IOException {
+        if (groupSize < 1) {
+            throw new IllegalArgumentException("Die Gruppengröße muss mindestens 1 sein!");
+        }
+        if (maxDelayMillis < 0) {
+            throw new IllegalArgumentException("Die Verzögerung darf nicht negativ sein!");
+        }
+        this.file = file;
+        this.policy = policy;
+        this.groupSize = groupSize;
+        this.maxDelayMillis = maxDelayMillis;
+        crc = new CRC32();
+        pending = ByteBuffer.allocate(8192);
+        channel = open(file.toPath());
+        if (maxDelayMillis > 0 && policy != JournalSyncPolicy.ALWAYS && groupSize > 1) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "CommandJournalFlush");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Erstellt automatisch einen Checkpoint, sobald seit dem letzten Checkpoint {@code interval} Einträge
+     * geschrieben wurden.
+     *
+     * @param interval Anzahl an Einträgen zwischen zwei Checkpoints. {@code 0} schaltet das ab.
+     * @param history  Die Historie, deren Kommandos in den Checkpoint übernommen werden.
+     * @param snapshot Liefert den aktuellen Zustand des Modells.
+     */
+    public synchronized void enableCheckpoints(final int interval, @NonNull final CommandHistory history,
+                                               @NonNull final Supplier<? extends Serializable> snapshot) {
+        checkpointInterval = interval;
+        checkpointHistory = history;
+        snapshotSupplier = snapshot;
+    }
+
+    /**
+     * Vermerkt ein ausgeführtes Kommando.
+     *
+     * @param command Das ausgeführte Kommando.
+     * @throws IOException Wenn nicht geschrieben werden kann.
+     */
+    public void executed(@NonNull final FXCommand command) throws IOException {
+        executed(command, false);
+    }
+
+    /**
+     * Vermerkt ein ausgeführtes Kommando und ob die Historie es mit ihrem letzten Eintrag zusammengeführt hat. Bei
+     * der Wiederherstellung wird genau so zusammengeführt, unabhängig vom Zeitfenster der Historie.
+     *
+     * @param command Das ausgeführte Kommando.
+     * @param merged  {@code true}, wenn das Kommando in den letzten Eintrag aufgenommen wurde.
+     * @throws IOException Wenn nicht geschrieben werden kann.
+     */
+    public void executed(@NonNull final FXCommand command, final boolean merged) throws IOException {
+        append(merged ? MERGE : EXECUTE, serialize(command));
+    }
+
+    /**
+     * Vermerkt, dass das letzte Kommando rückgängig gemacht wurde.
+     *
+     * @throws IOException Wenn nicht geschrieben werden kann.
+     */
+    public void undone() throws IOException {
+        append(UNDO, new byte[0]);
+    }
+
+    /**
+     * Vermerkt, dass das zuletzt rückgängig gemachte Kommando wiederholt wurde.
+     *
+     * @throws IOException Wenn nicht geschrieben werden kann.
+     */
+    public void redone() throws IOException {
+        append(REDO, new byte[0]);
+    }
+
+    /**
+     * Schreibt alle gesammelten Einträge und synchronisiert sie, sofern die {@link JournalSyncPolicy} das vorsieht.
+     *
+     * @throws IOException Wenn nicht geschrieben werden kann, oder wenn das letzte Schreiben nach Zeit fehlgeschlagen ist.
+     */
+    public synchronized void flush() throws IOException {
+        if (delayedFailure != null) {
+            IOException failure = delayedFailure;
+            delayedFailure = null;
+            throw failure;
+        }
+        if (pendingRecords > 0) {
+            pending.flip();
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+            pending.clear();
+            pendingRecords = 0;
+            if (policy != JournalSyncPolicy.NEVER) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Ersetzt das Journal durch einen einzigen Eintrag, der den Zustand des Modells und alle Kommandos der Historie
+     * enthält. Die neue Datei wird vollständig geschrieben und danach atomar umbenannt.
+     *
+     * @param history  Die Historie, deren Kommandos übernommen werden.
+     * @param snapshot Der aktuelle Zustand des Modells.
+     * @throws IOException Wenn nicht geschrieben werden kann.
+     */
+    public synchronized void checkpoint(@NonNull final CommandHistory history, final Serializable snapshot) throws IOException {
+        flush();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(snapshot);
+            out.writeInt(history.getUndoCount());
+            out.writeObject(history.entries());
+        }
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer record = encode(CHECKPOINT, bytes.toByteArray());
+            while (record.hasRemaining()) {
+                out.write(record);
+            }
+            out.force(true);
+        }
+        channel.close();
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory(target);
+            recordsSinceCheckpoint = 0;
+        } finally {
+            // Schlägt das Umbenennen fehl, wird mit dem bisherigen Journal weitergearbeitet.
+            channel = open(target);
+        }
+    }
+
+    /**
+     * Stellt eine Historie aus dem Journal wieder her. Ein Schnappschuss aus einem Checkpoint wird an {@code restore}
+     * übergeben, danach werden alle folgenden Einträge erneut auf der Historie ausgeführt. Die Historie darf dabei
+     * noch kein Journal besitzen. Ein beschädigtes Ende der Datei wird abgeschnitten.
+     *
+     * @param history Die leere Historie, die wiederhergestellt werden soll.
+     * @param restore Stellt das Modell aus einem Schnappschuss wieder her.
+     * @return Anzahl der gelesenen Einträge.
+     * @throws IOException Wenn nicht gelesen werden kann.
+     */
+    public synchronized int recover(@NonNull final CommandHistory history, @NonNull final Consumer<Serializable> restore) throws IOException {
+        flush();
+        int records = 0;
+        long valid = 0L;
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (true) {
+                header.clear();
+                if (!readFully(in, header)) {
+                    break;
+                }
+                header.flip();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                byte type = header.get();
+                if (length < 0 || length > in.size() - in.position()) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                if (!readFully(in, payload)) {
+                    break;
+                }
+                byte[] data = payload.array();
+                if (checksum != checksum(type, data)) {
+                    break;
+                }
+                apply(history, restore, type, data);
+                records++;
+                valid = in.position();
+            }
+        }
+        if (channel.size() > valid) {
+            channel.truncate(valid);
+            channel.force(true);
+        }
+        recordsSinceCheckpoint = records;
+        return records;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void apply(final CommandHistory history, final Consumer<Serializable> restore, final byte type,
+                       final byte[] data) throws IOException {
+        switch (type) {
+            case EXECUTE:
+                history.replay((FXCommand) deserialize(data), false);
+                break;
+            case MERGE:
+                history.replay((FXCommand) deserialize(data), true);
+                break;
+            case UNDO:
+                history.undo();
+                break;
+            case REDO:
+                history.redo();
+                break;
+            case CHECKPOINT:
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+                    restore.accept((Serializable) in.readObject());
+                    int undoCount = in.readInt();
+                    @SuppressWarnings("unchecked")
+                    List<FXCommand> entries = (List<FXCommand>) in.readObject();
+                    history.restore(entries, undoCount);
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Der Checkpoint kann nicht gelesen werden!", e);
+                }
+                break;
+            default:
+                throw new IOException("Unbekannter Eintrag im Journal: " + type);
+        }
+    }
+
+    private synchronized void append(final byte type, final byte[] payload) throws IOException {
+        if (delayedFailure != null) {
+            flush();
+        }
+        ByteBuffer record = encode(type, payload);
+        if (pending.remaining() < record.remaining()) {
+            flushBuffer();
+            if (pending.capacity() < record.remaining()) {
+                pending = ByteBuffer.allocate(record.remaining());
+            }
+        }
+        pending.put(record);
+        pendingRecords++;
+        recordsSinceCheckpoint++;
+        if (policy == JournalSyncPolicy.ALWAYS || pendingRecords >= groupSize) {
+            flush();
+        } else if (flusher != null && !flushScheduled) {
+            flushScheduled = true;
+            flusher.schedule(this::flushDelayed, maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+        if (checkpointInterval > 0 && recordsSinceCheckpoint >= checkpointInterval) {
+            checkpoint(checkpointHistory, snapshotSupplier.get());
+        }
+    }
+
+    /**
+     * Schreibt eine angefangene Gruppe, nachdem {@link #maxDelayMillis} verstrichen ist.
+     */
+    private synchronized void flushDelayed() {
+        flushScheduled = false;
+        if (channel.isOpen()) {
+            try {
+                flush();
+            } catch (IOException e) {
+                delayedFailure = e;
+            }
+        }
+    }
+
+    /**
+     * Schreibt den Puffer, ohne ihn als Gruppe abzuschließen.
+     */
+    private void flushBuffer() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            channel.write(pending);
+        }
+        pending.clear();
+    }
+
+    private ByteBuffer encode(final byte type, final byte[] payload) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER + payload.length);
+        record.putInt(payload.length);
+        record.putInt(checksum(type, payload));
+        record.put(type);
+        record.put(payload);
+        record.flip();
+        return record;
+    }
+
+    private int checksum(final byte type, final byte[] payload) {
+        crc.reset();
+        crc.update(type);
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    private static FileChannel open(final Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        channel.position(channel.size());
+        return channel;
+    }
+
+    /**
+     * Synchronisiert das Verzeichnis einer Datei, damit ein Umbenennen einen Absturz übersteht. Nicht jedes
+     * Betriebssystem erlaubt das, z.B. Windows; dort bleibt es beim Umbenennen.
+     */
+    private static void syncDirectory(final Path path) {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Verzeichnisse lassen sich hier nicht synchronisieren
+        }
+    }
+
+    private static boolean readFully(final FileChannel in, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] serialize(final FXCommand command) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(command);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(final byte[] data) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Das Kommando kann nicht gelesen werden!", e);
+        } catch (EOFException e) {
+            throw new IOException("Das Kommando ist unvollständig!", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package de.yabue.bakacore.Command;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ein Knoten in einem {@link CommandTree}. Jeder Knoten steht für den Zustand nach der Ausführung seines Kommandos.
+ * Die Wurzel besitzt kein Kommando und steht für den Ausgangszustand.
+ *
+ * @author Yannick Bülter
+ */
+public class CommandNode {
+
+    @Getter
+    private final FXCommand command;
+
+    @Getter
+    private final CommandNode parent;
+
+    /**
+     * Abstand zur Wurzel.
+     */
+    @Getter
+    private final int depth;
+
+    private final List<CommandNode> children;
+
+    /**
+     * Das zuletzt besuchte Kind. Wird von {@link CommandTree#redo()} genutzt.
+     */
+    CommandNode lastChild;
+
+    CommandNode(final FXCommand command, final CommandNode parent) {
+        this.command = command;
+        this.parent = parent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.children = new ArrayList<>(1);
+    }
+
+    /**
+     * @return Alle Zweige, die von diesem Zustand ausgehen, in der Reihenfolge ihrer Entstehung.
+     */
+    public List<CommandNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    CommandNode addChild(final FXCommand command) {
+        CommandNode child = new CommandNode(command, this);
+        children.add(child);
+        lastChild = child;
+        return child;
+    }
+}
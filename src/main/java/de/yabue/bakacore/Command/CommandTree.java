@@ -0,0 +1,212 @@
+package de.yabue.bakacore.Command;
+
+import de.yabue.bakacore.Command.CommandExceptions.IllegalRedoException;
+import de.yabue.bakacore.Command.CommandExceptions.IllegalUndoException;
+import de.yabue.bakacore.Observable.FXBridge;
+import de.yabue.bakacore.Observable.LiteBooleanProperty;
+import de.yabue.bakacore.Observable.LiteObservable;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Eine verzweigte Kommando Historie (Undo Baum). Anders als bei der {@link CommandHistory} wird beim Ausführen eines
+ * Kommandos nach einem Undo nichts verworfen, sondern ein neuer Zweig angelegt. Über {@link #jumpTo(CommandNode)}
+ * kann jeder bisher erreichte Zustand direkt wiederhergestellt werden.
+ *
+ * @author Yannick Bülter
+ */
+public class CommandTree {
+
+    @Getter
+    private final CommandNode root;
+
+    /**
+     * Der Knoten, dessen Zustand gerade hergestellt ist.
+     */
+    @Getter
+    private CommandNode current;
+
+    private final LiteBooleanProperty canUndo;
+
+    private final LiteBooleanProperty canRedo;
+
+    /**
+     * JavaFX Gegenstücke zu {@link #canUndo} und {@link #canRedo}. Werden erst bei Bedarf erzeugt, damit der
+     * Baum auch ohne JavaFX genutzt werden kann.
+     */
+    private ReadOnlyBooleanProperty undoFX;
+
+    private ReadOnlyBooleanProperty redoFX;
+
+    public CommandTree() {
+        root = new CommandNode(null, null);
+        current = root;
+        canUndo = new LiteBooleanProperty(false);
+        canRedo = new LiteBooleanProperty(false);
+    }
+
+    /**
+     * Führt ein übergebenes Kommando aus und hängt es als neuen Zweig an den aktuellen Zustand, wenn es
+     * rückgängig gemacht werden kann.
+     *
+     * @param command Das Kommando, das ausgeführt werden soll.
+     * @return Der neue aktuelle Knoten.
+     */
+    public CommandNode execute(@NonNull final FXCommand command) {
+        command.execute();
+        if (command.isUndoable()) {
+            current = current.addChild(command);
+            updateProperties();
+        }
+        return current;
+    }
+
+    /**
+     * Macht das Kommando des aktuellen Knotens rückgängig und kehrt zum Elternknoten zurück.
+     */
+    public void undo() {
+        if (current != root) {
+            try {
+                current.getCommand().undo();
+                current = current.getParent();
+            } catch (IllegalUndoException e) {
+                e.printStackTrace();
+            }
+            updateProperties();
+        }
+    }
+
+    /**
+     * Wiederholt das Kommando des zuletzt besuchten Kindknotens.
+     */
+    public void redo() {
+        CommandNode child = current.lastChild;
+        if (child != null) {
+            try {
+                child.getCommand().redo();
+                current = child;
+            } catch (IllegalRedoException e) {
+                e.printStackTrace();
+            }
+            updateProperties();
+        }
+    }
+
+    /**
+     * Stellt den Zustand eines beliebigen Knotens her. Dazu wird bis zum gemeinsamen Vorfahren des aktuellen und des
+     * Zielknotens zurückgegangen und von dort aus der Weg zum Ziel wiederholt. Der Aufwand ist proportional zur Tiefe
+     * der beiden Knoten. Die Properties ändern sich erst am Ende, egal wie viele Schritte nötig sind.
+     *
+     * @param target Der Knoten, dessen Zustand hergestellt werden soll.
+     * @throws IllegalUndoException Wenn ein Kommando auf dem Weg nicht rückgängig gemacht werden kann.
+     * @throws IllegalRedoException Wenn ein Kommando auf dem Weg nicht wiederholt werden kann.
+     */
+    public void jumpTo(@NonNull final CommandNode target) throws IllegalUndoException, IllegalRedoException {
+        CommandNode ancestor = commonAncestor(current, target);
+        if (ancestor == null) {
+            throw new IllegalArgumentException("Der Knoten gehört nicht zu diesem Baum!");
+        }
+        try {
+            while (current != ancestor) {
+                current.getCommand().undo();
+                current = current.getParent();
+            }
+            CommandNode[] path = new CommandNode[target.getDepth() - ancestor.getDepth()];
+            CommandNode node = target;
+            for (int i = path.length - 1; i >= 0; i--) {
+                path[i] = node;
+                node = node.getParent();
+            }
+            for (CommandNode step : path) {
+                step.getCommand().redo();
+                current.lastChild = step;
+                current = step;
+            }
+        } finally {
+            updateProperties();
+        }
+    }
+
+    /**
+     * Erlaubt es anderen Objekten zu wissen, ob Aktionen rückgängig gemacht werden können, oder nicht.
+     *
+     * @return {@code true}, wenn etwas rückgängig gemacht werden kann.
+     */
+    public ReadOnlyBooleanProperty undoProperty() {
+        if (undoFX == null) {
+            undoFX = FXBridge.readOnly(canUndo);
+        }
+        return undoFX;
+    }
+
+    /**
+     * Erlaubt es anderen Objekten zu wissen, ob Aktionen wiederholt werden können, oder nicht.
+     *
+     * @return {@code true}, wenn etwas wiederholt werden kann.
+     */
+    public ReadOnlyBooleanProperty redoProperty() {
+        if (redoFX == null) {
+            redoFX = FXBridge.readOnly(canRedo);
+        }
+        return redoFX;
+    }
+
+    /**
+     * Wie {@link #undoProperty()}, aber ohne JavaFX.
+     *
+     * @return Ein beobachtbarer Wert, der {@code true} ist, wenn etwas rückgängig gemacht werden kann.
+     */
+    public LiteObservable<Boolean> undoObservable() {
+        return canUndo;
+    }
+
+    /**
+     * Wie {@link #redoProperty()}, aber ohne JavaFX.
+     *
+     * @return Ein beobachtbarer Wert, der {@code true} ist, wenn etwas wiederholt werden kann.
+     */
+    public LiteObservable<Boolean> redoObservable() {
+        return canRedo;
+    }
+
+    /**
+     * @return {@code true}, wenn etwas rückgängig gemacht werden kann.
+     */
+    public boolean canUndo() {
+        return canUndo.get();
+    }
+
+    /**
+     * @return {@code true}, wenn etwas wiederholt werden kann.
+     */
+    public boolean canRedo() {
+        return canRedo.get();
+    }
+
+    private void updateProperties() {
+        canUndo.set(current != root);
+        canRedo.set(current.lastChild != null);
+    }
+
+    /**
+     * Sucht den tiefsten gemeinsamen Vorfahren zweier Knoten.
+     *
+     * @return Der gemeinsame Vorfahre oder {@code null}, wenn die Knoten zu verschiedenen Bäumen gehören.
+     */
+    private static CommandNode commonAncestor(final CommandNode first, final CommandNode second) {
+        CommandNode a = first;
+        CommandNode b = second;
+        while (a.getDepth() > b.getDepth()) {
+            a = a.getParent();
+        }
+        while (b.getDepth() > a.getDepth()) {
+            b = b.getParent();
+        }
+        while (a != b) {
+            a = a.getParent();
+            b = b.getParent();
+        }
+        return a;
+    }
+}
@@ -0,0 +1,24 @@
+package de.yabue.bakacore.Command;
+
+/**
+ * Schätzt, wie viel Speicher ein Kommando belegt, solange es in einer {@link CommandHistory} liegt.
+ * Die Einheit ist frei wählbar, sollte aber mit dem Budget der Historie zusammenpassen (in der Regel Bytes).
+ *
+ * @author Yannick Bülter
+ */
+@FunctionalInterface
+public interface CommandWeigher {
+
+    /**
+     * Nutzt das Gewicht, welches das Kommando über {@link FXCommand#getWeight()} selbst angibt.
+     */
+    CommandWeigher REPORTED = FXCommand::getWeight;
+
+    /**
+     * Liefert das geschätzte Gewicht eines Kommandos.
+     *
+     * @param command Das Kommando, das gewogen werden soll.
+     * @return Das Gewicht, niemals negativ.
+     */
+    long weigh(FXCommand command);
+}
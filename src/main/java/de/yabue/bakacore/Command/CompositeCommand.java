@@ -0,0 +1,184 @@
+package de.yabue.bakacore.Command;
+
+import de.yabue.bakacore.Command.CommandExceptions.IllegalRedoException;
+import de.yabue.bakacore.Command.CommandExceptions.IllegalUndoException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fasst mehrere Kommandos zu einem einzigen Kommando zusammen. Die Kommandos werden in der übergebenen
+ * Reihenfolge ausgeführt und wiederholt und in umgekehrter Reihenfolge rückgängig gemacht.
+ * Schlägt die Ausführung eines Kommandos fehl, werden die bereits ausgeführten Kommandos wieder rückgängig
+ * gemacht, bevor der Fehler weitergereicht wird. Genauso werden beim Rückgängigmachen bzw. Wiederholen die bereits
+ * bearbeiteten Kommandos wiederholt bzw. rückgängig gemacht, damit das zusammengesetzte Kommando nie nur zum Teil
+ * wirkt.
+ *
+ * @author Yannick Bülter
+ */
+public class CompositeCommand extends FXCommand {
+
+    private final FXCommand[] commands;
+
+    /**
+     * Konstruiert ein neues zusammengesetztes Kommando. Es kann nur rückgängig gemacht (bzw. wiederholt) werden,
+     * wenn das für alle enthaltenen Kommandos gilt.
+     *
+     * @param commands Die Kommandos, die gemeinsam ausgeführt werden sollen.
+     */
+    public CompositeCommand(final List<? extends FXCommand> commands) {
+        super(allUndoable(commands), allRedoable(commands));
+        this.commands = commands.toArray(new FXCommand[commands.size()]);
+    }
+
+    /**
+     * Konstruiert ein neues zusammengesetztes Kommando.
+     *
+     * @param commands Die Kommandos, die gemeinsam ausgeführt werden sollen.
+     */
+    public CompositeCommand(final FXCommand... commands) {
+        this(Arrays.asList(commands));
+    }
+
+    /**
+     * Erstellt ein zusammengesetztes Kommando aus Kommandos, die bereits ausgeführt wurden.
+     *
+     * @param commands Die bereits ausgeführten Kommandos.
+     * @return Ein bereits ausgeführtes, zusammengesetztes Kommando.
+     */
+    static CompositeCommand executed(final List<FXCommand> commands) {
+        CompositeCommand composite = new CompositeCommand(commands);
+        composite.markExecuted();
+        return composite;
+    }
+
+    /**
+     * @return Die enthaltenen Kommandos in Ausführungsreihenfolge.
+     */
+    public List<FXCommand> getCommands() {
+        return Collections.unmodifiableList(Arrays.asList(commands));
+    }
+
+    @Override
+    public long getWeight() {
+        long weight = 0L;
+        for (FXCommand command : commands) {
+            weight += command.getWeight();
+        }
+        return weight;
+    }
+
+    @Override
+    protected void executeAction() {
+        int done = 0;
+        try {
+            for (; done < commands.length; done++) {
+                commands[done].execute();
+            }
+        } catch (RuntimeException e) {
+            rollback(commands, done, e);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void undoAction() {
+        int i = commands.length - 1;
+        try {
+            for (; i >= 0; i--) {
+                commands[i].undo();
+            }
+        } catch (IllegalUndoException e) {
+            IllegalStateException failure = new IllegalStateException(e.getMessage(), e);
+            reapply(commands, i + 1, failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            reapply(commands, i + 1, e);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void redoAction() {
+        int done = 0;
+        try {
+            for (; done < commands.length; done++) {
+                commands[done].redo();
+            }
+        } catch (IllegalRedoException e) {
+            IllegalStateException failure = new IllegalStateException(e.getMessage(), e);
+            rollback(commands, done, failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            rollback(commands, done, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Wiederholt die Kommandos ab {@code from}, die beim Rückgängigmachen bereits rückgängig gemacht wurden.
+     *
+     * @param commands Die Kommandos.
+     * @param from     Index des ersten bereits rückgängig gemachten Kommandos.
+     * @param cause    Der Fehler beim Rückgängigmachen. Fehler beim Wiederholen werden ihm angehängt.
+     */
+    private static void reapply(final FXCommand[] commands, final int from, final Throwable cause) {
+        for (int i = from; i < commands.length; i++) {
+            try {
+                commands[i].redo();
+            } catch (IllegalRedoException | RuntimeException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Macht die ersten {@code count} Kommandos in umgekehrter Reihenfolge rückgängig. Scheitert eines davon, werden
+     * die übrigen trotzdem rückgängig gemacht.
+     *
+     * @param commands Die Kommandos.
+     * @param count    Anzahl der bereits ausgeführten Kommandos.
+     * @param cause    Der Fehler, der das Zurückrollen ausgelöst hat. Fehler beim Zurückrollen werden ihm angehängt.
+     *                 Bei {@code null} werden sie als {@link IllegalStateException} geworfen.
+     */
+    static void rollback(final FXCommand[] commands, final int count, final Throwable cause) {
+        IllegalStateException failure = null;
+        for (int i = count - 1; i >= 0; i--) {
+            if (commands[i].isUndoable()) {
+                try {
+                    commands[i].undo();
+                } catch (IllegalUndoException | RuntimeException e) {
+                    if (cause != null) {
+                        cause.addSuppressed(e);
+                    } else if (failure == null) {
+                        failure = new IllegalStateException("Der Batch konnte nicht vollständig zurückgerollt werden!", e);
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static boolean allUndoable(final List<? extends FXCommand> commands) {
+        for (FXCommand command : commands) {
+            if (!command.isUndoable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean allRedoable(final List<? extends FXCommand> commands) {
+        for (FXCommand command : commands) {
+            if (!command.isRedoable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
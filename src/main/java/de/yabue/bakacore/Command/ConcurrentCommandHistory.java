@@ -0,0 +1,319 @@
+package de.yabue.bakacore.Command;
+
+import de.yabue.bakacore.Command.CommandExceptions.IllegalRedoException;
+import de.yabue.bakacore.Command.CommandExceptions.IllegalUndoException;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Eine Kommando Historie, in die mehrere Threads gleichzeitig Kommandos ausführen können.
+ * <p>
+ * Der Zustand besteht aus zwei unveränderlichen, verketteten Stapeln (Undo und Redo), die gemeinsam über eine
+ * {@link AtomicReference} ausgetauscht werden. {@link #execute(FXCommand)} ist dadurch lock-frei: Das Kommando wird
+ * auf dem aufrufenden Thread ausgeführt und danach per Compare-And-Set auf den Undo-Stapel gelegt. Da das Kommando
+ * vor dem Veröffentlichen ausgeführt wird, sieht jeder Thread, der es später rückgängig macht, auch alle seine
+ * Auswirkungen.
+ * <p>
+ * {@link #undo()} und {@link #redo()} verändern das Modell in einer festen Reihenfolge und werden deshalb
+ * untereinander über eine eigene Sperre serialisiert. Produzenten werden davon nie blockiert.
+ *
+ * @author Yannick Bülter
+ */
+public class ConcurrentCommandHistory {
+
+    @Getter
+    private final int size;
+
+    private final AtomicReference<State> state;
+
+    private final ReentrantLock consumerLock;
+
+    private final AtomicLong evictionCount;
+
+    /**
+     * Konstruiert eine neue Historie.
+     *
+     * @param size Maximale Anzahl an Kommandos, die rückgängig gemacht werden können.
+     */
+    public ConcurrentCommandHistory(final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Die Historie muss mindestens ein Kommando aufnehmen können!");
+        }
+        this.size = size;
+        state = new AtomicReference<>(new State(null, 0, null, 0, 0L));
+        consumerLock = new ReentrantLock();
+        evictionCount = new AtomicLong();
+    }
+
+    /**
+     * Führt ein übergebenes Kommando auf dem aufrufenden Thread aus und fügt es der Historie hinzu, wenn es
+     * rückgängig gemacht werden kann. Alle Kommandos, die bis dahin wiederholt werden konnten, werden verworfen.
+     *
+     * @param command Das Kommando, das ausgeführt werden soll.
+     */
+    public void execute(@NonNull final FXCommand command) {
+        command.execute();
+        if (command.isUndoable()) {
+            State current;
+            State next;
+            do {
+                current = state.get();
+                Node undo = new Node(command, current.undo);
+                if (undo.length > 2 * size) {
+                    undo = trim(undo, size);
+                }
+                next = new State(undo, Math.min(current.undoCount + 1, size), null, 0, current.epoch + 1);
+            } while (!state.compareAndSet(current, next));
+            if (current.undoCount == size) {
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Macht das letzte Kommando, welches ausgeführt wurde, rückgängig. Schlägt das Undo fehl, bleibt das Kommando
+     * auf dem Undo-Stapel.
+     *
+     * @return {@code true}, wenn ein Kommando rückgängig gemacht wurde.
+     */
+    public boolean undo() {
+        consumerLock.lock();
+        try {
+            State current;
+            do {
+                current = state.get();
+                if (current.undoCount == 0) {
+                    return false;
+                }
+            } while (!state.compareAndSet(current, new State(current.undo.next, current.undoCount - 1,
+                    current.redo, current.redoCount, current.epoch)));
+            FXCommand command = current.undo.command;
+            try {
+                command.undo();
+            } catch (IllegalUndoException e) {
+                e.printStackTrace();
+                restore(command, current.undo.next);
+                return false;
+            } catch (RuntimeException e) {
+                restore(command, current.undo.next);
+                throw e;
+            }
+            State latest;
+            do {
+                latest = state.get();
+                if (latest.epoch != current.epoch) {
+                    // Inzwischen wurde ein neues Kommando ausgeführt, der Redo-Stapel ist damit hinfällig.
+                    return true;
+                }
+            } while (!state.compareAndSet(latest, new State(latest.undo, latest.undoCount,
+                    new Node(command, latest.redo), latest.redoCount + 1, latest.epoch)));
+            return true;
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    /**
+     * Führt das zuletzt rückgängig gemachte Kommando wieder aus. Schlägt das Redo fehl, bleibt das Kommando auf dem
+     * Redo-Stapel.
+     *
+     * @return {@code true}, wenn ein Kommando wiederholt wurde.
+     */
+    public boolean redo() {
+        consumerLock.lock();
+        try {
+            State current;
+            do {
+                current = state.get();
+                if (current.redoCount == 0) {
+                    return false;
+                }
+            } while (!state.compareAndSet(current, new State(current.undo, current.undoCount,
+                    current.redo.next, current.redoCount - 1, current.epoch)));
+            FXCommand command = current.redo.command;
+            try {
+                command.redo();
+            } catch (IllegalRedoException e) {
+                e.printStackTrace();
+                restoreRedo(command, current.epoch);
+                return false;
+            } catch (RuntimeException e) {
+                restoreRedo(command, current.epoch);
+                throw e;
+            }
+            State latest;
+            State next;
+            do {
+                latest = state.get();
+                Node undo = new Node(command, latest.undo);
+                if (undo.length > 2 * size) {
+                    undo = trim(undo, size);
+                }
+                next = new State(undo, Math.min(latest.undoCount + 1, size), latest.redo, latest.redoCount, latest.epoch);
+            } while (!state.compareAndSet(latest, next));
+            return true;
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true}, wenn etwas rückgängig gemacht werden kann.
+     */
+    public boolean canUndo() {
+        return state.get().undoCount > 0;
+    }
+
+    /**
+     * @return {@code true}, wenn etwas wiederholt werden kann.
+     */
+    public boolean canRedo() {
+        return state.get().redoCount > 0;
+    }
+
+    /**
+     * @return Anzahl der Kommandos, die rückgängig gemacht werden können.
+     */
+    public int getUndoCount() {
+        return state.get().undoCount;
+    }
+
+    /**
+     * @return Anzahl der Kommandos, die wiederholt werden können.
+     */
+    public int getRedoCount() {
+        return state.get().redoCount;
+    }
+
+    /**
+     * @return Anzahl der Kommandos, die wegen der Größenbegrenzung verworfen wurden.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Legt ein Kommando, dessen Undo fehlgeschlagen ist, zurück auf den Undo-Stapel. Wurden inzwischen neue Kommandos
+     * ausgeführt, kommt es unter diese, also an die Stelle, von der es genommen wurde. Ist diese Stelle wegen der
+     * Größenbegrenzung bereits abgeschnitten, wird das Kommando wie ein verdrängtes verworfen.
+     *
+     * @param command Das Kommando.
+     * @param below   Der Knoten, der beim Entnehmen unter dem Kommando lag.
+     */
+    private void restore(final FXCommand command, final Node below) {
+        State latest;
+        State next;
+        do {
+            latest = state.get();
+            int above = 0;
+            Node node = latest.undo;
+            while (node != below && above < latest.undoCount) {
+                node = node.next;
+                above++;
+            }
+            if (node != below) {
+                evictionCount.incrementAndGet();
+                return;
+            }
+            FXCommand[] newer = new FXCommand[above];
+            node = latest.undo;
+            for (int i = 0; i < above; i++) {
+                newer[i] = node.command;
+                node = node.next;
+            }
+            Node undo = new Node(command, below);
+            for (int i = above - 1; i >= 0; i--) {
+                undo = new Node(newer[i], undo);
+            }
+            next = new State(undo, Math.min(latest.undoCount + 1, size), latest.redo, latest.redoCount,
+                    latest.epoch);
+        } while (!state.compareAndSet(latest, next));
+    }
+
+    /**
+     * Legt ein Kommando, dessen Redo fehlgeschlagen ist, zurück auf den Redo-Stapel. Wurde inzwischen ein neues
+     * Kommando ausgeführt, ist der Redo-Stapel hinfällig und das Kommando wird verworfen.
+     *
+     * @param command Das Kommando.
+     * @param epoch   Die Epoche beim Entnehmen.
+     */
+    private void restoreRedo(final FXCommand command, final long epoch) {
+        State latest;
+        do {
+            latest = state.get();
+            if (latest.epoch != epoch) {
+                return;
+            }
+        } while (!state.compareAndSet(latest, new State(latest.undo, latest.undoCount,
+                new Node(command, latest.redo), latest.redoCount + 1, latest.epoch)));
+    }
+
+    /**
+     * Kopiert die obersten Knoten eines Stapels und schneidet den Rest ab. Wird nur aufgerufen, wenn der Stapel
+     * doppelt so lang wie nötig ist, die Kosten verteilen sich also auf die vorherigen Aufrufe.
+     *
+     * @param top   Der oberste Knoten.
+     * @param count Anzahl der Knoten, die erhalten bleiben.
+     * @return Der oberste Knoten des gekürzten Stapels.
+     */
+    private static Node trim(final Node top, final int count) {
+        FXCommand[] kept = new FXCommand[count];
+        Node node = top;
+        for (int i = 0; i < count; i++) {
+            kept[i] = node.command;
+            node = node.next;
+        }
+        Node result = null;
+        for (int i = count - 1; i >= 0; i--) {
+            result = new Node(kept[i], result);
+        }
+        return result;
+    }
+
+    /**
+     * Unveränderlicher Knoten eines Stapels.
+     */
+    private static final class Node {
+
+        private final FXCommand command;
+
+        private final Node next;
+
+        private final int length;
+
+        private Node(final FXCommand command, final Node next) {
+            this.command = command;
+            this.next = next;
+            this.length = next == null ? 1 : next.length + 1;
+        }
+    }
+
+    /**
+     * Unveränderlicher Zustand der Historie. {@code epoch} wird bei jedem neuen Kommando erhöht, damit ein
+     * verspätetes Undo erkennt, dass der Redo-Stapel inzwischen verworfen wurde.
+     */
+    private static final class State {
+
+        private final Node undo;
+
+        private final int undoCount;
+
+        private final Node redo;
+
+        private final int redoCount;
+
+        private final long epoch;
+
+        private State(final Node undo, final int undoCount, final Node redo, final int redoCount, final long epoch) {
+            this.undo = undo;
+            this.undoCount = undoCount;
+            this.redo = redo;
+            this.redoCount = redoCount;
+            this.epoch = epoch;
+        }
+    }
+}
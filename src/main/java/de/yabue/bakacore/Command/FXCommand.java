@@ -4,15 +4,19 @@ import de.yabue.bakacore.Command.CommandExceptions.IllegalRedoException;
 import de.yabue.bakacore.Command.CommandExceptions.IllegalUndoException;
 import lombok.Getter;
 
+import java.io.Serializable;
 import java.sql.SQLDataException;
 
 /**
  * Ein Kommando ist die Kapselung für die Ausführung einer bestimmten Aktion. Eine Aktion kann jede Art von Berechnung sein, die in irgendeiner
  * Weise beobachtet, verfolgt, rückgängig und/oder wiederholt werden soll.
+ * Kommandos sind serialisierbar, damit sie z.B. von einem {@link CommandJournal} gespeichert werden können.
  *
  * @author Yannick Bülter
  */
-public abstract class FXCommand {
+public abstract class FXCommand implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     @Getter
     private final boolean undoable;
@@ -21,7 +25,14 @@ public abstract class FXCommand {
     private final boolean redoable;
 
     @Getter
-    private ExecutionState commandState;
+    private volatile ExecutionState commandState;
+
+    /**
+     * Zeitpunkt der letzten Ausführung in Millisekunden. Wird beim Zusammenführen auf den Zeitpunkt
+     * des aufgenommenen Kommandos gesetzt.
+     */
+    @Getter
+    private long executionTime;
 
     /**
      * Konstruiert ein neues FXCommand.
@@ -50,6 +61,30 @@ public abstract class FXCommand {
     public final void execute() {
         executeAction();
         commandState = ExecutionState.UNDO;
+        executionTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Markiert ein Kommando als ausgeführt, ohne {@link #executeAction()} aufzurufen. Wird genutzt, wenn die Wirkung
+     * des Kommandos bereits auf anderem Wege eingetreten ist.
+     */
+    final void markExecuted() {
+        commandState = ExecutionState.UNDO;
+        executionTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Versucht, ein direkt danach ausgeführtes Kommando in dieses Kommando aufzunehmen.
+     *
+     * @param next Das nachfolgende, bereits ausgeführte Kommando.
+     * @return {@code true}, wenn {@code next} aufgenommen wurde.
+     */
+    final boolean merge(final FXCommand next) {
+        if (commandState == ExecutionState.UNDO && next.commandState == ExecutionState.UNDO && mergeWith(next)) {
+            executionTime = next.executionTime;
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -96,6 +131,31 @@ public abstract class FXCommand {
         }
     }
 
+    /**
+     * Schätzt, wie viele Bytes dieses Kommando belegt, solange es in einer Historie liegt. Wird von
+     * {@link CommandWeigher#REPORTED} genutzt. Kommandos, die große Datenmengen halten (z.B. Schnappschüsse),
+     * sollten diese Methode überschreiben.
+     *
+     * @return Das geschätzte Gewicht in Bytes. Standard ist {@code 0}.
+     */
+    public long getWeight() {
+        return 0L;
+    }
+
+    /**
+     * Nimmt ein nachfolgendes Kommando in dieses Kommando auf, damit beide in der Historie nur einen Eintrag belegen.
+     * Das ist z.B. bei Tastatureingaben oder beim Ziehen eines Reglers sinnvoll. Wenn {@code true} zurückgegeben
+     * wird, muss ein {@link #undo()} dieses Kommandos auch die Wirkung von {@code next} rückgängig machen und ein
+     * {@link #redo()} beide wiederholen. {@code next} wurde zu diesem Zeitpunkt bereits ausgeführt und wird danach
+     * verworfen. Standardmäßig wird nichts zusammengeführt.
+     *
+     * @param next Das nachfolgende, bereits ausgeführte Kommando.
+     * @return {@code true}, wenn {@code next} aufgenommen wurde.
+     */
+    protected boolean mergeWith(final FXCommand next) {
+        return false;
+    }
+
     /**
      * Führt die Aktion dieses Kommandos aus. Der Programmierer sollte diese Methode nur implementieren, aber nicht aufrufen.
      * Nutze stattdessen {@link #execute()}.
@@ -0,0 +1,21 @@
+package de.yabue.bakacore.Command;
+
+/**
+ * Gibt an, wann ein {@link CommandJournal} seine Einträge mit {@code fsync} auf den Datenträger zwingt.
+ *
+ * @author Yannick Bülter
+ */
+public enum JournalSyncPolicy {
+    /**
+     * Jeder Eintrag wird sofort geschrieben und synchronisiert. Am sichersten, aber am langsamsten.
+     */
+    ALWAYS,
+    /**
+     * Einträge werden gesammelt und als Gruppe geschrieben und synchronisiert.
+     */
+    GROUP,
+    /**
+     * Einträge werden gesammelt und geschrieben, die Synchronisierung wird dem Betriebssystem überlassen.
+     */
+    NEVER
+}
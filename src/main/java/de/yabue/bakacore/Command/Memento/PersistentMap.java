@@ -0,0 +1,366 @@
+package de.yabue.bakacore.Command.Memento;
+
+import lombok.NonNull;
+
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+
+/**
+ * Eine unveränderliche Map auf Basis eines Hash Array Mapped Trie (HAMT). Jede Änderung liefert eine neue Map, die
+ * sich alle unveränderten Teile mit der alten Map teilt. Eine Änderung kostet dadurch nur {@code O(log32 n)}
+ * Speicher und Zeit, egal wie groß die Map ist. Das macht sie zu einem günstigen Memento für Kommandos, die den
+ * Zustand vor und nach ihrer Ausführung aufbewahren.
+ * <p>
+ * Die Map ist serialisierbar, wenn Schlüssel und Werte es sind. Maps, die in denselben Strom geschrieben werden,
+ * teilen sich auch nach dem Lesen ihre gemeinsamen Knoten.
+ *
+ * @param <K> Typ der Schlüssel, {@code null} ist nicht erlaubt.
+ * @param <V> Typ der Werte.
+ * @author Yannick Bülter
+ */
+public final class PersistentMap<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+    private static final Object NOT_FOUND = new Object();
+
+    private final Node root;
+
+    private final int size;
+
+    private PersistentMap(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @param <K> Typ der Schlüssel.
+     * @param <V> Typ der Werte.
+     * @return Die leere Map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * @return Anzahl der Einträge.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true}, wenn die Map keine Einträge besitzt.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Liefert den Wert zu einem Schlüssel.
+     *
+     * @param key Der Schlüssel.
+     * @return Der Wert oder {@code null}, wenn der Schlüssel nicht vorhanden ist.
+     */
+    public V get(@NonNull final Object key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Liefert den Wert zu einem Schlüssel.
+     *
+     * @param key          Der Schlüssel.
+     * @param defaultValue Wird geliefert, wenn der Schlüssel nicht vorhanden ist.
+     * @return Der Wert oder {@code defaultValue}.
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(@NonNull final Object key, final V defaultValue) {
+        if (root == null) {
+            return defaultValue;
+        }
+        Object result = root.find(0, hash(key), key);
+        return result == NOT_FOUND ? defaultValue : (V) result;
+    }
+
+    /**
+     * @param key Der Schlüssel.
+     * @return {@code true}, wenn der Schlüssel vorhanden ist.
+     */
+    public boolean containsKey(@NonNull final Object key) {
+        return root != null && root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    /**
+     * Liefert eine Map, in der der Schlüssel auf den Wert zeigt.
+     *
+     * @param key   Der Schlüssel.
+     * @param value Der Wert.
+     * @return Die neue Map, oder diese Map, wenn sich nichts ändert.
+     */
+    public PersistentMap<K, V> put(@NonNull final K key, final V value) {
+        Box added = new Box();
+        Node start = root == null ? BitmapNode.EMPTY : root;
+        Node result = start.assoc(0, hash(key), key, value, added);
+        if (result == root) {
+            return this;
+        }
+        return new PersistentMap<>(result, added.value ? size + 1 : size);
+    }
+
+    /**
+     * Liefert eine Map ohne den übergebenen Schlüssel.
+     *
+     * @param key Der Schlüssel.
+     * @return Die neue Map, oder diese Map, wenn der Schlüssel nicht vorhanden war.
+     */
+    public PersistentMap<K, V> remove(@NonNull final Object key) {
+        if (root == null) {
+            return this;
+        }
+        Node result = root.without(0, hash(key), key);
+        if (result == root) {
+            return this;
+        }
+        return result == null ? PersistentMap.<K, V>empty() : new PersistentMap<>(result, size - 1);
+    }
+
+    /**
+     * Ruft die Aktion für jeden Eintrag auf. Die Reihenfolge ist nicht festgelegt.
+     *
+     * @param action Die Aktion.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(@NonNull final BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    /**
+     * Liefert beim Lesen einer leeren Map wieder {@link #EMPTY}.
+     */
+    private Object readResolve() {
+        return root == null ? EMPTY : this;
+    }
+
+    private static int hash(final Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitpos(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    private static Object[] cloneAndSet(final Object[] array, final int i, final Object value) {
+        Object[] copy = array.clone();
+        copy[i] = value;
+        return copy;
+    }
+
+    private static Object[] removePair(final Object[] array, final int pair) {
+        Object[] copy = new Object[array.length - 2];
+        System.arraycopy(array, 0, copy, 0, 2 * pair);
+        System.arraycopy(array, 2 * (pair + 1), copy, 2 * pair, copy.length - 2 * pair);
+        return copy;
+    }
+
+    /**
+     * Merkt sich, ob beim Einfügen ein neuer Eintrag entstanden ist.
+     */
+    private static final class Box {
+        private boolean value;
+    }
+
+    private interface Node extends Serializable {
+
+        Object find(int shift, int hash, Object key);
+
+        Node assoc(int shift, int hash, Object key, Object value, Box added);
+
+        Node without(int shift, int hash, Object key);
+
+        void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * Knoten mit bis zu 32 Einträgen. Ein gesetztes Bit in {@code bitmap} zeigt an, dass für diesen Teil des Hashes
+     * ein Paar im Array liegt. Ist der Schlüssel des Paares {@code null}, ist der Wert ein Unterknoten.
+     */
+    private static final class BitmapNode implements Node {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+
+        private final Object[] array;
+
+        private BitmapNode(final int bitmap, final Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(final int shift, final int hash, final Object key) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int i = index(bit);
+            Object k = array[2 * i];
+            Object v = array[2 * i + 1];
+            if (k == null) {
+                return ((Node) v).find(shift + 5, hash, key);
+            }
+            return key.equals(k) ? v : NOT_FOUND;
+        }
+
+        @Override
+        public Node assoc(final int shift, final int hash, final Object key, final Object value, final Box added) {
+            int bit = bitpos(hash, shift);
+            int i = index(bit);
+            if ((bitmap & bit) != 0) {
+                Object k = array[2 * i];
+                Object v = array[2 * i + 1];
+                if (k == null) {
+                    Node node = ((Node) v).assoc(shift + 5, hash, key, value, added);
+                    return node == v ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * i + 1, node));
+                }
+                if (key.equals(k)) {
+                    return v == value ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * i + 1, value));
+                }
+                added.value = true;
+                Object[] copy = array.clone();
+                copy[2 * i] = null;
+                copy[2 * i + 1] = createNode(shift + 5, k, v, hash, key, value);
+                return new BitmapNode(bitmap, copy);
+            }
+            int n = Integer.bitCount(bitmap);
+            Object[] copy = new Object[2 * (n + 1)];
+            System.arraycopy(array, 0, copy, 0, 2 * i);
+            copy[2 * i] = key;
+            copy[2 * i + 1] = value;
+            System.arraycopy(array, 2 * i, copy, 2 * (i + 1), 2 * (n - i));
+            added.value = true;
+            return new BitmapNode(bitmap | bit, copy);
+        }
+
+        @Override
+        public Node without(final int shift, final int hash, final Object key) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = index(bit);
+            Object k = array[2 * i];
+            Object v = array[2 * i + 1];
+            if (k == null) {
+                Node node = ((Node) v).without(shift + 5, hash, key);
+                if (node == v) {
+                    return this;
+                }
+                if (node != null) {
+                    return new BitmapNode(bitmap, cloneAndSet(array, 2 * i + 1, node));
+                }
+            } else if (!key.equals(k)) {
+                return this;
+            }
+            return bitmap == bit ? null : new BitmapNode(bitmap ^ bit, removePair(array, i));
+        }
+
+        @Override
+        public void forEach(final BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+
+        private static Node createNode(final int shift, final Object k1, final Object v1, final int h2,
+                                       final Object k2, final Object v2) {
+            int h1 = hash(k1);
+            if (h1 == h2) {
+                return new CollisionNode(h1, new Object[]{k1, v1, k2, v2});
+            }
+            Box box = new Box();
+            return EMPTY.assoc(shift, h1, k1, v1, box).assoc(shift, h2, k2, v2, box);
+        }
+    }
+
+    /**
+     * Knoten für Schlüssel, deren Hashes vollständig übereinstimmen.
+     */
+    private static final class CollisionNode implements Node {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int hash;
+
+        private final Object[] array;
+
+        private CollisionNode(final int hash, final Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(final Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i / 2;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object find(final int shift, final int hash, final Object key) {
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : array[2 * i + 1];
+        }
+
+        @Override
+        public Node assoc(final int shift, final int hash, final Object key, final Object value, final Box added) {
+            if (hash == this.hash) {
+                int i = indexOf(key);
+                if (i >= 0) {
+                    return array[2 * i + 1] == value ? this : new CollisionNode(hash, cloneAndSet(array, 2 * i + 1, value));
+                }
+                Object[] copy = new Object[array.length + 2];
+                System.arraycopy(array, 0, copy, 0, array.length);
+                copy[array.length] = key;
+                copy[array.length + 1] = value;
+                added.value = true;
+                return new CollisionNode(hash, copy);
+            }
+            return new BitmapNode(bitpos(this.hash, shift), new Object[]{null, this}).assoc(shift, hash, key, value, added);
+        }
+
+        @Override
+        public Node without(final int shift, final int hash, final Object key) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            return array.length == 2 ? null : new CollisionNode(this.hash, removePair(array, i));
+        }
+
+        @Override
+        public void forEach(final BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package de.yabue.bakacore.Command.Memento;
+
+import lombok.NonNull;
+
+import java.io.Serializable;
+import java.util.function.Consumer;
+
+/**
+ * Eine unveränderliche Liste auf Basis eines Trie mit 32 Kindern pro Knoten. Jede Änderung kopiert nur den Pfad zum
+ * betroffenen Element ({@code O(log32 n)}), alle anderen Knoten teilt sich die neue Liste mit der alten.
+ * <p>
+ * Die Liste ist serialisierbar, wenn ihre Elemente es sind. Listen, die in denselben Strom geschrieben werden,
+ * teilen sich auch nach dem Lesen ihre gemeinsamen Knoten.
+ *
+ * @param <T> Typ der Elemente.
+ * @author Yannick Bülter
+ */
+public final class PersistentVector<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int BITS = 5;
+
+    private static final int WIDTH = 1 << BITS;
+
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 0, new Object[WIDTH]);
+
+    private final int size;
+
+    private final int shift;
+
+    private final Object[] root;
+
+    private PersistentVector(final int size, final int shift, final Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    /**
+     * @param <T> Typ der Elemente.
+     * @return Die leere Liste.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    /**
+     * @return Anzahl der Elemente.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true}, wenn die Liste leer ist.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index Position des Elements.
+     * @return Das Element an der Position.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(final int index) {
+        checkIndex(index);
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return (T) node[index & MASK];
+    }
+
+    /**
+     * Liefert eine Liste, in der das Element an der Position ersetzt ist.
+     *
+     * @param index Position des Elements.
+     * @param value Der neue Wert.
+     * @return Die neue Liste.
+     */
+    public PersistentVector<T> set(final int index, final T value) {
+        checkIndex(index);
+        return new PersistentVector<>(size, shift, assoc(shift, root, index, value));
+    }
+
+    /**
+     * Liefert eine Liste, an deren Ende das Element angehängt ist.
+     *
+     * @param value Das neue Element.
+     * @return Die neue Liste.
+     */
+    public PersistentVector<T> append(final T value) {
+        if (size == 1 << (shift + BITS)) {
+            Object[] newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            return new PersistentVector<>(size + 1, shift + BITS, assoc(shift + BITS, newRoot, size, value));
+        }
+        return new PersistentVector<>(size + 1, shift, assoc(shift, root, size, value));
+    }
+
+    /**
+     * Liefert eine Liste ohne das letzte Element.
+     *
+     * @return Die neue Liste.
+     */
+    public PersistentVector<T> removeLast() {
+        if (size == 0) {
+            throw new IllegalStateException("Die Liste ist leer!");
+        }
+        if (size == 1) {
+            return empty();
+        }
+        Object[] newRoot = assoc(shift, root, size - 1, null);
+        int newShift = shift;
+        if (newShift > 0 && size - 1 <= 1 << newShift) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector<>(size - 1, newShift, newRoot);
+    }
+
+    /**
+     * Ruft die Aktion für jedes Element in Reihenfolge auf.
+     *
+     * @param action Die Aktion.
+     */
+    public void forEach(@NonNull final Consumer<? super T> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(get(i));
+        }
+    }
+
+    /**
+     * Liefert beim Lesen einer leeren Liste wieder {@link #EMPTY}.
+     */
+    private Object readResolve() {
+        return size == 0 ? EMPTY : this;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " liegt nicht zwischen 0 und " + size + "!");
+        }
+    }
+
+    /**
+     * Kopiert den Pfad zur Position und setzt dort den Wert. Fehlende Knoten werden angelegt.
+     */
+    private static Object[] assoc(final int level, final Object[] node, final int index, final Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int sub = (index >>> level) & MASK;
+            copy[sub] = assoc(level - BITS, (Object[]) copy[sub], index, value);
+        }
+        return copy;
+    }
+}
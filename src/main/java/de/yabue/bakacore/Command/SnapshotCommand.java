@@ -0,0 +1,76 @@
+package de.yabue.bakacore.Command;
+
+/**
+ * Ein Kommando, das den Zustand vor und nach seiner Ausführung als Memento aufbewahrt. Rückgängig machen und
+ * Wiederholen stellen einfach den jeweiligen Zustand wieder her.
+ * <p>
+ * Damit eine tiefe Historie nicht für jeden Eintrag eine vollständige Kopie des Modells hält, sollte der Zustand
+ * aus unveränderlichen Strukturen mit geteilten Teilen bestehen, z.B.
+ * {@link de.yabue.bakacore.Command.Memento.PersistentMap} und {@link de.yabue.bakacore.Command.Memento.PersistentVector}.
+ * Jeder Eintrag kostet dann nur die Änderung gegenüber seinem Vorgänger.
+ * <p>
+ * Soll das Kommando in einem {@link CommandJournal} landen, muss der Zustand serialisierbar sein. Die beiden
+ * genannten Strukturen sind es, sofern ihre Inhalte es sind.
+ *
+ * @param <S> Typ des Zustands.
+ * @author Yannick Bülter
+ */
+public abstract class SnapshotCommand<S> extends FXCommand {
+
+    private static final long serialVersionUID = 1L;
+
+    private S before;
+
+    private S after;
+
+    /**
+     * @return Der aktuelle Zustand des Modells.
+     */
+    protected abstract S currentState();
+
+    /**
+     * Berechnet aus einem Zustand den neuen Zustand. Der übergebene Zustand darf dabei nicht verändert werden.
+     *
+     * @param state Der Zustand vor der Ausführung.
+     * @return Der Zustand nach der Ausführung.
+     */
+    protected abstract S apply(S state);
+
+    /**
+     * Setzt das Modell auf einen Zustand.
+     *
+     * @param state Der Zustand, der hergestellt werden soll.
+     */
+    protected abstract void restoreState(S state);
+
+    @Override
+    protected void executeAction() {
+        before = currentState();
+        after = apply(before);
+        restoreState(after);
+    }
+
+    @Override
+    protected void undoAction() {
+        restoreState(before);
+    }
+
+    @Override
+    protected void redoAction() {
+        restoreState(after);
+    }
+
+    /**
+     * @return Der Zustand vor der Ausführung.
+     */
+    protected S getBefore() {
+        return before;
+    }
+
+    /**
+     * @return Der Zustand nach der Ausführung.
+     */
+    protected S getAfter() {
+        return after;
+    }
+}
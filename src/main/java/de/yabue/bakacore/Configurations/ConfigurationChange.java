@@ -0,0 +1,68 @@
+package de.yabue.bakacore.Configurations;
+
+import lombok.Getter;
+
+/**
+ * Neuer Wert eines Schlüssels, wie ihn ein {@link ConfigurationPublisher} ausliefert. Die Auswertungen als Zahl,
+ * Kommazahl und Wahrheitswert sind bereits erfolgt.
+ *
+ * @author Yannick Bülter
+ */
+public final class ConfigurationChange {
+
+    @Getter
+    private final String key;
+
+    private final ConfigurationValue value;
+
+    ConfigurationChange(final String key, final ConfigurationValue value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * @return Der neue Wert, oder {@code null}, wenn der Schlüssel entfernt wurde.
+     */
+    public String getValue() {
+        return value.text();
+    }
+
+    /**
+     * @return {@code true}, wenn der Schlüssel entfernt wurde.
+     */
+    public boolean isRemoved() {
+        return !value.isPresent();
+    }
+
+    /**
+     * @param defaultValue Der Ausweichwert, falls der Schlüssel entfernt wurde.
+     * @return Der neue Wert als Zahl.
+     * @throws org.apache.commons.configuration.ConversionException Wenn der Wert keine Zahl ist.
+     */
+    public int getIntValue(final int defaultValue) {
+        return value.isPresent() ? value.intValue(key) : defaultValue;
+    }
+
+    /**
+     * @param defaultValue Der Ausweichwert, falls der Schlüssel entfernt wurde.
+     * @return Der neue Wert als Kommazahl.
+     * @throws org.apache.commons.configuration.ConversionException Wenn der Wert keine Kommazahl ist.
+     */
+    public double getDoubleValue(final double defaultValue) {
+        return value.isPresent() ? value.doubleValue(key) : defaultValue;
+    }
+
+    /**
+     * @param defaultValue Der Ausweichwert, falls der Schlüssel entfernt wurde.
+     * @return Der neue Wert als Wahrheitswert.
+     * @throws org.apache.commons.configuration.ConversionException Wenn der Wert kein Wahrheitswert ist.
+     */
+    public boolean getBooleanValue(final boolean defaultValue) {
+        return value.isPresent() ? value.booleanValue(key) : defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + value.text();
+    }
+}
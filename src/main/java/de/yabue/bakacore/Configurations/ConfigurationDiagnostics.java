@@ -0,0 +1,35 @@
+package de.yabue.bakacore.Configurations;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Empfängt Meldungen einer {@link ObservableConfiguration}, z.B. um sie an ein Logging Framework weiterzugeben.
+ * Meldungen werden nur erzeugt, wenn ihre {@link DiagnosticsLevel Stufe} eingeschaltet ist; ist sie es nicht, kostet
+ * ein Zugriff weder Texte noch Aufrufe.
+ *
+ * @author Yannick Bülter
+ */
+@FunctionalInterface
+public interface ConfigurationDiagnostics {
+
+    /**
+     * Gibt Meldungen auf {@link System#out} aus. Das ist die Voreinstellung.
+     */
+    ConfigurationDiagnostics STDOUT = (level, message) -> System.out.println(message);
+
+    /**
+     * @param level Die Stufe der Meldung.
+     * @param message Die Meldung.
+     */
+    void log(DiagnosticsLevel level, String message);
+
+    /**
+     * Meldet die Dauer eines Vorgangs wie Laden oder Speichern. Wird nur auf Stufe {@link DiagnosticsLevel#INFO}
+     * aufgerufen.
+     * @param operation Beschreibung des Vorgangs.
+     * @param nanos Dauer in Nanosekunden.
+     */
+    default void timed(final String operation, final long nanos) {
+        log(DiagnosticsLevel.INFO, operation + " in " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms");
+    }
+}
@@ -0,0 +1,19 @@
+package de.yabue.bakacore.Configurations;
+
+import java.util.Set;
+
+/**
+ * Wird benachrichtigt, wenn sich Werte einer Konfiguration geändert haben. Anders als die Listener der einzelnen
+ * Properties bekommt ein {@link ConfigurationListener} alle Schlüssel, auch solche, zu denen noch keine Property
+ * ausgegeben wurde. Der Aufruf erfolgt in dem Thread, der die Änderung vorgenommen hat.
+ *
+ * @author Yannick Bülter
+ */
+@FunctionalInterface
+public interface ConfigurationListener {
+
+    /**
+     * @param keys Die Schlüssel, deren Wert sich geändert hat oder die entfernt wurden.
+     */
+    void keysChanged(Set<String> keys);
+}
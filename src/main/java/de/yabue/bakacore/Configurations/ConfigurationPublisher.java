@@ -0,0 +1,303 @@
+package de.yabue.bakacore.Configurations;
+
+import lombok.NonNull;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Liefert Änderungen einer {@link ObservableConfiguration} als Strom von {@link ConfigurationChange} an Abonnenten,
+ * die kein JavaFX nutzen, z.B. Verbindungspools oder Caches. Aufbau und Regeln folgen
+ * {@code java.util.concurrent.Flow} aus Java 9: Abonnenten fordern mit {@link Subscription#request(long)} an, wie
+ * viele Änderungen sie verarbeiten können, und bekommen nie mehr geliefert.
+ * <p>
+ * Ausgeliefert wird auf dem beim Erzeugen angegebenen {@link Executor}, nie im Thread, der den Wert gesetzt hat. Je
+ * Abonnent erfolgen die Aufrufe nacheinander. Solange ein Abonnent nichts anfordert oder noch beschäftigt ist, wird
+ * pro Schlüssel nur der neueste Wert vorgehalten; der Rückstau wächst also höchstens mit der Anzahl der Schlüssel.
+ *
+ * @author Yannick Bülter
+ */
+public class ConfigurationPublisher implements AutoCloseable {
+
+    /**
+     * Empfängt Änderungen, entspricht {@code Flow.Subscriber}.
+     */
+    public interface Subscriber {
+
+        /**
+         * Wird als Erstes aufgerufen. Erst nach {@link Subscription#request(long)} werden Änderungen geliefert.
+         * @param subscription Das Abonnement.
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * @param change Die nächste Änderung.
+         */
+        void onNext(ConfigurationChange change);
+
+        /**
+         * Das Abonnement wurde wegen eines Fehlers beendet. Der Fehler wurde bereits als Warnung über die
+         * {@link ConfigurationDiagnostics} der Konfiguration gemeldet.
+         * @param throwable Der Fehler.
+         */
+        default void onError(final Throwable throwable) {
+        }
+
+        /**
+         * Der Publisher wurde geschlossen, es folgen keine Änderungen mehr.
+         */
+        default void onComplete() {
+        }
+    }
+
+    /**
+     * Verbindung zwischen Publisher und Abonnent, entspricht {@code Flow.Subscription}.
+     */
+    public interface Subscription {
+
+        /**
+         * @param n Wie viele weitere Änderungen der Abonnent verarbeiten kann. Muss positiv sein.
+         */
+        void request(long n);
+
+        /**
+         * Beendet das Abonnement. Danach werden keine Änderungen mehr geliefert.
+         */
+        void cancel();
+    }
+
+    private final ObservableConfiguration configuration;
+
+    private final Executor executor;
+
+    private final CopyOnWriteArrayList<PrefixSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private final ConfigurationListener listener = this::keysChanged;
+
+    private volatile boolean closed;
+
+    ConfigurationPublisher(final ObservableConfiguration configuration, final Executor executor) {
+        this.configuration = configuration;
+        this.executor = executor;
+        configuration.addConfigurationListener(listener);
+    }
+
+    /**
+     * Abonniert alle Änderungen.
+     * @param subscriber Der Abonnent.
+     */
+    public void subscribe(@NonNull final Subscriber subscriber) {
+        subscribe("", subscriber);
+    }
+
+    /**
+     * Abonniert die Änderungen aller Schlüssel, die mit einem Präfix beginnen.
+     * @param prefix Das Präfix, z.B. {@code "db.pool."}.
+     * @param subscriber Der Abonnent.
+     */
+    public void subscribe(@NonNull final String prefix, @NonNull final Subscriber subscriber) {
+        PrefixSubscription subscription = new PrefixSubscription(prefix, subscriber);
+        if (closed) {
+            subscription.completed = true;
+        } else {
+            subscriptions.add(subscription);
+        }
+        subscription.signal();
+    }
+
+    /**
+     * @return Anzahl der aktiven Abonnements.
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Beendet den Publisher. Bereits vorgemerkte Änderungen werden noch geliefert, danach wird
+     * {@link Subscriber#onComplete()} aufgerufen.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        configuration.removeConfigurationListener(listener);
+        for (PrefixSubscription subscription : subscriptions) {
+            subscription.completed = true;
+            subscription.signal();
+        }
+    }
+
+    private void keysChanged(final Set<String> keys) {
+        Map<String, ConfigurationChange> changes = new HashMap<>();
+        for (PrefixSubscription subscription : subscriptions) {
+            boolean matched = false;
+            for (String key : keys) {
+                if (key.startsWith(subscription.prefix)) {
+                    subscription.offer(changes.computeIfAbsent(key,
+                            name -> new ConfigurationChange(name, configuration.lookup(name))));
+                    matched = true;
+                }
+            }
+            if (matched) {
+                subscription.signal();
+            }
+        }
+    }
+
+    /**
+     * Ein Abonnement mit eigenem Rückstau. Die Auslieferung läuft immer nur in einem Thread, gesteuert über
+     * {@link #wip}.
+     */
+    private final class PrefixSubscription implements Subscription {
+
+        private final String prefix;
+
+        private final Subscriber subscriber;
+
+        /**
+         * Neueste Änderung je Schlüssel in der Reihenfolge der ersten Änderung.
+         */
+        private final LinkedHashMap<String, ConfigurationChange> pending = new LinkedHashMap<>();
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private boolean started;
+
+        private volatile boolean cancelled;
+
+        private volatile boolean completed;
+
+        private volatile Throwable error;
+
+        PrefixSubscription(final String prefix, final Subscriber subscriber) {
+            this.prefix = prefix;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Es muss mindestens eine Änderung angefordert werden!");
+            } else {
+                long current;
+                long next;
+                do {
+                    current = requested.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet(current, next));
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        void offer(final ConfigurationChange change) {
+            synchronized (pending) {
+                pending.put(change.getKey(), change);
+            }
+        }
+
+        /**
+         * Plant die Auslieferung, falls sie nicht bereits läuft.
+         */
+        void signal() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    cancel();
+                    wip.set(0);
+                    configuration.warn("Änderungen können nicht mehr ausgeliefert werden: "+e.getMessage());
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!started) {
+                    started = true;
+                    if (!call(() -> subscriber.onSubscribe(this))) {
+                        return;
+                    }
+                }
+                while (!cancelled && error == null && requested.get() > 0) {
+                    ConfigurationChange next = poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (requested.get() != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    if (!call(() -> subscriber.onNext(next))) {
+                        return;
+                    }
+                }
+                if (!cancelled) {
+                    Throwable failure = error;
+                    if (failure != null) {
+                        fail(failure);
+                    } else if (completed && isEmpty()) {
+                        cancel();
+                        subscriber.onComplete();
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Ruft den Abonnenten auf. Wirft er eine Exception, wird das Abonnement mit diesem Fehler beendet.
+         * @return {@code false}, wenn das Abonnement beendet wurde.
+         */
+        private boolean call(final Runnable signal) {
+            try {
+                signal.run();
+                return true;
+            } catch (RuntimeException e) {
+                fail(e);
+                return false;
+            }
+        }
+
+        /**
+         * Beendet das Abonnement mit einem Fehler und meldet ihn.
+         */
+        private void fail(final Throwable failure) {
+            cancel();
+            configuration.warn("Abonnement wegen eines Fehlers beendet: "+failure);
+            subscriber.onError(failure);
+        }
+
+        private ConfigurationChange poll() {
+            synchronized (pending) {
+                Iterator<ConfigurationChange> iterator = pending.values().iterator();
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                ConfigurationChange change = iterator.next();
+                iterator.remove();
+                return change;
+            }
+        }
+
+        private boolean isEmpty() {
+            synchronized (pending) {
+                return pending.isEmpty();
+            }
+        }
+    }
+}
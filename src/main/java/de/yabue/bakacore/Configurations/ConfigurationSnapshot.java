@@ -0,0 +1,334 @@
+package de.yabue.bakacore.Configurations;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Vorkompilierte, binäre Form einer {@code .properties} Datei, die beim Start nur in den Speicher abgebildet wird.
+ * Die Schlüssel liegen sortiert in einer Tabelle fester Breite und werden per binärer Suche gefunden; zu jedem Wert
+ * sind die Auswertungen als Zahl, Kommazahl und Wahrheitswert bereits gespeichert. Ein Schnappschuss merkt sich
+ * Änderungszeit, Größe und CRC32 der Quelldatei sowie den Zeichensatz, mit dem sie gelesen wurde, und wird nur
+ * genutzt, solange diese dazu passen.
+ * <p>
+ * Aufbau: Kopf mit {@link #MAGIC}, {@link #VERSION}, Änderungszeit, Größe und CRC32 der Quelle, Länge des
+ * Zeichensatznamens und Anzahl der Schlüssel; danach je Schlüssel ein Eintrag mit {@link #ENTRY} Bytes (Position und
+ * Länge von Schlüssel und Wert, Merkmale, Zahl, Kommazahl); danach der Name des Zeichensatzes, Schlüssel und Werte in
+ * UTF-8.
+ *
+ * @author Yannick Bülter
+ */
+final class ConfigurationSnapshot implements ConfigurationSource {
+
+    private static final int MAGIC = 0x424B4353;
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER = 4 + 4 + 8 + 8 + 8 + 4 + 4;
+
+    private static final int ENTRY = 4 + 4 + 4 + 4 + 4 + 4 + 8;
+
+    /**
+     * Merkmal für einen mehrfach vorkommenden Schlüssel, zusätzlich zu den Merkmalen von {@link ConfigurationValue}.
+     */
+    private static final int DUPLICATE = 0x100;
+
+    /**
+     * Merkmal für den Wahrheitswert {@code true}.
+     */
+    private static final int TRUE = 0x200;
+
+    private final ByteBuffer buffer;
+
+    private final int count;
+
+    private final int data;
+
+    private ConfigurationSnapshot(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        count = buffer.getInt(HEADER - 4);
+        data = HEADER + count * ENTRY;
+    }
+
+    /**
+     * Übersetzt eine Properties Datei in einen Schnappschuss. Der Schnappschuss wird in eine temporäre Datei
+     * geschrieben, auf die Platte gebracht und erst dann ersetzt.
+     *
+     * @param properties Die Properties Datei.
+     * @param charset Der Zeichensatz der Properties Datei.
+     * @param snapshot Die Zieldatei.
+     * @throws IOException Wenn eine der Dateien nicht gelesen oder geschrieben werden kann oder der Zeichensatz nicht
+     * unterstützt wird.
+     */
+    static void compile(final File properties, final Charset charset, final File snapshot) throws IOException {
+        long modified = properties.lastModified();
+        MappedProperties source = MappedProperties.open(properties, charset);
+        if (source == null) {
+            throw new IOException("Der Zeichensatz " + charset + " wird nicht unterstützt!");
+        }
+        List<byte[]> keys = new ArrayList<>(source.size());
+        source.forEachKey(key -> keys.add(key.getBytes(StandardCharsets.UTF_8)));
+        keys.sort(ConfigurationSnapshot::compare);
+
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        byte[] name = charset.name().getBytes(StandardCharsets.UTF_8);
+        strings.write(name);
+        File temp = new File(snapshot.getAbsoluteFile().getParentFile(), snapshot.getName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(modified);
+            out.writeLong(properties.length());
+            out.writeLong(checksum(properties));
+            out.writeInt(name.length);
+            out.writeInt(keys.size());
+            for (byte[] keyBytes : keys) {
+                String key = new String(keyBytes, StandardCharsets.UTF_8);
+                ConfigurationValue value = source.value(key);
+                byte[] valueBytes = value.text().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(strings.size());
+                out.writeInt(keyBytes.length);
+                strings.write(keyBytes);
+                out.writeInt(strings.size());
+                out.writeInt(valueBytes.length);
+                strings.write(valueBytes);
+                out.writeInt(value.parsed() | (source.isDuplicate(key) ? DUPLICATE : 0)
+                        | (value.rawBoolean() ? TRUE : 0));
+                out.writeInt(value.rawInt());
+                out.writeDouble(value.rawDouble());
+            }
+            strings.writeTo(out);
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Öffnet einen Schnappschuss, wenn er noch zur Properties Datei und ihrem Zeichensatz passt. Ein mit einem anderen
+     * Zeichensatz erstellter Schnappschuss enthält anders dekodierte Werte und gilt daher als veraltet. Hat sich nur
+     * die Änderungszeit der
+     * Properties Datei geändert, wird anhand der Prüfsumme entschieden; passt sie, wird die Änderungszeit im
+     * Schnappschuss nachgetragen, damit spätere Starts die Prüfsumme nicht erneut berechnen. Alle Positionen und Längen
+     * der Tabelle werden geprüft, ein beschädigter Schnappschuss wird also verworfen statt gelesen.
+     *
+     * @param properties Die Properties Datei, aus der der Schnappschuss erzeugt wurde.
+     * @param charset Der Zeichensatz, mit dem die Properties Datei gelesen werden soll.
+     * @param snapshot Der Schnappschuss.
+     * @return Der Schnappschuss, oder {@code null}, wenn er fehlt, beschädigt oder veraltet ist.
+     * @throws IOException Wenn eine der Dateien nicht gelesen werden kann.
+     */
+    static ConfigurationSnapshot open(final File properties, final Charset charset, final File snapshot)
+            throws IOException {
+        if (!snapshot.isFile() || snapshot.length() < HEADER || snapshot.length() > Integer.MAX_VALUE) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(snapshot, "r"); FileChannel channel = raf.getChannel()) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(16) != properties.length()
+                || !isValid(buffer) || !charset.name().equals(charset(buffer))) {
+            return null;
+        }
+        long modified = properties.lastModified();
+        if (buffer.getLong(8) != modified) {
+            if (buffer.getLong(24) != checksum(properties)) {
+                return null;
+            }
+            touch(snapshot, modified);
+        }
+        return new ConfigurationSnapshot(buffer);
+    }
+
+    /**
+     * Prüft, ob alle Einträge der Tabelle innerhalb des Schnappschusses liegen.
+     *
+     * @param buffer Der Schnappschuss.
+     * @return {@code true}, wenn alle Positionen und Längen gültig sind.
+     */
+    private static boolean isValid(final ByteBuffer buffer) {
+        int count = buffer.getInt(HEADER - 4);
+        long data = HEADER + (long) count * ENTRY;
+        if (count < 0 || data > buffer.limit()) {
+            return false;
+        }
+        long strings = buffer.limit() - data;
+        int name = buffer.getInt(HEADER - 8);
+        if (name < 0 || name > strings) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER + i * ENTRY;
+            for (int position = entry; position <= entry + 8; position += 8) {
+                long offset = buffer.getInt(position);
+                long length = buffer.getInt(position + 4);
+                if (offset < 0 || length < 0 || offset + length > strings) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param buffer Ein gültiger Schnappschuss.
+     * @return Der Name des Zeichensatzes, mit dem die Properties Datei gelesen wurde.
+     */
+    private static String charset(final ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt(HEADER - 8)];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(HEADER + buffer.getInt(HEADER - 4) * ENTRY);
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Trägt eine neue Änderungszeit der Properties Datei in den Kopf des Schnappschusses ein. Schlägt das fehl, wird
+     * beim nächsten Start erneut die Prüfsumme berechnet.
+     *
+     * @param snapshot Der Schnappschuss.
+     * @param modified Die Änderungszeit.
+     */
+    private static void touch(final File snapshot, final long modified) {
+        try (RandomAccessFile raf = new RandomAccessFile(snapshot, "rw")) {
+            raf.seek(8);
+            raf.writeLong(modified);
+        } catch (IOException e) {
+            // nur eine Abkürzung für spätere Starts
+        }
+    }
+
+    @Override
+    public String get(final String key) {
+        int entry = find(key);
+        return entry < 0 ? null : string(entry + 8);
+    }
+
+    @Override
+    public ConfigurationValue value(final String key) {
+        int entry = find(key);
+        if (entry < 0) {
+            return ConfigurationValue.MISSING;
+        }
+        int flags = buffer.getInt(entry + 16);
+        return ConfigurationValue.restore(string(entry + 8), flags & 0xFF, buffer.getInt(entry + 20),
+                buffer.getDouble(entry + 24), (flags & TRUE) != 0);
+    }
+
+    @Override
+    public boolean isDuplicate(final String key) {
+        int entry = find(key);
+        return entry >= 0 && (buffer.getInt(entry + 16) & DUPLICATE) != 0;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void forEach(final BiConsumer<String, String> action) {
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER + i * ENTRY;
+            action.accept(string(entry), string(entry + 8));
+        }
+    }
+
+    @Override
+    public void forEachKey(final Consumer<String> action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(string(HEADER + i * ENTRY));
+        }
+    }
+
+    /**
+     * Sucht einen Schlüssel per binärer Suche über die nach UTF-8 Bytes sortierte Tabelle.
+     *
+     * @param key Der Schlüssel.
+     * @return Die Position des Eintrags, oder {@code -1}.
+     */
+    private int find(final String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = HEADER + mid * ENTRY;
+            int cmp = compare(buffer.getInt(entry), buffer.getInt(entry + 4), bytes);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private int compare(final int offset, final int length, final byte[] key) {
+        int start = data + offset;
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = (buffer.get(start + i) & 0xFF) - (key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+
+    private static int compare(final byte[] a, final byte[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * @param position Position von Offset und Länge eines Textes im Eintrag.
+     * @return Der Text.
+     */
+    private String string(final int position) {
+        byte[] bytes = new byte[buffer.getInt(position + 4)];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(data + buffer.getInt(position));
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long checksum(final File file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,55 @@
+package de.yabue.bakacore.Configurations;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Unveränderliche Quelle, aus der eine {@link ObservableConfiguration} Werte erst bei Bedarf liest, statt die
+ * Properties Datei vollständig zu laden. Die Werte sind Rohwerte, wie sie in der Datei stehen, d.h. noch ohne
+ * Listentrennung und ohne Auflösung von Variablen.
+ *
+ * @author Yannick Bülter
+ */
+interface ConfigurationSource {
+
+    /**
+     * @param key Der Schlüssel.
+     * @return Der Rohwert oder {@code null}, wenn der Schlüssel nicht existiert. Mehrfach vorkommende Schlüssel
+     * liefern den ersten Wert.
+     */
+    String get(String key);
+
+    /**
+     * @param key Der Schlüssel.
+     * @return Der ausgewertete Wert ohne führenden und folgenden Leerraum.
+     */
+    default ConfigurationValue value(final String key) {
+        String text = get(key);
+        return text == null ? ConfigurationValue.MISSING : ConfigurationValue.of(text.trim());
+    }
+
+    /**
+     * @param key Der Schlüssel.
+     * @return {@code true}, wenn der Schlüssel in der Datei öfter als einmal vorkommt.
+     */
+    boolean isDuplicate(String key);
+
+    /**
+     * @return Anzahl der Schlüssel.
+     */
+    int size();
+
+    /**
+     * Durchläuft alle Schlüssel mit ihren Rohwerten.
+     *
+     * @param action Wird für jeden Schlüssel aufgerufen.
+     */
+    void forEach(BiConsumer<String, String> action);
+
+    /**
+     * Durchläuft alle Schlüssel, ohne die Werte zu dekodieren.
+     *
+     * @param action Wird für jeden Schlüssel aufgerufen.
+     */
+    void forEachKey(Consumer<String> action);
+}
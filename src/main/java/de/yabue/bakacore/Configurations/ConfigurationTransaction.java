@@ -0,0 +1,106 @@
+package de.yabue.bakacore.Configurations;
+
+import lombok.NonNull;
+import org.apache.commons.configuration.ConfigurationException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sammelt Änderungen an einer {@link ObservableConfiguration} und übernimmt sie gemeinsam. Bis zum
+ * {@link #commit()} bleibt die Konfiguration unverändert. Beim Übernehmen werden alle Werte unter einer Sperre
+ * gesetzt, die Konfiguration wird höchstens einmal gespeichert und die Listener erhalten eine einzige
+ * Benachrichtigung mit allen Schlüsseln.
+ * <p>
+ * Eine Transaktion ist für einen Thread gedacht. Wird sie mit try-with-resources genutzt, werden nicht übernommene
+ * Änderungen beim Schließen verworfen.
+ *
+ * @author Yannick Bülter
+ */
+public class ConfigurationTransaction implements AutoCloseable {
+
+    private final ObservableConfiguration configuration;
+
+    private final Map<String, Object> changes = new LinkedHashMap<>();
+
+    private boolean finished;
+
+    ConfigurationTransaction(final ObservableConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * @see ObservableConfiguration#setString(String, String)
+     */
+    public ConfigurationTransaction setString(@NonNull final String keyWord, @NonNull final String value) {
+        return stage(keyWord, value);
+    }
+
+    /**
+     * @see ObservableConfiguration#setInteger(String, int)
+     */
+    public ConfigurationTransaction setInteger(@NonNull final String keyWord, final int value) {
+        return stage(keyWord, value);
+    }
+
+    /**
+     * @see ObservableConfiguration#setDouble(String, double)
+     */
+    public ConfigurationTransaction setDouble(@NonNull final String keyWord, final double value) {
+        return stage(keyWord, value);
+    }
+
+    /**
+     * @see ObservableConfiguration#setBoolean(String, boolean)
+     */
+    public ConfigurationTransaction setBoolean(@NonNull final String keyWord, final boolean value) {
+        return stage(keyWord, value);
+    }
+
+    /**
+     * @return Anzahl der gesammelten Schlüssel.
+     */
+    public int size() {
+        return changes.size();
+    }
+
+    /**
+     * Übernimmt alle gesammelten Änderungen. Danach kann die Transaktion nicht weiter genutzt werden.
+     * @throws ConfigurationException Wenn nicht gespeichert werden kann. Die Werte sind dann trotzdem übernommen.
+     */
+    public void commit() throws ConfigurationException {
+        checkOpen();
+        finished = true;
+        configuration.applyAll(changes);
+    }
+
+    /**
+     * Verwirft alle gesammelten Änderungen. Danach kann die Transaktion nicht weiter genutzt werden.
+     */
+    public void rollback() {
+        finished = true;
+        changes.clear();
+    }
+
+    /**
+     * Verwirft alle noch nicht übernommenen Änderungen.
+     */
+    @Override
+    public void close() {
+        if (!finished) {
+            rollback();
+        }
+    }
+
+    private ConfigurationTransaction stage(final String keyWord, final Object value) {
+        checkOpen();
+        changes.put(keyWord, value);
+        return this;
+    }
+
+    private void checkOpen() {
+        if (finished) {
+            throw new IllegalStateException("Die Transaktion wurde bereits abgeschlossen!");
+        }
+    }
+}
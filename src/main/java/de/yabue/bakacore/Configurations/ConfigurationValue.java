@@ -0,0 +1,188 @@
+package de.yabue.bakacore.Configurations;
+
+import org.apache.commons.configuration.ConversionException;
+import org.apache.commons.configuration.PropertyConverter;
+
+/**
+ * Unveränderlicher Wert eines Schlüssels. Der Text wird erst bei der ersten Abfrage als Zahl, Kommazahl bzw.
+ * Wahrheitswert interpretiert, und zwar nur für den abgefragten Typ. Das Ergebnis wird als primitiver Wert gemerkt,
+ * damit häufige Lesezugriffe weder parsen noch Objekte erzeugen müssen.
+ *
+ * @author Yannick Bülter
+ */
+final class ConfigurationValue {
+
+    /**
+     * Steht für einen Schlüssel, der in der Properties Datei nicht existiert.
+     */
+    static final ConfigurationValue MISSING = new ConfigurationValue(null);
+
+    static final int INT = 1;
+
+    static final int DOUBLE = 2;
+
+    static final int BOOLEAN = 4;
+
+    private static final int ALL = INT | DOUBLE | BOOLEAN;
+
+    /**
+     * Um so viele Bits verschoben stehen in {@link #state} die bereits geprüften Typen.
+     */
+    private static final int CHECKED = 3;
+
+    private final String text;
+
+    /**
+     * Gültige und bereits geprüfte Typen. Die Werte werden vor dem Schreiben dieses Feldes gesetzt. Prüfen zwei
+     * Threads gleichzeitig, kommen sie zum selben Ergebnis; ein dabei verlorenes Bit führt nur zu erneutem Prüfen.
+     */
+    private volatile int state;
+
+    private int intValue;
+
+    private double doubleValue;
+
+    private boolean booleanValue;
+
+    private ConfigurationValue(final String text) {
+        this.text = text;
+    }
+
+    /**
+     * Stellt einen bereits ausgewerteten Wert wieder her, z.B. aus einem {@link ConfigurationSnapshot}.
+     * @param text Der Rohwert.
+     * @param parsed Die gültigen Auswertungen als Kombination aus {@link #INT}, {@link #DOUBLE} und {@link #BOOLEAN}.
+     * @param intValue Der Wert als Zahl.
+     * @param doubleValue Der Wert als Kommazahl.
+     * @param booleanValue Der Wert als Wahrheitswert.
+     * @return Der Wert.
+     */
+    static ConfigurationValue restore(final String text, final int parsed, final int intValue,
+                                      final double doubleValue, final boolean booleanValue) {
+        ConfigurationValue value = new ConfigurationValue(text);
+        value.intValue = intValue;
+        value.doubleValue = doubleValue;
+        value.booleanValue = booleanValue;
+        value.state = parsed & ALL | ALL << CHECKED;
+        return value;
+    }
+
+    /**
+     * @param text Der Rohwert aus der Properties Datei oder {@code null}.
+     * @return Der ausgewertete Wert.
+     */
+    static ConfigurationValue of(final String text) {
+        return text == null ? MISSING : new ConfigurationValue(text);
+    }
+
+    /**
+     * @return {@code true}, wenn der Schlüssel existiert.
+     */
+    boolean isPresent() {
+        return text != null;
+    }
+
+    /**
+     * @return Der Rohwert oder {@code null}.
+     */
+    String text() {
+        return text;
+    }
+
+    /**
+     * @param key Der Schlüssel, nur für die Fehlermeldung.
+     * @return Der Wert als Zahl.
+     * @throws ConversionException Wenn der Wert keine Zahl ist.
+     */
+    int intValue(final String key) {
+        check(INT, key, "Integer");
+        return intValue;
+    }
+
+    /**
+     * @param key Der Schlüssel, nur für die Fehlermeldung.
+     * @return Der Wert als Kommazahl.
+     * @throws ConversionException Wenn der Wert keine Kommazahl ist.
+     */
+    double doubleValue(final String key) {
+        check(DOUBLE, key, "Double");
+        return doubleValue;
+    }
+
+    /**
+     * @param key Der Schlüssel, nur für die Fehlermeldung.
+     * @return Der Wert als Wahrheitswert.
+     * @throws ConversionException Wenn der Wert kein Wahrheitswert ist.
+     */
+    boolean booleanValue(final String key) {
+        check(BOOLEAN, key, "Boolean");
+        return booleanValue;
+    }
+
+    /**
+     * Prüft alle Typen, die noch nicht geprüft wurden.
+     * @return Die gültigen Auswertungen als Kombination aus {@link #INT}, {@link #DOUBLE} und {@link #BOOLEAN}.
+     */
+    int parsed() {
+        evaluate(INT);
+        evaluate(DOUBLE);
+        return evaluate(BOOLEAN) & ALL;
+    }
+
+    /**
+     * @return Der Wert als Zahl, ohne Prüfung, ob er gültig ist. Nur nach {@link #parsed()} aussagekräftig.
+     */
+    int rawInt() {
+        return intValue;
+    }
+
+    /**
+     * @return Der Wert als Kommazahl, ohne Prüfung, ob er gültig ist. Nur nach {@link #parsed()} aussagekräftig.
+     */
+    double rawDouble() {
+        return doubleValue;
+    }
+
+    /**
+     * @return Der Wert als Wahrheitswert, ohne Prüfung, ob er gültig ist. Nur nach {@link #parsed()}
+     * aussagekräftig.
+     */
+    boolean rawBoolean() {
+        return booleanValue;
+    }
+
+    /**
+     * Interpretiert den Text als einen Typ, falls das noch nicht geschehen ist.
+     * @param type {@link #INT}, {@link #DOUBLE} oder {@link #BOOLEAN}.
+     * @return Der Stand von {@link #state} danach.
+     */
+    private int evaluate(final int type) {
+        int current = state;
+        if ((current & type << CHECKED) != 0) {
+            return current;
+        }
+        boolean valid = text != null;
+        if (valid) {
+            try {
+                if (type == INT) {
+                    intValue = PropertyConverter.toInteger(text);
+                } else if (type == DOUBLE) {
+                    doubleValue = PropertyConverter.toDouble(text);
+                } else {
+                    booleanValue = PropertyConverter.toBoolean(text);
+                }
+            } catch (ConversionException e) {
+                valid = false;
+            }
+        }
+        current = state | type << CHECKED | (valid ? type : 0);
+        state = current;
+        return current;
+    }
+
+    private void check(final int type, final String key, final String name) {
+        if ((evaluate(type) & type) == 0) {
+            throw new ConversionException("Der Wert '" + text + "' von " + key + " ist kein " + name + "!");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package de.yabue.bakacore.Configurations;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Beobachtet eine einzelne Datei mit einem {@link WatchService} und meldet Änderungen daran. Mehrere Ereignisse,
+ * die innerhalb der Entprellzeit aufeinander folgen (z.B. Editoren, die erst leeren und dann schreiben), werden zu
+ * einer Meldung zusammengefasst.
+ *
+ * @author Yannick Bülter
+ */
+final class ConfigurationWatcher implements Closeable {
+
+    private final Path file;
+
+    private final long debounceMillis;
+
+    private final Runnable onChange;
+
+    private final Consumer<RuntimeException> onError;
+
+    private final WatchService watchService;
+
+    private final Thread thread;
+
+    private volatile boolean closed;
+
+    /**
+     * @param file Die zu beobachtende Datei.
+     * @param debounceMillis Wie lange nach dem letzten Ereignis gewartet wird, bevor {@code onChange} aufgerufen wird.
+     * @param onChange Wird im Thread des Beobachters aufgerufen, wenn sich die Datei geändert hat.
+     * @param onError Erhält Fehler aus {@code onChange}. Der Beobachter läuft danach weiter.
+     * @throws IOException Wenn das Verzeichnis der Datei nicht beobachtet werden kann.
+     */
+    ConfigurationWatcher(final Path file, final long debounceMillis, final Runnable onChange,
+                         final Consumer<RuntimeException> onError) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.debounceMillis = debounceMillis;
+        this.onChange = onChange;
+        this.onError = onError;
+        watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "ConfigurationWatcher-" + this.file.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (!closed) {
+                boolean changed = drain(watchService.take());
+                WatchKey next;
+                while ((next = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(next);
+                }
+                if (changed && !closed) {
+                    try {
+                        onChange.run();
+                    } catch (RuntimeException e) {
+                        onError.accept(e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Beobachter wurde beendet
+        }
+    }
+
+    /**
+     * Liest alle Ereignisse eines Schlüssels aus und setzt ihn zurück.
+     *
+     * @param key Der Schlüssel.
+     * @return {@code true}, wenn eines der Ereignisse die beobachtete Datei betrifft.
+     */
+    private boolean drain(final WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+        thread.interrupt();
+    }
+}
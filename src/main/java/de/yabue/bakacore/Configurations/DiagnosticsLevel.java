@@ -0,0 +1,34 @@
+package de.yabue.bakacore.Configurations;
+
+/**
+ * Legt fest, welche Meldungen eine {@link ObservableConfiguration} an ihre {@link ConfigurationDiagnostics} gibt.
+ * Jede Stufe schließt die vorherigen ein.
+ *
+ * @author Yannick Bülter
+ */
+public enum DiagnosticsLevel {
+    /**
+     * Keine Meldungen.
+     */
+    OFF,
+    /**
+     * Nur Probleme, z.B. ein unlesbarer Schnappschuss.
+     */
+    WARN,
+    /**
+     * Zusätzlich Laden, Speichern und Konfigurationsänderungen, jeweils mit Dauer.
+     */
+    INFO,
+    /**
+     * Zusätzlich jeder einzelne Zugriff auf einen Schlüssel.
+     */
+    TRACE;
+
+    /**
+     * @param level Die Stufe einer Meldung.
+     * @return {@code true}, wenn Meldungen dieser Stufe ausgegeben werden.
+     */
+    public boolean includes(final DiagnosticsLevel level) {
+        return level != OFF && ordinal() >= level.ordinal();
+    }
+}
@@ -0,0 +1,122 @@
+package de.yabue.bakacore.Configurations;
+
+import javafx.beans.property.Property;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
+
+import java.util.function.Function;
+
+/**
+ * Hält die JavaFX Properties, die eine {@link ObservableConfiguration} ausgegeben hat. Alle Zugriffe auf JavaFX
+ * Klassen liegen hier; die Klasse wird wie {@link de.yabue.bakacore.Observable.FXBridge} erst geladen, wenn zum
+ * ersten Mal eine JavaFX Property angefordert wird. Ohne JavaFX im Klassenpfad bleibt die Konfiguration dadurch
+ * nutzbar.
+ *
+ * @author Yannick Bülter
+ */
+final class FXProperties {
+
+    private final ObservableConfiguration configuration;
+
+    private final PropertyRegistry<Property<?>> registry = new PropertyRegistry<>();
+
+    /**
+     * @param configuration Die Konfiguration, zu der die Properties gehören.
+     * @param mode Wie fest die Properties gehalten werden.
+     * @param maxSize Höchstzahl der Properties, {@code 0} für unbegrenzt.
+     */
+    FXProperties(final ObservableConfiguration configuration, final RegistryMode mode, final int maxSize) {
+        this.configuration = configuration;
+        registry.configure(mode, maxSize);
+    }
+
+    /**
+     * @return Die Registry der JavaFX Properties.
+     */
+    PropertyRegistry<Property<?>> getRegistry() {
+        return registry;
+    }
+
+    SimpleStringProperty getStringProperty(final String keyWord, final String defaultValue) {
+        return property(keyWord, SimpleStringProperty.class,
+                value -> new SimpleStringProperty(value.isPresent() ? value.text() : defaultValue));
+    }
+
+    SimpleIntegerProperty getIntegerProperty(final String keyWord, final int defaultValue) {
+        return property(keyWord, SimpleIntegerProperty.class,
+                value -> new SimpleIntegerProperty(value.isPresent() ? value.intValue(keyWord) : defaultValue));
+    }
+
+    SimpleDoubleProperty getDoubleProperty(final String keyWord, final double defaultValue) {
+        return property(keyWord, SimpleDoubleProperty.class,
+                value -> new SimpleDoubleProperty(value.isPresent() ? value.doubleValue(keyWord) : defaultValue));
+    }
+
+    SimpleBooleanProperty getBooleanProperty(final String keyWord, final boolean defaultValue) {
+        return property(keyWord, SimpleBooleanProperty.class,
+                value -> new SimpleBooleanProperty(value.isPresent() ? value.booleanValue(keyWord) : defaultValue));
+    }
+
+    /**
+     * Überträgt einen neuen Wert auf die bereits ausgegebene Property des Schlüssels. Gibt es keine, passiert nichts.
+     * @param keyWord Der Schlüssel.
+     * @param value Der neue Wert.
+     * @throws org.apache.commons.configuration.ConversionException Wenn der Wert nicht zum Typ der Property passt.
+     */
+    void publish(final String keyWord, final ConfigurationValue value) {
+        Property<?> property = registry.peek(keyWord);
+        if (property instanceof SimpleStringProperty) {
+            ((SimpleStringProperty) property).set(value.text());
+        } else if (property instanceof SimpleIntegerProperty) {
+            ((SimpleIntegerProperty) property).set(value.intValue(keyWord));
+        } else if (property instanceof SimpleDoubleProperty) {
+            ((SimpleDoubleProperty) property).set(value.doubleValue(keyWord));
+        } else if (property instanceof SimpleBooleanProperty) {
+            ((SimpleBooleanProperty) property).set(value.booleanValue(keyWord));
+        }
+    }
+
+    /**
+     * Liefert die Property eines Schlüssels und erzeugt sie beim ersten Aufruf.
+     * @param keyWord Der Schlüssel.
+     * @param type Die erwartete Art der Property.
+     * @param factory Erzeugt die Property aus dem ausgewerteten Wert.
+     * @return Die Property.
+     */
+    private <P extends Property<?>> P property(final String keyWord, final Class<P> type,
+                                               final Function<ConfigurationValue, P> factory) {
+        Property<?> cached = registry.get(keyWord);
+        if (cached != null) {
+            if (configuration.traces())
+                configuration.trace("Wert für "+keyWord+" gefunden...");
+            return type.cast(cached);
+        }
+        ConfigurationValue value = configuration.lookup(keyWord);
+        return type.cast(registry.computeIfAbsent(keyWord, key -> {
+            if (configuration.traces()) {
+                if (value.isPresent()) {
+                    configuration.trace("Schlüssel ist nicht in der Map, füge "+key+" hinzu...");
+                } else {
+                    configuration.trace("Schlüssel ist nicht in der Map und der Schlüssel existiert nicht oder hat keinen Wert...");
+                    configuration.trace("Füge temporär einen Standartwert für " + key + " ein...");
+                }
+            }
+            return bindToStore(key, factory.apply(value));
+        }));
+    }
+
+    /**
+     * Verbindet eine neu erzeugte Property mit der Konfiguration, damit ihre Änderungen bei aktiver Rückbindung
+     * übernommen werden.
+     * @param keyWord Der Schlüssel.
+     * @param property Die Property.
+     * @return Die Property.
+     */
+    private <P extends ObservableValue<?>> P bindToStore(final String keyWord, final P property) {
+        property.addListener((observable, oldValue, newValue) -> configuration.stage(keyWord, newValue));
+        return property;
+    }
+}
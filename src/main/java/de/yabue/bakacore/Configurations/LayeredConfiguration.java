@@ -0,0 +1,297 @@
+package de.yabue.bakacore.Configurations;
+
+import lombok.NonNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fasst mehrere Konfigurationsebenen zusammen, die sich gegenseitig überschreiben, z.B. Standardwerte, eine
+ * Properties Datei, Umgebungsvariablen und System Properties. Jede später hinzugefügte Ebene hat Vorrang vor den
+ * vorherigen.
+ * <p>
+ * Für jeden Schlüssel wird der gewinnende Wert vorab in einem flachen Index abgelegt, sodass jeder Zugriff nur
+ * eine Suche in einer Hash Tabelle kostet. Ändert sich eine Ebene, werden nur die betroffenen Schlüssel neu
+ * aufgelöst. Änderungen an einer {@link ObservableConfiguration} werden automatisch übernommen, Umgebungsvariablen
+ * und System Properties mit {@link #refresh()}.
+ *
+ * @author Yannick Bülter
+ */
+public class LayeredConfiguration {
+
+    private final CopyOnWriteArrayList<Layer> LAYERS = new CopyOnWriteArrayList<>();
+
+    private final ConcurrentHashMap<String, ConfigurationValue> RESOLVED = new ConcurrentHashMap<>();
+
+    private final CopyOnWriteArrayList<ConfigurationListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Fügt eine Ebene mit festen Werten hinzu. Die Werte werden mit {@link String#valueOf(Object)} übernommen.
+     * @param defaults Die Werte.
+     */
+    public void addDefaults(@NonNull final Map<String, ?> defaults) {
+        Map<String, String> copy = new HashMap<>();
+        defaults.forEach((key, value) -> copy.put(key, String.valueOf(value)));
+        addLayer(new MapLayer(() -> copy));
+    }
+
+    /**
+     * Fügt eine Konfiguration als Ebene hinzu. Spätere Änderungen an ihr werden automatisch übernommen.
+     * @param configuration Die Konfiguration.
+     */
+    public void addConfiguration(@NonNull final ObservableConfiguration configuration) {
+        ConfigurationLayer layer = new ConfigurationLayer(configuration);
+        addLayer(layer);
+        configuration.addConfigurationListener(this::update);
+    }
+
+    /**
+     * Fügt die Umgebungsvariablen als Ebene hinzu. Die Namen werden dazu in Kleinbuchstaben umgewandelt und
+     * Unterstriche durch Punkte ersetzt, {@code DB_POOL_SIZE} überschreibt also {@code db.pool.size}.
+     */
+    public void addEnvironment() {
+        addLayer(new MapLayer(() -> {
+            Map<String, String> values = new HashMap<>();
+            System.getenv().forEach((name, value) -> values.put(name.toLowerCase(Locale.ROOT).replace('_', '.'), value));
+            return values;
+        }));
+    }
+
+    /**
+     * Fügt die System Properties als Ebene hinzu.
+     */
+    public void addSystemProperties() {
+        addLayer(new MapLayer(() -> {
+            Map<String, String> values = new HashMap<>();
+            for (String name : System.getProperties().stringPropertyNames()) {
+                values.put(name, System.getProperty(name));
+            }
+            return values;
+        }));
+    }
+
+    /**
+     * Liest Umgebungsvariablen und System Properties erneut ein und löst die Schlüssel neu auf, die sich dabei
+     * geändert haben.
+     */
+    public void refresh() {
+        Set<String> changed = new HashSet<>();
+        synchronized (this) {
+            for (Layer layer : LAYERS) {
+                if (layer instanceof MapLayer) {
+                    changed.addAll(((MapLayer) layer).refresh());
+                }
+            }
+        }
+        update(changed);
+    }
+
+    /**
+     * @param keyWord Der Schlüssel.
+     * @return {@code true}, wenn eine der Ebenen einen Wert für den Schlüssel hat.
+     */
+    public boolean containsKey(@NonNull final String keyWord) {
+        return RESOLVED.containsKey(keyWord);
+    }
+
+    /**
+     * @return Alle Schlüssel aller Ebenen. Die Menge ist nicht veränderbar, folgt aber späteren Änderungen.
+     */
+    public Set<String> getKeys() {
+        return Collections.unmodifiableSet(RESOLVED.keySet());
+    }
+
+    /**
+     * @param keyWord Der Schlüssel.
+     * @param defaultValue Der Ausweichwert, falls keine Ebene einen Wert hat.
+     * @return Der Wert der obersten Ebene, die den Schlüssel kennt, oder der Ausweichwert.
+     */
+    public String getString(@NonNull final String keyWord, final String defaultValue) {
+        ConfigurationValue value = RESOLVED.get(keyWord);
+        return value != null ? value.text() : defaultValue;
+    }
+
+    /**
+     * @param keyWord Der Schlüssel.
+     * @param defaultValue Der Ausweichwert, falls keine Ebene einen Wert hat.
+     * @return Der Wert der obersten Ebene, die den Schlüssel kennt, oder der Ausweichwert.
+     * @throws org.apache.commons.configuration.ConversionException Wenn der Wert keine Zahl ist.
+     */
+    public int getIntValue(@NonNull final String keyWord, final int defaultValue) {
+        ConfigurationValue value = RESOLVED.get(keyWord);
+        return value != null ? value.intValue(keyWord) : defaultValue;
+    }
+
+    /**
+     * @param keyWord Der Schlüssel.
+     * @param defaultValue Der Ausweichwert, falls keine Ebene einen Wert hat.
+     * @return Der Wert der obersten Ebene, die den Schlüssel kennt, oder der Ausweichwert.
+     * @throws org.apache.commons.configuration.ConversionException Wenn der Wert keine Kommazahl ist.
+     */
+    public double getDoubleValue(@NonNull final String keyWord, final double defaultValue) {
+        ConfigurationValue value = RESOLVED.get(keyWord);
+        return value != null ? value.doubleValue(keyWord) : defaultValue;
+    }
+
+    /**
+     * @param keyWord Der Schlüssel.
+     * @param defaultValue Der Ausweichwert, falls keine Ebene einen Wert hat.
+     * @return Der Wert der obersten Ebene, die den Schlüssel kennt, oder der Ausweichwert.
+     * @throws org.apache.commons.configuration.ConversionException Wenn der Wert kein Wahrheitswert ist.
+     */
+    public boolean getBooleanValue(@NonNull final String keyWord, final boolean defaultValue) {
+        ConfigurationValue value = RESOLVED.get(keyWord);
+        return value != null ? value.booleanValue(keyWord) : defaultValue;
+    }
+
+    /**
+     * Registriert einen Listener, der benachrichtigt wird, wenn sich der aufgelöste Wert von Schlüsseln ändert.
+     * @param listener Der Listener.
+     */
+    public void addConfigurationListener(@NonNull final ConfigurationListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * @param listener Ein mit {@link #addConfigurationListener(ConfigurationListener)} registrierter Listener.
+     */
+    public void removeConfigurationListener(@NonNull final ConfigurationListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private void addLayer(final Layer layer) {
+        Set<String> keys = new HashSet<>();
+        synchronized (this) {
+            LAYERS.add(layer);
+            layer.forEachKey(keys::add);
+        }
+        update(keys);
+    }
+
+    /**
+     * Löst die übergebenen Schlüssel neu auf und benachrichtigt die Listener über die, deren Wert sich geändert hat.
+     * @param keys Die Schlüssel, die sich in einer Ebene geändert haben könnten.
+     */
+    private void update(final Set<String> keys) {
+        Set<String> changed = new HashSet<>();
+        synchronized (this) {
+            for (String key : keys) {
+                ConfigurationValue value = resolve(key);
+                ConfigurationValue previous = value != null ? RESOLVED.put(key, value) : RESOLVED.remove(key);
+                if (!Objects.equals(previous != null ? previous.text() : null, value != null ? value.text() : null)) {
+                    changed.add(key);
+                }
+            }
+        }
+        if (!changed.isEmpty()) {
+            Set<String> unmodifiable = Collections.unmodifiableSet(changed);
+            for (ConfigurationListener listener : LISTENERS) {
+                listener.keysChanged(unmodifiable);
+            }
+        }
+    }
+
+    /**
+     * @param key Der Schlüssel.
+     * @return Der Wert der obersten Ebene, die den Schlüssel kennt, oder {@code null}.
+     */
+    private ConfigurationValue resolve(final String key) {
+        for (int i = LAYERS.size() - 1; i >= 0; i--) {
+            ConfigurationValue value = LAYERS.get(i).value(key);
+            if (value.isPresent()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Eine Ebene der Konfiguration.
+     */
+    private interface Layer {
+
+        ConfigurationValue value(String key);
+
+        void forEachKey(Consumer<String> action);
+    }
+
+    /**
+     * Ebene mit Werten aus einer {@link Map}, die bei {@link #refresh()} neu abgefragt wird.
+     */
+    private static final class MapLayer implements Layer {
+
+        private final Supplier<Map<String, String>> supplier;
+
+        private volatile Map<String, ConfigurationValue> values = Collections.emptyMap();
+
+        MapLayer(final Supplier<Map<String, String>> supplier) {
+            this.supplier = supplier;
+            refresh();
+        }
+
+        /**
+         * @return Die Schlüssel, deren Wert sich geändert hat.
+         */
+        Set<String> refresh() {
+            Map<String, ConfigurationValue> old = values;
+            Map<String, ConfigurationValue> fresh = new HashMap<>();
+            Set<String> changed = new HashSet<>();
+            supplier.get().forEach((key, text) -> {
+                ConfigurationValue previous = old.get(key);
+                fresh.put(key, previous != null && previous.text().equals(text) ? previous : ConfigurationValue.of(text));
+                if (previous == null || !previous.text().equals(text)) {
+                    changed.add(key);
+                }
+            });
+            for (String key : old.keySet()) {
+                if (!fresh.containsKey(key)) {
+                    changed.add(key);
+                }
+            }
+            values = fresh;
+            return changed;
+        }
+
+        @Override
+        public ConfigurationValue value(final String key) {
+            ConfigurationValue value = values.get(key);
+            return value != null ? value : ConfigurationValue.MISSING;
+        }
+
+        @Override
+        public void forEachKey(final Consumer<String> action) {
+            values.keySet().forEach(action);
+        }
+    }
+
+    /**
+     * Ebene, die eine {@link ObservableConfiguration} liest.
+     */
+    private static final class ConfigurationLayer implements Layer {
+
+        private final ObservableConfiguration configuration;
+
+        ConfigurationLayer(final ObservableConfiguration configuration) {
+            this.configuration = configuration;
+        }
+
+        @Override
+        public ConfigurationValue value(final String key) {
+            return configuration.lookup(key);
+        }
+
+        @Override
+        public void forEachKey(final Consumer<String> action) {
+            configuration.forEachKey(action);
+        }
+    }
+}
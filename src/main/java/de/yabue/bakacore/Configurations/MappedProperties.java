@@ -0,0 +1,296 @@
+package de.yabue.bakacore.Configurations;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Liest eine {@code .properties} Datei über eine in den Speicher abgebildete Datei. Beim Öffnen wird die Datei nur
+ * einmal durchlaufen und für jeden Schlüssel die Position seines Wertes gemerkt; dekodiert wird ein Wert erst, wenn er
+ * angefordert wird. Das Format entspricht dem von {@link java.util.Properties}: Kommentare mit {@code #} oder
+ * {@code !}, Trenner {@code =}, {@code :} oder Leerraum, Fortsetzungszeilen und Unicode-Escapes.
+ * <p>
+ * Die Indizierung arbeitet direkt auf den Bytes und ist deshalb nur für Zeichensätze möglich, in denen jedes Zeichen
+ * ein Byte belegt, oder für UTF-8. Für andere Zeichensätze liefert {@link #open(File, Charset)} {@code null}.
+ * Die Klasse ist nach dem Öffnen unveränderlich und darf von mehreren Threads gleichzeitig gelesen werden.
+ *
+ * @author Yannick Bülter
+ */
+final class MappedProperties implements ConfigurationSource {
+
+    /**
+     * Der Wert enthält einen Backslash und muss aufbereitet werden.
+     */
+    private static final int ESCAPED = 1;
+
+    /**
+     * Der Schlüssel kommt mehrfach in der Datei vor.
+     */
+    private static final int DUPLICATE = 2;
+
+    private final ByteBuffer buffer;
+
+    private final Charset charset;
+
+    private final Map<String, long[]> index;
+
+    private MappedProperties(final ByteBuffer buffer, final Charset charset, final Map<String, long[]> index) {
+        this.buffer = buffer;
+        this.charset = charset;
+        this.index = index;
+    }
+
+    /**
+     * Bildet eine Datei in den Speicher ab und indiziert ihre Schlüssel.
+     *
+     * @param file Die Properties Datei.
+     * @param charset Der Zeichensatz der Datei.
+     * @return Die indizierte Datei, oder {@code null}, wenn der Zeichensatz nicht unterstützt wird.
+     * @throws IOException Wenn die Datei nicht gelesen werden kann oder größer als 2 GB ist.
+     */
+    static MappedProperties open(final File file, final Charset charset) throws IOException {
+        if (!supports(charset)) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Die Datei " + file + " ist zu groß, um sie abzubilden!");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        MappedProperties properties = new MappedProperties(buffer, charset, new HashMap<>());
+        properties.scan();
+        return properties;
+    }
+
+    private static boolean supports(final Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8)
+                || charset.newEncoder().maxBytesPerChar() == 1 && charset.newDecoder().maxCharsPerByte() == 1
+                && "=:#!\\ \t\r\n\f".equals(new String("=:#!\\ \t\r\n\f".getBytes(charset), charset));
+    }
+
+    @Override
+    public String get(final String key) {
+        long[] entry = index.get(key);
+        return entry == null ? null : value(entry);
+    }
+
+    @Override
+    public boolean isDuplicate(final String key) {
+        long[] entry = index.get(key);
+        return entry != null && (entry[1] & DUPLICATE) != 0;
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void forEach(final BiConsumer<String, String> action) {
+        index.forEach((key, entry) -> action.accept(key, value(entry)));
+    }
+
+    @Override
+    public void forEachKey(final Consumer<String> action) {
+        index.keySet().forEach(action);
+    }
+
+    private String value(final long[] entry) {
+        int start = (int) (entry[0] >>> 32);
+        int end = (int) entry[0];
+        String raw = decode(start, end);
+        return (entry[1] & ESCAPED) != 0 ? unescape(raw, true) : raw;
+    }
+
+    /**
+     * Durchläuft die Datei einmal und merkt sich für jeden Schlüssel Anfang und Ende seines Wertes.
+     */
+    private void scan() {
+        int limit = buffer.limit();
+        int pos = 0;
+        while (pos < limit) {
+            pos = skipBlanks(pos, limit);
+            if (pos >= limit) {
+                break;
+            }
+            byte b = buffer.get(pos);
+            if (b == '\r' || b == '\n') {
+                pos++;
+                continue;
+            }
+            if (b == '#' || b == '!') {
+                pos = lineEnd(pos, limit);
+                continue;
+            }
+            int keyStart = pos;
+            boolean keyEscaped = false;
+            while (pos < limit) {
+                b = buffer.get(pos);
+                if (b == '\\') {
+                    keyEscaped = true;
+                    pos = skipEscape(pos, limit);
+                } else if (b == '=' || b == ':' || b == ' ' || b == '\t' || b == '\f' || b == '\r' || b == '\n') {
+                    break;
+                } else {
+                    pos++;
+                }
+            }
+            int keyEnd = Math.min(pos, limit);
+            pos = skipBlanks(pos, limit);
+            if (pos < limit && (buffer.get(pos) == '=' || buffer.get(pos) == ':')) {
+                pos = skipBlanks(pos + 1, limit);
+            }
+            int valueStart = pos;
+            boolean valueEscaped = false;
+            while (pos < limit) {
+                b = buffer.get(pos);
+                if (b == '\\') {
+                    valueEscaped = true;
+                    pos = skipEscape(pos, limit);
+                } else if (b == '\r' || b == '\n') {
+                    break;
+                } else {
+                    pos++;
+                }
+            }
+            int valueEnd = Math.min(pos, limit);
+            String key = decode(keyStart, keyEnd);
+            if (keyEscaped) {
+                key = unescape(key, false);
+            }
+            long[] existing = index.get(key);
+            if (existing != null) {
+                existing[1] |= DUPLICATE;
+            } else {
+                index.put(key, new long[]{(long) valueStart << 32 | valueEnd & 0xFFFFFFFFL, valueEscaped ? ESCAPED : 0});
+            }
+        }
+    }
+
+    private int skipBlanks(int pos, final int limit) {
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b != ' ' && b != '\t' && b != '\f') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * @return Die Position hinter einem Escape. Ein Backslash vor {@code \r\n} maskiert beide Zeichen.
+     */
+    private int skipEscape(final int pos, final int limit) {
+        if (pos + 2 < limit && buffer.get(pos + 1) == '\r' && buffer.get(pos + 2) == '\n') {
+            return pos + 3;
+        }
+        return pos + 2;
+    }
+
+    private int lineEnd(int pos, final int limit) {
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b == '\r' || b == '\n') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private String decode(final int start, final int end) {
+        if (start >= end) {
+            return "";
+        }
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(end).position(start);
+        try {
+            CharBuffer chars = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(slice);
+            return chars.toString();
+        } catch (CharacterCodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Löst Escapes und Fortsetzungszeilen auf.
+     *
+     * @param raw Der rohe Text.
+     * @param keepDelimiter Wenn {@code true}, bleibt ein maskiertes Komma maskiert, damit commons-configuration es
+     * beim Übernehmen nicht als Listentrenner behandelt.
+     * @return Der aufbereitete Text.
+     */
+    static String unescape(final String raw, final boolean keepDelimiter) {
+        StringBuilder builder = new StringBuilder(raw.length());
+        int length = raw.length();
+        for (int i = 0; i < length; i++) {
+            char c = raw.charAt(i);
+            if (c != '\\' || i + 1 >= length) {
+                builder.append(c);
+                continue;
+            }
+            char next = raw.charAt(++i);
+            switch (next) {
+                case '\r':
+                    if (i + 1 < length && raw.charAt(i + 1) == '\n') {
+                        i++;
+                    }
+                    // fall through
+                case '\n':
+                    while (i + 1 < length && (raw.charAt(i + 1) == ' ' || raw.charAt(i + 1) == '\t'
+                            || raw.charAt(i + 1) == '\f')) {
+                        i++;
+                    }
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case ',':
+                    builder.append(keepDelimiter ? "\\," : ",");
+                    break;
+                case 'u':
+                    if (i + 4 < length) {
+                        try {
+                            builder.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                            i += 4;
+                            break;
+                        } catch (NumberFormatException e) {
+                            // kein gültiges Escape, Zeichen übernehmen
+                        }
+                    }
+                    builder.append(next);
+                    break;
+                default:
+                    builder.append(next);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -1,13 +1,51 @@
 package de.yabue.bakacore.Configurations;
 
-import javafx.beans.property.*;
+import de.yabue.bakacore.Observable.FXBridge;
+import de.yabue.bakacore.Observable.LiteBooleanProperty;
+import de.yabue.bakacore.Observable.LiteDoubleProperty;
+import de.yabue.bakacore.Observable.LiteIntegerProperty;
+import de.yabue.bakacore.Observable.LiteProperty;
+import de.yabue.bakacore.Observable.LiteStringProperty;
+import javafx.beans.property.Property;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
 import lombok.Getter;
 import lombok.NonNull;
 import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.ConversionException;
 import org.apache.commons.configuration.PropertiesConfiguration;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Diese Klasse bietet eine Möglichkeit, Werte aus einer {@code .properties} auszulesen und diese in
@@ -15,6 +53,21 @@ import java.util.HashMap;
  * Man kann sowohl die Property, als auch den Wert selbst anfordern.
  * Allerdings müssen Nutzer dieser Klasse wissen, um was für eine Art Wert es sich handelt, wenn sie
  * die Property anfordern.
+ * <p>
+ * Neben den JavaFX Properties gibt es mit {@code getLite*Property} leichtgewichtige Gegenstücke aus
+ * {@link de.yabue.bakacore.Observable}. Wer nur diese, die einfachen Getter und die Setter ohne Property im Namen,
+ * z.B. {@link #setString(String, String)}, nutzt, braucht kein JavaFX im Klassenpfad. Methoden, die JavaFX Typen
+ * liefern, wie {@link #getStringProperty(String, String)} oder {@link #setStringProperty(String, String)}, benötigen
+ * JavaFX.
+ * <p>
+ * Die Konfiguration darf von mehreren Threads gleichzeitig genutzt werden. Zu jedem Schlüssel wird genau eine
+ * Property erzeugt; bereits erzeugte Properties werden ohne Sperre und ohne Zugriff auf die Properties Datei geliefert.
+ * Schreibzugriffe auf die Properties Datei sind gegeneinander und gegen Lesezugriffe gesperrt.
+ * <p>
+ * Eine Transaktion oder ein {@link #reload()} wird für Leser in einem Schritt sichtbar: Ein {@code get*} Aufruf,
+ * der während des Übernehmens kommt, wartet, bis alle Werte übernommen sind. Ein Leser sieht also nie einen neuen und
+ * danach noch einen alten Wert derselben Übernahme. Zwischen zwei Aufrufen kann aber eine Übernahme stattfinden; wer
+ * zusammengehörige Werte lesen will, nutzt {@link #readAtomically(Supplier)}.
  */
 public class ObservableConfiguration {
 
@@ -23,12 +76,128 @@ public class ObservableConfiguration {
 
     private final PropertiesConfiguration PROPERTIES_CONFIGURATION;
 
-    private final HashMap<String, Property> MAP;
+    private final PropertyRegistry<LiteProperty<?>> LITE_MAP = new PropertyRegistry<>();
 
+    /**
+     * Die ausgegebenen JavaFX Properties. Wird erst beim ersten Zugriff auf eine JavaFX Property erzeugt, damit die
+     * Konfiguration ohne JavaFX im Klassenpfad geladen werden kann.
+     */
+    private volatile FXProperties fx;
+
+    /**
+     * Zuletzt mit {@link #setPropertyRegistryMode(RegistryMode, int)} gesetzter Modus, für eine erst später erzeugte
+     * Registry der JavaFX Properties.
+     */
+    private RegistryMode registryMode = RegistryMode.STRONG;
+
+    private int registryMaxSize;
+
+    /**
+     * Bereits ausgewertete Werte je Schlüssel. Ein Eintrag wird nur ersetzt, wenn sich der Wert des Schlüssels ändert.
+     */
+    private final ConcurrentHashMap<String, ConfigurationValue> VALUES = new ConcurrentHashMap<>();
+
+    /**
+     * Schlüssel, deren Wert Variablen wie {@code ${andere}} enthält. Ihre ausgewerteten Werte werden bei jeder
+     * Änderung verworfen.
+     */
+    private final Set<String> INTERPOLATED = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Schützt {@link #PROPERTIES_CONFIGURATION}, die selbst nicht für gleichzeitige Zugriffe ausgelegt ist.
+     */
+    private final ReadWriteLock LOCK = new ReentrantReadWriteLock();
+
+    /**
+     * Wird beim Übernehmen mehrerer Werte vor {@link #LOCK} gehalten, damit {@link #readAtomically(Supplier)} keinen
+     * Zwischenstand sieht. Lesende Aktionen dürfen {@link #LOCK} weiterhin anfordern, z.B. um eine abgebildete Datei
+     * zu übernehmen.
+     */
+    private final ReadWriteLock COMMIT_LOCK = new ReentrantReadWriteLock();
+
+    /**
+     * {@code true}, solange {@link #COMMIT_LOCK} zum Übernehmen mehrerer Werte gehalten wird. Leser nehmen dann die
+     * Lesesperre, statt {@link #VALUES} ohne Sperre zu lesen.
+     */
+    private volatile boolean committing;
+
+    /**
+     * In den Speicher abgebildete Properties Datei oder Schnappschuss, aus dem Werte erst bei Bedarf gelesen werden. Solange sie gesetzt
+     * ist, ist {@link #PROPERTIES_CONFIGURATION} leer. Vor dem ersten Schreibzugriff wird sie übernommen und verworfen.
+     */
+    private volatile ConfigurationSource source;
+
+    /**
+     * Beobachtet die Properties Datei, solange das automatische Neuladen aktiv ist.
+     */
+    private ConfigurationWatcher watcher;
+
+    /**
+     * Führt die Aktualisierung der Properties nach einem {@link #reload()} aus.
+     */
+    private volatile Executor reloadNotifier = Runnable::run;
+
+    /**
+     * Sortierte Menge aller Schlüssel für Abfragen nach Präfix. Wird erst bei der ersten Abfrage aufgebaut und danach
+     * unter der Schreibsperre gepflegt.
+     */
+    private volatile ConcurrentSkipListSet<String> keyIndex;
+
+    /**
+     * Werden über geänderte Schlüssel benachrichtigt.
+     */
+    private final CopyOnWriteArrayList<ConfigurationListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Sammelt Änderungen, solange verzögertes Speichern aktiv ist.
+     */
+    private volatile WriteBehind writeBehind;
+
+    /**
+     * Sammelt Änderungen an ausgegebenen Properties, solange die Rückbindung aktiv ist.
+     */
+    private volatile PropertyBinding binding;
+
+    /**
+     * Führt die Aktualisierung der Properties aus, nachdem die Rückbindung gesammelte Änderungen übernommen hat.
+     */
+    private volatile Executor bindingNotifier = Runnable::run;
+
+    /**
+     * Ist gesetzt, während die Konfiguration selbst Properties aktualisiert. Solche Änderungen werden nicht
+     * zurückgebunden.
+     */
+    private static final ThreadLocal<Boolean> PUBLISHING = new ThreadLocal<>();
+
+    /**
+     * Ausgabe und Stufe für neu erzeugte Konfigurationen, siehe {@link #setDefaultDiagnostics}.
+     */
+    private static volatile ConfigurationDiagnostics defaultDiagnostics = ConfigurationDiagnostics.STDOUT;
+
+    private static volatile DiagnosticsLevel defaultLevel = DiagnosticsLevel.WARN;
+
+    private volatile ConfigurationDiagnostics diagnostics = defaultDiagnostics;
+
+    /**
+     * Bis zu welcher Stufe Meldungen erzeugt werden. Meldungen darüber werden nicht einmal zusammengesetzt.
+     */
     @Getter
+    private volatile DiagnosticsLevel diagnosticsLevel = defaultLevel;
+
+    /**
+     * Zugriffe je Schlüssel, solange das Zählen aktiv ist, sonst {@code null}.
+     */
+    private volatile ConcurrentHashMap<String, LongAdder> accessCounts;
+
+    private final LiteBooleanProperty printInfos;
+
+    private final LiteBooleanProperty autoSave;
+
+    /**
+     * JavaFX Gegenstücke zu {@link #printInfos} und {@link #autoSave}. Werden erst bei Bedarf erzeugt.
+     */
     private SimpleBooleanProperty printInfosProperty;
 
-    @Getter
     private SimpleBooleanProperty autoSaveProperty;
 
     /**
@@ -38,17 +207,13 @@ public class ObservableConfiguration {
      */
     public ObservableConfiguration(@NonNull File pathToConfiguration, boolean autoSave) throws ConfigurationException {
         CONFIG = pathToConfiguration;
+        long start = System.nanoTime();
         PROPERTIES_CONFIGURATION = new PropertiesConfiguration(pathToConfiguration);
         PROPERTIES_CONFIGURATION.setAutoSave(autoSave);
-        MAP = new HashMap<>();
-        System.out.println("Configuration initialized...");
-        autoSaveProperty = new SimpleBooleanProperty(autoSave);
-        printInfosProperty = new SimpleBooleanProperty(false);
-        if(autoSave){
-            System.out.println("Changes on the configuration will be automatically saved.");
-        }else{
-            System.out.println("Changes on the configuration will not be saved.");
-        }
+        this.autoSave = new LiteBooleanProperty(autoSave);
+        printInfos = new LiteBooleanProperty(diagnosticsLevel == DiagnosticsLevel.TRACE);
+        printInfos.addListener((observable, oldValue, newValue) -> followPrintInfos(newValue));
+        initialized(pathToConfiguration, start);
     }
 
     /**
@@ -57,9 +222,131 @@ public class ObservableConfiguration {
     public ObservableConfiguration(){
         CONFIG = null;
         PROPERTIES_CONFIGURATION = new PropertiesConfiguration();
-        MAP = new HashMap<>();
-        printInfosProperty = new SimpleBooleanProperty(false);
-        System.out.println("Eine leere Konfiguration wurde initialisiert...");
+        autoSave = new LiteBooleanProperty(false);
+        printInfos = new LiteBooleanProperty(diagnosticsLevel == DiagnosticsLevel.TRACE);
+        printInfos.addListener((observable, oldValue, newValue) -> followPrintInfos(newValue));
+        if (informs())
+            info("Eine leere Konfiguration wurde initialisiert...");
+    }
+
+    /**
+     * Konstruiert eine Konfiguration aus einer Properties Datei, ohne sie vollständig einzulesen.
+     * @param pathToConfiguration Pfad zu einer Properties Datei, oder {@code null}, wenn die Werte nur aus der Quelle
+     * stammen und nicht gespeichert werden können.
+     * @param autoSave Wenn {@code true}, werden Änderungen an den Properties gespeichert.
+     * @param encoding Zeichensatz der Datei.
+     * @param source Die abgebildete Datei bzw. der Schnappschuss, oder {@code null}, wenn die Datei normal geladen
+     * werden soll.
+     */
+    private ObservableConfiguration(final File pathToConfiguration, final boolean autoSave, final String encoding,
+                                    final ConfigurationSource source) throws ConfigurationException {
+        CONFIG = pathToConfiguration;
+        long start = System.nanoTime();
+        PROPERTIES_CONFIGURATION = new PropertiesConfiguration();
+        PROPERTIES_CONFIGURATION.setEncoding(encoding);
+        if (pathToConfiguration != null) {
+            PROPERTIES_CONFIGURATION.setFile(pathToConfiguration);
+        }
+        if (source == null) {
+            PROPERTIES_CONFIGURATION.load(pathToConfiguration);
+        }
+        PROPERTIES_CONFIGURATION.setAutoSave(autoSave);
+        this.source = source;
+        this.autoSave = new LiteBooleanProperty(autoSave);
+        printInfos = new LiteBooleanProperty(diagnosticsLevel == DiagnosticsLevel.TRACE);
+        printInfos.addListener((observable, oldValue, newValue) -> followPrintInfos(newValue));
+        initialized(source != null ? null : pathToConfiguration, start);
+    }
+
+    /**
+     * Konstruiert eine Konfiguration für sehr große Properties Dateien. Die Datei wird in den Speicher abgebildet und
+     * beim Öffnen nur einmal nach Schlüsseln durchsucht; ein Wert wird erst beim ersten Zugriff dekodiert. Werte mit
+     * Listentrennern, Variablen oder mehrfach vorkommenden Schlüsseln sowie der erste Schreibzugriff führen dazu,
+     * dass die Datei vollständig übernommen wird. Danach verhält sich die Konfiguration wie eine normal geladene.
+     * <p>
+     * Der Zeichensatz muss hier angegeben werden, weil die Werte später dekodiert werden. {@link #setEncoding(String)}
+     * wirkt wie bisher nur auf das Speichern. Wird der Zeichensatz nicht unterstützt (z.B. UTF-16), wird die Datei
+     * normal geladen.
+     * <p>
+     * Solange die Datei abgebildet ist, darf sie von außen nicht gekürzt werden; ein Zugriff auf den abgeschnittenen
+     * Teil lässt die JVM abstürzen. {@link #enableHotReload(long, Executor)} übernimmt die Datei deshalb vorher.
+     * @param pathToConfiguration Pfad zu einer Properties Datei.
+     * @param autoSave Wenn {@code true}, werden Änderungen an den Properties gespeichert.
+     * @param encoding Zeichensatz der Datei, oder {@code null} für ISO-8859-1.
+     * @return Die neue Konfiguration.
+     * @throws ConfigurationException Wenn die Datei nicht gelesen werden kann.
+     */
+    public static ObservableConfiguration mapped(@NonNull final File pathToConfiguration, final boolean autoSave,
+                                                 final String encoding) throws ConfigurationException {
+        long start = System.nanoTime();
+        try {
+            return new ObservableConfiguration(pathToConfiguration, autoSave, encoding,
+                    MappedProperties.open(pathToConfiguration, charset(encoding))).opened(pathToConfiguration, start);
+        } catch (IOException e) {
+            throw new ConfigurationException("Die Datei " + pathToConfiguration + " konnte nicht gelesen werden!", e);
+        }
+    }
+
+    /**
+     * Konstruiert eine Konfiguration aus einer YAML Datei. Verschachtelte Schlüssel werden mit Punkten verbunden, aus
+     * {@code db: {pool: {size: 10}}} wird also {@code db.pool.size}; Listen einfacher Werte werden wie Listen in
+     * Properties Dateien behandelt. Die Datei wird beim Öffnen nur einmal durchlaufen, Werte und Properties werden
+     * erst für die Schlüssel erzeugt, die tatsächlich abgefragt werden.
+     * <p>
+     * Wie bei {@link #mapped(File, boolean, String)} wird die Datei dafür in den Speicher abgebildet und darf von außen
+     * nicht gekürzt werden, solange die Werte noch aus ihr gelesen werden.
+     * <p>
+     * Die Konfiguration lässt sich wie jede andere lesen und verändern. Änderungen bleiben aber im Speicher, da eine
+     * YAML Datei nicht als Properties Datei gespeichert werden kann; Speichern und Neuladen sind nicht möglich.
+     * @param pathToConfiguration Pfad zu einer YAML Datei.
+     * @param encoding Zeichensatz der Datei, oder {@code null} für UTF-8.
+     * @return Die neue Konfiguration.
+     * @throws ConfigurationException Wenn die Datei nicht gelesen werden kann oder kein gültiges YAML enthält.
+     */
+    public static ObservableConfiguration yaml(@NonNull final File pathToConfiguration, final String encoding)
+            throws ConfigurationException {
+        long start = System.nanoTime();
+        try {
+            return new ObservableConfiguration(null, false, encoding,
+                    YamlSource.open(pathToConfiguration, encoding != null ? Charset.forName(encoding)
+                            : StandardCharsets.UTF_8)).opened(pathToConfiguration, start);
+        } catch (IOException e) {
+            throw new ConfigurationException("Die Datei " + pathToConfiguration + " konnte nicht gelesen werden!", e);
+        }
+    }
+
+    /**
+     * Konstruiert eine Konfiguration aus einem binären Schnappschuss einer Properties Datei, siehe
+     * {@link #compileSnapshot(File)}. Passt der Schnappschuss nicht mehr zur Properties Datei oder zum Zeichensatz oder
+     * fehlt er, wird die Datei wie bei {@link #mapped(File, boolean, String)} gelesen und der Schnappschuss für den
+     * nächsten Start neu erstellt.
+     * @param pathToConfiguration Pfad zu einer Properties Datei.
+     * @param snapshot Pfad zum Schnappschuss.
+     * @param autoSave Wenn {@code true}, werden Änderungen an den Properties gespeichert.
+     * @param encoding Zeichensatz der Properties Datei, oder {@code null} für ISO-8859-1.
+     * @return Die neue Konfiguration.
+     * @throws ConfigurationException Wenn die Properties Datei nicht gelesen werden kann.
+     */
+    public static ObservableConfiguration fromSnapshot(@NonNull final File pathToConfiguration,
+                                                       @NonNull final File snapshot, final boolean autoSave,
+                                                       final String encoding) throws ConfigurationException {
+        long start = System.nanoTime();
+        try {
+            ConfigurationSnapshot compiled = ConfigurationSnapshot.open(pathToConfiguration, charset(encoding), snapshot);
+            if (compiled != null) {
+                return new ObservableConfiguration(pathToConfiguration, autoSave, encoding, compiled)
+                        .opened(snapshot, start);
+            }
+        } catch (IOException e) {
+            warnDefault("Schnappschuss "+snapshot+" konnte nicht gelesen werden: "+e.getMessage());
+        }
+        ObservableConfiguration configuration = mapped(pathToConfiguration, autoSave, encoding);
+        try {
+            ConfigurationSnapshot.compile(pathToConfiguration, charset(encoding), snapshot);
+        } catch (IOException e) {
+            configuration.warn("Schnappschuss "+snapshot+" konnte nicht erstellt werden: "+e.getMessage());
+        }
+        return configuration;
     }
 
     /**
@@ -71,26 +358,8 @@ public class ObservableConfiguration {
      * @return Eine Referenz auf einen observierbaren Wert aus der Properties Datei, oder auf den Standartwert.
      */
     public SimpleStringProperty getStringProperty(@NonNull final String keyWord, @NonNull String defaultValue){
-        SimpleStringProperty result;
-        if(MAP.get(keyWord) == null){
-            if(PROPERTIES_CONFIGURATION.getProperty(keyWord) != null){
-                result = new SimpleStringProperty((String) PROPERTIES_CONFIGURATION.getProperty(keyWord));
-                if (printInfosProperty.getValue())
-                    System.out.println("Schlüssel ist nicht in der Map, füge "+keyWord+" hinzu...");
-            }else{
-                result = new SimpleStringProperty(defaultValue);
-                if (printInfosProperty.getValue()) {
-                    System.out.println("Schlüssel ist nicht in der Map und der Schlüssel existiert nicht oder hat keinen Wert...");
-                    System.out.println("Füge temporär einen Standartwert für " + keyWord + " ein...");
-                }
-            }
-            MAP.put(keyWord, result);
-        }else{
-            result = (SimpleStringProperty) MAP.get(keyWord);
-            if (printInfosProperty.getValue())
-                System.out.println("Wert für "+keyWord+" gefunden...");
-        }
-        return result;
+        count(keyWord);
+        return fx().getStringProperty(keyWord, defaultValue);
     }
 
     /**
@@ -102,26 +371,8 @@ public class ObservableConfiguration {
      * @return Eine Referenz auf einen observierbaren Wert aus der Properties Datei, oder auf den Standartwert.
      */
     public SimpleIntegerProperty getIntegerProperty(@NonNull final String keyWord, @NonNull Integer defaultValue){
-        SimpleIntegerProperty result;
-        if(MAP.get(keyWord) == null){
-            if(PROPERTIES_CONFIGURATION.getProperty(keyWord) != null){
-                result = new SimpleIntegerProperty(Integer.parseInt((String) PROPERTIES_CONFIGURATION.getProperty(keyWord)));
-                if (printInfosProperty.getValue())
-                    System.out.println("Schlüssel ist nicht in der Map, füge "+keyWord+" hinzu...");
-            }else{
-                result = new SimpleIntegerProperty(defaultValue);
-                if (printInfosProperty.getValue()) {
-                    System.out.println("Schlüssel ist nicht in der Map und der Schlüssel existiert nicht oder hat keinen Wert...");
-                    System.out.println("Füge temporär einen Standartwert für " + keyWord + " ein...");
-                }
-            }
-            MAP.put(keyWord, result);
-        }else{
-            result = (SimpleIntegerProperty) MAP.get(keyWord);
-            if (printInfosProperty.getValue())
-                System.out.println("Wert für "+keyWord+" gefunden...");
-        }
-        return result;
+        count(keyWord);
+        return fx().getIntegerProperty(keyWord, defaultValue);
     }
 
     /**
@@ -133,26 +384,8 @@ public class ObservableConfiguration {
      * @return Eine Referenz auf einen observierbaren Wert aus der Properties Datei, oder auf den Standartwert.
      */
     public SimpleDoubleProperty getDoubleProperty(@NonNull final String keyWord, @NonNull Double defaultValue){
-        SimpleDoubleProperty result;
-        if(MAP.get(keyWord) == null){
-            if(PROPERTIES_CONFIGURATION.getProperty(keyWord) != null){
-                result = new SimpleDoubleProperty(Double.parseDouble((String) PROPERTIES_CONFIGURATION.getProperty(keyWord)));
-                if (printInfosProperty.getValue())
-                    System.out.println("Schlüssel ist nicht in der Map, füge "+keyWord+" hinzu...");
-            }else{
-                result = new SimpleDoubleProperty(defaultValue);
-                if (printInfosProperty.getValue()) {
-                    System.out.println("Schlüssel ist nicht in der Map und der Schlüssel existiert nicht oder hat keinen Wert...");
-                    System.out.println("Füge temporär einen Standartwert für " + keyWord + " ein...");
-                }
-            }
-            MAP.put(keyWord, result);
-        }else{
-            result = (SimpleDoubleProperty) MAP.get(keyWord);
-            if (printInfosProperty.getValue())
-                System.out.println("Wert für "+keyWord+" gefunden...");
-        }
-        return result;
+        count(keyWord);
+        return fx().getDoubleProperty(keyWord, defaultValue);
     }
 
     /**
@@ -164,26 +397,83 @@ public class ObservableConfiguration {
      * @return Eine Referenz auf einen observierbaren Wert aus der Properties Datei, oder auf den Standartwert.
      */
     public SimpleBooleanProperty getBooleanProperty(@NonNull final String keyWord, @NonNull boolean defaultValue){
-        SimpleBooleanProperty result;
-        if(MAP.get(keyWord) == null){
-            if(PROPERTIES_CONFIGURATION.getProperty(keyWord) != null){
-                result = new SimpleBooleanProperty(Boolean.parseBoolean((String) PROPERTIES_CONFIGURATION.getProperty(keyWord)));
-                if (printInfosProperty.getValue())
-                    System.out.println("Schlüssel ist nicht in der Map, füge "+keyWord+" hinzu...");
-            }else{
-                result = new SimpleBooleanProperty(defaultValue);
-                if (printInfosProperty.getValue()) {
-                    System.out.println("Schlüssel ist nicht in der Map und der Schlüssel existiert nicht oder hat keinen Wert...");
-                    System.out.println("Füge temporär einen Standartwert für " + keyWord + " ein...");
-                }
-            }
-            MAP.put(keyWord, result);
-        }else{
-            result = (SimpleBooleanProperty) MAP.get(keyWord);
-            if (printInfosProperty.getValue())
-                System.out.println("Wert für "+keyWord+" gefunden...");
+        count(keyWord);
+        return fx().getBooleanProperty(keyWord, defaultValue);
+    }
+
+    /**
+     * Liefert zu einem übergebenen Schlüssel einen observierbaren Wert ohne JavaFX zurück. Verhält sich ansonsten
+     * wie {@link #getStringProperty(String, String)}.
+     * @param keyWord Der Schlüssel, zu dem ein observierbarer Wert gesucht werden soll.
+     * @param defaultValue Ein Wert der genutzt wird, wenn in der Konfigurierungsdatei kein passender Wert oder Schlüssel vorhanden ist.
+     * @return Eine Referenz auf einen observierbaren Wert aus der Properties Datei, oder auf den Standartwert.
+     */
+    public LiteStringProperty getLiteStringProperty(@NonNull final String keyWord, @NonNull String defaultValue){
+        count(keyWord);
+        LiteProperty<?> cached = LITE_MAP.get(keyWord);
+        if(cached != null){
+            return (LiteStringProperty) cached;
         }
-        return result;
+        ConfigurationValue value = lookup(keyWord);
+        return (LiteStringProperty) LITE_MAP.computeIfAbsent(keyWord,
+                key -> bindToStore(key, new LiteStringProperty(value.isPresent() ? value.text() : defaultValue)));
+    }
+
+    /**
+     * Liefert zu einem übergebenen Schlüssel einen observierbaren Wert ohne JavaFX zurück. Verhält sich ansonsten
+     * wie {@link #getIntegerProperty(String, Integer)}.
+     * @param keyWord Der Schlüssel, zu dem ein observierbarer Wert gesucht werden soll.
+     * @param defaultValue Ein Wert der genutzt wird, wenn in der Konfigurierungsdatei kein passender Wert oder Schlüssel vorhanden ist.
+     * @return Eine Referenz auf einen observierbaren Wert aus der Properties Datei, oder auf den Standartwert.
+     */
+    public LiteIntegerProperty getLiteIntegerProperty(@NonNull final String keyWord, final int defaultValue){
+        count(keyWord);
+        LiteProperty<?> cached = LITE_MAP.get(keyWord);
+        if(cached != null){
+            return (LiteIntegerProperty) cached;
+        }
+        ConfigurationValue value = lookup(keyWord);
+        return (LiteIntegerProperty) LITE_MAP.computeIfAbsent(keyWord,
+                key -> bindToStore(key, new LiteIntegerProperty(
+                        value.isPresent() ? value.intValue(key) : defaultValue)));
+    }
+
+    /**
+     * Liefert zu einem übergebenen Schlüssel einen observierbaren Wert ohne JavaFX zurück. Verhält sich ansonsten
+     * wie {@link #getDoubleProperty(String, Double)}.
+     * @param keyWord Der Schlüssel, zu dem ein observierbarer Wert gesucht werden soll.
+     * @param defaultValue Ein Wert der genutzt wird, wenn in der Konfigurierungsdatei kein passender Wert oder Schlüssel vorhanden ist.
+     * @return Eine Referenz auf einen observierbaren Wert aus der Properties Datei, oder auf den Standartwert.
+     */
+    public LiteDoubleProperty getLiteDoubleProperty(@NonNull final String keyWord, final double defaultValue){
+        count(keyWord);
+        LiteProperty<?> cached = LITE_MAP.get(keyWord);
+        if(cached != null){
+            return (LiteDoubleProperty) cached;
+        }
+        ConfigurationValue value = lookup(keyWord);
+        return (LiteDoubleProperty) LITE_MAP.computeIfAbsent(keyWord,
+                key -> bindToStore(key, new LiteDoubleProperty(
+                        value.isPresent() ? value.doubleValue(key) : defaultValue)));
+    }
+
+    /**
+     * Liefert zu einem übergebenen Schlüssel einen observierbaren Wert ohne JavaFX zurück. Verhält sich ansonsten
+     * wie {@link #getBooleanProperty(String, boolean)}.
+     * @param keyWord Der Schlüssel, zu dem ein observierbarer Wert gesucht werden soll.
+     * @param defaultValue Ein Wert der genutzt wird, wenn in der Konfigurierungsdatei kein passender Wert oder Schlüssel vorhanden ist.
+     * @return Eine Referenz auf einen observierbaren Wert aus der Properties Datei, oder auf den Standartwert.
+     */
+    public LiteBooleanProperty getLiteBooleanProperty(@NonNull final String keyWord, final boolean defaultValue){
+        count(keyWord);
+        LiteProperty<?> cached = LITE_MAP.get(keyWord);
+        if(cached != null){
+            return (LiteBooleanProperty) cached;
+        }
+        ConfigurationValue value = lookup(keyWord);
+        return (LiteBooleanProperty) LITE_MAP.computeIfAbsent(keyWord,
+                key -> bindToStore(key, new LiteBooleanProperty(
+                        value.isPresent() ? value.booleanValue(key) : defaultValue)));
     }
 
     /**
@@ -194,15 +484,17 @@ public class ObservableConfiguration {
      * @return
      */
     public String getString(@NonNull final String keyWord, @NonNull String defaultValue) {
+        count(keyWord);
         String result;
-        if(PROPERTIES_CONFIGURATION.getString(keyWord) != null) {
-            result = PROPERTIES_CONFIGURATION.getString(keyWord);
-            if (printInfosProperty.getValue())
-                System.out.println("Wert für " + keyWord + " gefunden...");
+        ConfigurationValue value = lookup(keyWord);
+        if(value.isPresent()) {
+            result = value.text();
+            if (traces())
+                trace("Wert für " + keyWord + " gefunden...");
         }else {
             result = defaultValue;
-            if (printInfosProperty.getValue())
-                System.out.println("Kein Wert für "+keyWord+" gefunden...");
+            if (traces())
+                trace("Kein Wert für "+keyWord+" gefunden...");
         }
         return result;
     }
@@ -215,15 +507,17 @@ public class ObservableConfiguration {
      * @return
      */
     public Integer getInteger(@NonNull final String keyWord, @NonNull Integer defaultValue) {
+        count(keyWord);
         Integer result;
-        if(PROPERTIES_CONFIGURATION.getString(keyWord) != null) {
-            result = PROPERTIES_CONFIGURATION.getInt(keyWord);
-            if (printInfosProperty.getValue())
-                System.out.println("Wert für " + keyWord + " gefunden...");
+        ConfigurationValue value = lookup(keyWord);
+        if(value.isPresent()) {
+            result = value.intValue(keyWord);
+            if (traces())
+                trace("Wert für " + keyWord + " gefunden...");
         }else {
             result = defaultValue;
-            if (printInfosProperty.getValue())
-                System.out.println("Kein Wert für "+keyWord+" gefunden...");
+            if (traces())
+                trace("Kein Wert für "+keyWord+" gefunden...");
         }
         return result;
     }
@@ -236,15 +530,17 @@ public class ObservableConfiguration {
      * @return
      */
     public Double getDouble(@NonNull final String keyWord, @NonNull Double defaultValue) {
+        count(keyWord);
         Double result;
-        if(PROPERTIES_CONFIGURATION.getString(keyWord) != null) {
-            result = PROPERTIES_CONFIGURATION.getDouble(keyWord);
-            if (printInfosProperty.getValue())
-                System.out.println("Wert für " + keyWord + " gefunden...");
+        ConfigurationValue value = lookup(keyWord);
+        if(value.isPresent()) {
+            result = value.doubleValue(keyWord);
+            if (traces())
+                trace("Wert für " + keyWord + " gefunden...");
         }else {
             result = defaultValue;
-            if (printInfosProperty.getValue())
-                System.out.println("Kein Wert für "+keyWord+" gefunden...");
+            if (traces())
+                trace("Kein Wert für "+keyWord+" gefunden...");
         }
         return result;
     }
@@ -257,93 +553,225 @@ public class ObservableConfiguration {
      * @return
      */
     public Boolean getBoolean(@NonNull final String keyWord, @NonNull Boolean defaultValue) {
+        count(keyWord);
         Boolean result;
-        if(PROPERTIES_CONFIGURATION.getString(keyWord) != null) {
-            result = PROPERTIES_CONFIGURATION.getBoolean(keyWord);
-            if (printInfosProperty.getValue())
-                System.out.println("Wert für " + keyWord + " gefunden...");
+        ConfigurationValue value = lookup(keyWord);
+        if(value.isPresent()) {
+            result = value.booleanValue(keyWord);
+            if (traces())
+                trace("Wert für " + keyWord + " gefunden...");
         }else {
             result = defaultValue;
-            if (printInfosProperty.getValue())
-                System.out.println("Kein Wert für "+keyWord+" gefunden...");
+            if (traces())
+                trace("Kein Wert für "+keyWord+" gefunden...");
         }
         return result;
     }
 
     /**
-     * Setzt einen Wert für ein übergebenes Schlüsselwort.
+     * Wie {@link #getInteger(String, Integer)}, liefert den Wert aber ohne Verpackung in ein Objekt. Der Wert wird nur beim
+     * ersten Zugriff und nach jeder Änderung ausgewertet.
+     * @param keyWord Der Schlüssel, zu dem ein Wert geladen werden soll.
+     * @param defaultValue Der Ausweichwert, falls in der Properties Datei nichts gefunden wurde.
+     * @return Der Wert oder der Ausweichwert.
+     */
+    public int getIntValue(@NonNull final String keyWord, final int defaultValue) {
+        count(keyWord);
+        ConfigurationValue value = lookup(keyWord);
+        return value.isPresent() ? value.intValue(keyWord) : defaultValue;
+    }
+
+    /**
+     * Wie {@link #getDouble(String, Double)}, liefert den Wert aber ohne Verpackung in ein Objekt. Der Wert wird nur beim
+     * ersten Zugriff und nach jeder Änderung ausgewertet.
+     * @param keyWord Der Schlüssel, zu dem ein Wert geladen werden soll.
+     * @param defaultValue Der Ausweichwert, falls in der Properties Datei nichts gefunden wurde.
+     * @return Der Wert oder der Ausweichwert.
+     */
+    public double getDoubleValue(@NonNull final String keyWord, final double defaultValue) {
+        count(keyWord);
+        ConfigurationValue value = lookup(keyWord);
+        return value.isPresent() ? value.doubleValue(keyWord) : defaultValue;
+    }
+
+    /**
+     * Wie {@link #getBoolean(String, Boolean)}, liefert den Wert aber ohne Verpackung in ein Objekt. Der Wert wird nur beim
+     * ersten Zugriff und nach jeder Änderung ausgewertet.
+     * @param keyWord Der Schlüssel, zu dem ein Wert geladen werden soll.
+     * @param defaultValue Der Ausweichwert, falls in der Properties Datei nichts gefunden wurde.
+     * @return Der Wert oder der Ausweichwert.
+     */
+    public boolean getBooleanValue(@NonNull final String keyWord, final boolean defaultValue) {
+        count(keyWord);
+        ConfigurationValue value = lookup(keyWord);
+        return value.isPresent() ? value.booleanValue(keyWord) : defaultValue;
+    }
+
+    /**
+     * Setzt einen Wert für ein übergebenes Schlüsselwort. Bereits ausgegebene Properties des Schlüssels bekommen den
+     * neuen Wert, es wird aber keine neue erzeugt. Benötigt daher kein JavaFX.
+     * @param keyWord Der Schlüssel, zu dem ein Wert zugewiesen werden soll.
+     * @param value Der Wert, der dem Schlüssel zugewiesen werden soll.
+     */
+    public void setString(@NonNull final String keyWord, @NonNull final String value) {
+        set(keyWord, value);
+    }
+
+    /**
+     * Wie {@link #setString(String, String)}, für ganze Zahlen.
+     * @param keyWord Der Schlüssel, zu dem ein Wert zugewiesen werden soll.
+     * @param value Der Wert, der dem Schlüssel zugewiesen werden soll.
+     */
+    public void setInteger(@NonNull final String keyWord, final int value) {
+        set(keyWord, value);
+    }
+
+    /**
+     * Wie {@link #setString(String, String)}, für Gleitkommazahlen.
+     * @param keyWord Der Schlüssel, zu dem ein Wert zugewiesen werden soll.
+     * @param value Der Wert, der dem Schlüssel zugewiesen werden soll.
+     */
+    public void setDouble(@NonNull final String keyWord, final double value) {
+        set(keyWord, value);
+    }
+
+    /**
+     * Wie {@link #setString(String, String)}, für Wahrheitswerte.
+     * @param keyWord Der Schlüssel, zu dem ein Wert zugewiesen werden soll.
+     * @param value Der Wert, der dem Schlüssel zugewiesen werden soll.
+     */
+    public void setBoolean(@NonNull final String keyWord, final boolean value) {
+        set(keyWord, value);
+    }
+
+    /**
+     * Setzt einen Wert für ein übergebenes Schlüsselwort. Wurde für den Schlüssel bereits eine Property ausgegeben,
+     * bekommt diese den neuen Wert.
      * @param keyWord Der Schlüssel, zu dem ein observierbarer Wert zugewiesen werden soll.
      * @param value Der Wert, der dem Schlüssel zugewiesen werden soll.
+     * @return Die JavaFX Property des Schlüssels. Ohne JavaFX sollte {@link #setString(String, String)} genutzt werden.
      */
     public SimpleStringProperty setStringProperty(@NonNull final String keyWord, @NonNull final String value){
-        SimpleStringProperty property;
-        if( PROPERTIES_CONFIGURATION.getProperty(keyWord) == null){
-            property = new SimpleStringProperty(value);
-            MAP.put(keyWord, property);
-        }else{
-            property = getStringProperty(keyWord, value);
-        }
-        PROPERTIES_CONFIGURATION.setProperty(keyWord, value);
-        if (printInfosProperty.getValue())
-            System.out.println("Setze neuen Wert für "+keyWord+"...");
-        return property;
+        setString(keyWord, value);
+        return fx().getStringProperty(keyWord, value);
     }
 
     /**
-     * Setzt einen Wert für ein übergebenes Schlüsselwort.
+     * Setzt einen Wert für ein übergebenes Schlüsselwort. Wurde für den Schlüssel bereits eine Property ausgegeben,
+     * bekommt diese den neuen Wert.
      * @param keyWord Der Schlüssel, zu dem ein observierbarer Wert zugewiesen werden soll.
      * @param value Der Wert, der dem Schlüssel zugewiesen werden soll.
+     * @return Die JavaFX Property des Schlüssels. Ohne JavaFX sollte {@link #setInteger(String, int)} genutzt werden.
      */
     public SimpleIntegerProperty setIntegerProperty(@NonNull final String keyWord, @NonNull final Integer value){
-        SimpleIntegerProperty property;
-        if( PROPERTIES_CONFIGURATION.getProperty(keyWord) == null){
-            property = new SimpleIntegerProperty(value);
-            MAP.put(keyWord, property);
-        }else{
-            property = getIntegerProperty(keyWord, value);
-        }
-        PROPERTIES_CONFIGURATION.setProperty(keyWord, value);
-        if (printInfosProperty.getValue())
-            System.out.println("Setze neuen Wert für "+keyWord+"...");
-        return property;
+        setInteger(keyWord, value);
+        return fx().getIntegerProperty(keyWord, value);
     }
 
     /**
-     * Setzt einen Wert für ein übergebenes Schlüsselwort.
+     * Setzt einen Wert für ein übergebenes Schlüsselwort. Wurde für den Schlüssel bereits eine Property ausgegeben,
+     * bekommt diese den neuen Wert.
      * @param keyWord Der Schlüssel, zu dem ein observierbarer Wert zugewiesen werden soll.
      * @param value Der Wert, der dem Schlüssel zugewiesen werden soll.
+     * @return Die JavaFX Property des Schlüssels. Ohne JavaFX sollte {@link #setDouble(String, double)} genutzt werden.
      */
     public SimpleDoubleProperty setDoubleProperty(@NonNull final String keyWord, @NonNull final Double value){
-        SimpleDoubleProperty property;
-        if( PROPERTIES_CONFIGURATION.getProperty(keyWord) == null){
-            property = new SimpleDoubleProperty(value);
-            MAP.put(keyWord, property);
-        }else{
-            property = getDoubleProperty(keyWord, value);
-        }
-        PROPERTIES_CONFIGURATION.setProperty(keyWord, value);
-        if (printInfosProperty.getValue())
-            System.out.println("Setze neuen Wert für "+keyWord+"...");
-        return property;
+        setDouble(keyWord, value);
+        return fx().getDoubleProperty(keyWord, value);
     }
 
     /**
-     * Setzt einen Wert für ein übergebenes Schlüsselwort.
+     * Setzt einen Wert für ein übergebenes Schlüsselwort. Wurde für den Schlüssel bereits eine Property ausgegeben,
+     * bekommt diese den neuen Wert.
      * @param keyWord Der Schlüssel, zu dem ein observierbarer Wert zugewiesen werden soll.
      * @param value Der Wert, der dem Schlüssel zugewiesen werden soll.
+     * @return Die JavaFX Property des Schlüssels. Ohne JavaFX sollte {@link #setBoolean(String, boolean)} genutzt
+     * werden.
      */
     public SimpleBooleanProperty setBooleanProperty(@NonNull final String keyWord, @NonNull final boolean value){
-        SimpleBooleanProperty property;
-        if( PROPERTIES_CONFIGURATION.getProperty(keyWord) == null){
-            property = new SimpleBooleanProperty(value);
-            MAP.put(keyWord, property);
-        }else{
-            property = getBooleanProperty(keyWord, value);
+        setBoolean(keyWord, value);
+        return fx().getBooleanProperty(keyWord, value);
+    }
+
+    /**
+     * @return Entscheidet, ob Informationen über Zugriffe ausgegeben werden.
+     */
+    public SimpleBooleanProperty getPrintInfosProperty() {
+        if (printInfosProperty == null) {
+            printInfosProperty = FXBridge.bidirectional(printInfos);
         }
-        PROPERTIES_CONFIGURATION.setProperty(keyWord, value);
-        if (printInfosProperty.getValue())
-            System.out.println("Setze neuen Wert für "+keyWord+"...");
-        return property;
+        return printInfosProperty;
+    }
+
+    /**
+     * @return Entscheidet, ob Änderungen an der Properties Datei permanent sind, oder nicht.
+     */
+    public SimpleBooleanProperty getAutoSaveProperty() {
+        if (autoSaveProperty == null) {
+            autoSaveProperty = FXBridge.bidirectional(autoSave);
+        }
+        return autoSaveProperty;
+    }
+
+    /**
+     * Entscheidet, ob Informationen über Zugriffe ausgegeben werden. Benötigt im Gegensatz zu
+     * {@link #getPrintInfosProperty()} kein JavaFX.
+     * @param printInfos {@code true}, wenn Informationen ausgegeben werden sollen.
+     */
+    public void setPrintInfos(final boolean printInfos) {
+        this.printInfos.set(printInfos);
+    }
+
+    /**
+     * Legt fest, wohin die Konfiguration Meldungen schreibt und wie ausführlich. Meldungen oberhalb der Stufe werden
+     * nicht erzeugt und kosten nichts. {@link #setPrintInfos(boolean)} schaltet zwischen
+     * {@link DiagnosticsLevel#TRACE} und {@link DiagnosticsLevel#WARN} um; umgekehrt ist {@link #getPrintInfosProperty()}
+     * genau dann gesetzt, wenn hier {@link DiagnosticsLevel#TRACE} gewählt wurde.
+     * @param diagnostics Die Ausgabe, z.B. ein Adapter auf das Logging der Anwendung.
+     * @param level Die ausführlichste Stufe, die ausgegeben werden soll.
+     */
+    public void setDiagnostics(@NonNull final ConfigurationDiagnostics diagnostics,
+                               @NonNull final DiagnosticsLevel level) {
+        this.diagnostics = diagnostics;
+        this.diagnosticsLevel = level;
+        printInfos.set(level == DiagnosticsLevel.TRACE);
+    }
+
+    /**
+     * Legt Ausgabe und Stufe für alle danach erzeugten Konfigurationen fest, auch für die Meldungen beim Laden.
+     * Standard ist {@link ConfigurationDiagnostics#STDOUT} mit {@link DiagnosticsLevel#WARN}.
+     * @param diagnostics Die Ausgabe.
+     * @param level Die ausführlichste Stufe, die ausgegeben werden soll.
+     */
+    public static void setDefaultDiagnostics(@NonNull final ConfigurationDiagnostics diagnostics,
+                                             @NonNull final DiagnosticsLevel level) {
+        defaultDiagnostics = diagnostics;
+        defaultLevel = level;
+    }
+
+    /**
+     * Schaltet das Zählen der Zugriffe je Schlüssel ein oder aus. Gezählt werden alle {@code get*} Aufrufe mit einem
+     * Schlüssel. Beim Einschalten beginnt die Zählung von vorn, beim Ausschalten wird sie verworfen.
+     * @param enabled {@code true}, wenn gezählt werden soll.
+     */
+    public void setAccessCounting(final boolean enabled) {
+        accessCounts = enabled ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * Liefert die am häufigsten abgefragten Schlüssel, siehe {@link #setAccessCounting(boolean)}.
+     * @param limit Wie viele Schlüssel höchstens geliefert werden.
+     * @return Schlüssel und Anzahl der Zugriffe, absteigend sortiert. Leer, wenn nicht gezählt wird.
+     */
+    public List<Map.Entry<String, Long>> getHotKeys(final int limit) {
+        ConcurrentHashMap<String, LongAdder> counts = accessCounts;
+        List<Map.Entry<String, Long>> hotKeys = new ArrayList<>();
+        if (counts == null) {
+            return hotKeys;
+        }
+        counts.forEach((key, count) -> hotKeys.add(new AbstractMap.SimpleImmutableEntry<>(key, count.sum())));
+        hotKeys.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return hotKeys.size() > limit ? new ArrayList<>(hotKeys.subList(0, Math.max(limit, 0))) : hotKeys;
     }
 
     /**
@@ -351,9 +779,9 @@ public class ObservableConfiguration {
      * @param autoSave {@code true}, wenn Änderungen gespeichert werden sollen.
      */
     public void setAutoSaveProperty(final boolean autoSave){
-        autoSaveProperty.setValue(autoSave);
-        if (printInfosProperty.getValue())
-            System.out.println("Speicherfunktion der Konfiguration wird auf "+Boolean.toString(autoSave)+" gesetzt...");
+        this.autoSave.set(autoSave);
+        if (informs())
+            info("Speicherfunktion der Konfiguration wird auf "+Boolean.toString(autoSave)+" gesetzt...");
     }
 
     /**
@@ -363,4 +791,968 @@ public class ObservableConfiguration {
     public void setEncoding(final String encoding) {
         PROPERTIES_CONFIGURATION.setEncoding(encoding);
     }
+
+    /**
+     * Übersetzt die Properties Datei dieser Konfiguration in einen binären Schnappschuss, der mit
+     * {@link #fromSnapshot(File, File, boolean, String)} schneller geladen werden kann. Ausstehende Änderungen
+     * werden vorher gespeichert; übersetzt wird der Stand der Datei.
+     * @param snapshot Pfad zum Schnappschuss.
+     * @throws ConfigurationException Wenn der Schnappschuss nicht erstellt werden kann.
+     */
+    public void compileSnapshot(@NonNull final File snapshot) throws ConfigurationException {
+        if (CONFIG == null) {
+            throw new IllegalStateException("Die Konfiguration wurde nicht aus einer Datei geladen!");
+        }
+        flush();
+        long start = System.nanoTime();
+        try {
+            ConfigurationSnapshot.compile(CONFIG, charset(PROPERTIES_CONFIGURATION.getEncoding()), snapshot);
+        } catch (IOException e) {
+            throw new ConfigurationException("Der Schnappschuss "+snapshot+" konnte nicht erstellt werden!", e);
+        }
+        if (informs())
+            diagnostics.timed("Schnappschuss "+snapshot+" erstellt", System.nanoTime() - start);
+    }
+
+    /**
+     * Liefert alle Schlüssel, die mit einem Präfix beginnen, z.B. {@code "db.pool."}. Die Abfrage kostet nur den
+     * Aufwand für das Präfix und die Treffer. Die Menge ist nicht veränderbar, folgt aber späteren Änderungen.
+     * @param prefix Das Präfix. Ein leeres Präfix liefert alle Schlüssel.
+     * @return Die passenden Schlüssel, sortiert.
+     */
+    public SortedSet<String> getKeys(@NonNull final String prefix) {
+        NavigableSet<String> index = keyIndex();
+        return Collections.unmodifiableSortedSet(prefix.isEmpty() ? index
+                : index.subSet(prefix, true, prefix + Character.MAX_VALUE, false));
+    }
+
+    /**
+     * Liefert eine Sicht auf alle Schlüssel unterhalb eines Präfixes. Die Sicht hält keine eigenen Werte und zeigt
+     * daher immer den aktuellen Stand.
+     * @param prefix Das Präfix, z.B. {@code "db.pool."}.
+     * @return Die Sicht.
+     */
+    public SubConfiguration subset(@NonNull final String prefix) {
+        return new SubConfiguration(this, prefix);
+    }
+
+    /**
+     * Legt fest, wie die ausgegebenen Properties gehalten werden. Standard ist {@link RegistryMode#STRONG} ohne
+     * Begrenzung. Bei vielen dynamischen Schlüsseln, z.B. je Mandant oder Nutzer, verhindert
+     * {@link RegistryMode#WEAK}, dass nicht mehr genutzte Properties den Speicher füllen. Solange jemand eine Property
+     * hält, wird weiterhin genau diese Instanz geliefert und aktualisiert.
+     * <p>
+     * Wird eine Höchstzahl angegeben, werden darüber hinaus selten genutzte Properties verdrängt. Eine verdrängte
+     * Property, die noch gehalten wird, erhält keine Aktualisierungen mehr; eine erneute Anfrage liefert eine neue
+     * Instanz.
+     * @param mode Wie fest Properties gehalten werden.
+     * @param maxSize Höchstzahl der Properties je Art (JavaFX bzw. ohne JavaFX), {@code 0} für unbegrenzt.
+     */
+    public void setPropertyRegistryMode(@NonNull final RegistryMode mode, final int maxSize) {
+        synchronized (LITE_MAP) {
+            LITE_MAP.configure(mode, maxSize);
+            registryMode = mode;
+            registryMaxSize = maxSize;
+            FXProperties current = fx;
+            if (current != null) {
+                current.getRegistry().configure(mode, maxSize);
+            }
+        }
+        if (informs())
+            info("Properties werden nun im Modus "+mode+" gehalten...");
+    }
+
+    /**
+     * @return Die Registry der JavaFX Properties, z.B. für Treffer- und Verdrängungszähler.
+     */
+    public PropertyRegistry<Property<?>> getPropertyRegistry() {
+        return fx().getRegistry();
+    }
+
+    /**
+     * @return Die Registry der Properties ohne JavaFX, z.B. für Treffer- und Verdrängungszähler.
+     */
+    public PropertyRegistry<LiteProperty<?>> getLitePropertyRegistry() {
+        return LITE_MAP;
+    }
+
+    /**
+     * Registriert einen Listener, der nach jeder Änderung über die betroffenen Schlüssel benachrichtigt wird.
+     * @param listener Der Listener.
+     */
+    public void addConfigurationListener(@NonNull final ConfigurationListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Entfernt einen mit {@link #addConfigurationListener(ConfigurationListener)} registrierten Listener.
+     * @param listener Der Listener.
+     */
+    public void removeConfigurationListener(@NonNull final ConfigurationListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Erzeugt einen Strom aller Änderungen für Nutzer ohne JavaFX. Die Änderungen werden auf dem übergebenen
+     * {@link Executor} ausgeliefert, nicht im Thread, der den Wert gesetzt hat.
+     * @param executor Führt die Auslieferung aus.
+     * @return Der Publisher. Mit {@link ConfigurationPublisher#close()} wird er wieder von der Konfiguration gelöst.
+     */
+    public ConfigurationPublisher publishChanges(@NonNull final Executor executor) {
+        return new ConfigurationPublisher(this, executor);
+    }
+
+    /**
+     * Beginnt eine Transaktion, in der mehrere Werte gesammelt und mit {@link ConfigurationTransaction#commit()}
+     * gemeinsam übernommen werden. Die Konfiguration wird dabei nur einmal gespeichert und die Listener werden nur
+     * einmal benachrichtigt.
+     * @return Die neue Transaktion.
+     */
+    public ConfigurationTransaction beginTransaction() {
+        return new ConfigurationTransaction(this);
+    }
+
+    /**
+     * Führt mehrere Lesezugriffe aus, ohne dass eine Transaktion oder ein {@link #reload()} dazwischen Werte
+     * ändert. Nur hier sehen mehrere {@code get*} Aufrufe garantiert denselben Stand; außerhalb kann zwischen zwei
+     * Aufrufen eine Übernahme stattfinden. Einzelne Setter werden nicht ausgeschlossen. Innerhalb der Aktion
+     * darf keine Transaktion übernommen werden.
+     * @param action Die Lesezugriffe.
+     * @param <T> Typ des Ergebnisses.
+     * @return Das Ergebnis der Aktion.
+     */
+    public <T> T readAtomically(@NonNull final Supplier<T> action) {
+        COMMIT_LOCK.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            COMMIT_LOCK.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aktiviert das automatische Neuladen. Ändert sich die Properties Datei von außen, wird sie nach der
+     * Entprellzeit mit {@link #reload()} neu eingelesen. Die Properties werden im Thread des Beobachters aktualisiert;
+     * für JavaFX Oberflächen sollte {@link #enableHotReload(long, Executor)} mit {@code Platform::runLater}
+     * genutzt werden.
+     * @param debounceMillis Wie lange nach der letzten Änderung gewartet wird, bevor neu geladen wird.
+     * @throws IOException Wenn die Datei nicht beobachtet werden kann.
+     */
+    public void enableHotReload(final long debounceMillis) throws IOException {
+        enableHotReload(debounceMillis, Runnable::run);
+    }
+
+    /**
+     * Aktiviert das automatische Neuladen. Ändert sich die Properties Datei von außen, wird sie nach der
+     * Entprellzeit mit {@link #reload()} neu eingelesen. Eine in den Speicher abgebildete Datei wird vorher vollständig
+     * übernommen, da ein Zugriff auf sie nach einem Kürzen von außen die JVM abstürzen lassen kann.
+     * @param debounceMillis Wie lange nach der letzten Änderung gewartet wird, bevor neu geladen wird.
+     * @param notifier Führt die Aktualisierung der ausgegebenen Properties aus.
+     * @throws IOException Wenn die Datei nicht beobachtet werden kann.
+     */
+    public synchronized void enableHotReload(final long debounceMillis, @NonNull final Executor notifier) throws IOException {
+        if (CONFIG == null) {
+            throw new IllegalStateException("Die Konfiguration wurde nicht aus einer Datei geladen!");
+        }
+        disableHotReload();
+        materialize();
+        reloadNotifier = notifier;
+        watcher = new ConfigurationWatcher(CONFIG.toPath(), debounceMillis, () -> {
+            try {
+                reload();
+            } catch (ConfigurationException e) {
+                warn("Änderungen an "+CONFIG+" konnten nicht geladen werden: "+e.getMessage());
+            }
+        }, e -> warn("Änderungen an "+CONFIG+" konnten nicht geladen werden: "+e));
+        if (informs())
+            info("Änderungen an "+CONFIG+" werden automatisch geladen...");
+    }
+
+    /**
+     * Beendet das automatische Neuladen.
+     * @throws IOException Wenn der Beobachter nicht geschlossen werden kann.
+     */
+    public synchronized void disableHotReload() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Liest die Properties Datei neu ein und vergleicht sie mit dem aktuellen Stand. Nur Schlüssel, deren Wert sich
+     * geändert hat, werden übernommen; die dazu bereits ausgegebenen Properties bekommen den neuen Wert. Wurde ein
+     * Schlüssel entfernt, behalten seine Properties den letzten Wert. Beim Übernehmen wird nicht gespeichert.
+     * <p>
+     * Bei verzögertem Speichern behalten Schlüssel, deren Änderung noch nicht gespeichert wurde, ihren Wert; sie
+     * werden beim nächsten Speichern in die Datei geschrieben.
+     * @throws ConfigurationException Wenn die Datei nicht gelesen werden kann.
+     */
+    public void reload() throws ConfigurationException {
+        if (CONFIG == null) {
+            throw new IllegalStateException("Die Konfiguration wurde nicht aus einer Datei geladen!");
+        }
+        long start = System.nanoTime();
+        WriteBehind pending = writeBehind;
+        Map<String, ConfigurationValue> changes;
+        if (pending != null) {
+            // ein laufendes Speichern hält den Monitor, danach steht jeder nicht mehr vorgemerkte Schlüssel in der Datei
+            synchronized (pending) {
+                changes = merge(pending);
+            }
+        } else {
+            changes = merge(null);
+        }
+        if (informs())
+            diagnostics.timed("Konfiguration neu geladen, "+changes.size()+" Schlüssel geändert,",
+                    System.nanoTime() - start);
+        if (!changes.isEmpty()) {
+            fireKeysChanged(Collections.unmodifiableSet(changes.keySet()));
+            reloadNotifier.execute(() -> changes.forEach(this::publish));
+        }
+    }
+
+    /**
+     * Liest die Properties Datei neu ein und übernimmt geänderte Werte, siehe {@link #reload()}.
+     * @param pending Das verzögerte Speichern oder {@code null}. Seine vorgemerkten Schlüssel werden übersprungen.
+     * @return Die übernommenen Werte je Schlüssel.
+     * @throws ConfigurationException Wenn die Datei nicht gelesen werden kann.
+     */
+    private Map<String, ConfigurationValue> merge(final WriteBehind pending) throws ConfigurationException {
+        PropertiesConfiguration fresh = new PropertiesConfiguration();
+        fresh.setEncoding(PROPERTIES_CONFIGURATION.getEncoding());
+        fresh.load(CONFIG);
+        Map<String, ConfigurationValue> changes = new HashMap<>();
+        COMMIT_LOCK.writeLock().lock();
+        LOCK.writeLock().lock();
+        committing = true;
+        try {
+            materialize();
+            Set<String> keys = new HashSet<>();
+            PROPERTIES_CONFIGURATION.getKeys().forEachRemaining(keys::add);
+            fresh.getKeys().forEachRemaining(keys::add);
+            boolean saving = PROPERTIES_CONFIGURATION.isAutoSave();
+            PROPERTIES_CONFIGURATION.setAutoSave(false);
+            try {
+                for (String key : keys) {
+                    if (pending != null && pending.isDirty(key)) {
+                        continue;
+                    }
+                    String text = fresh.getString(key);
+                    if (!Objects.equals(PROPERTIES_CONFIGURATION.getString(key), text)) {
+                        ConcurrentSkipListSet<String> index = keyIndex;
+                        if (text == null) {
+                            PROPERTIES_CONFIGURATION.clearProperty(key);
+                            if (index != null) {
+                                index.remove(key);
+                            }
+                        } else {
+                            PROPERTIES_CONFIGURATION.setProperty(key, fresh.getProperty(key));
+                            if (index != null) {
+                                index.add(key);
+                            }
+                        }
+                        ConfigurationValue value = evaluate(key);
+                        VALUES.put(key, value);
+                        invalidateInterpolated(key);
+                        changes.put(key, value);
+                    }
+                }
+            } finally {
+                PROPERTIES_CONFIGURATION.setAutoSave(saving);
+            }
+        } finally {
+            committing = false;
+            LOCK.writeLock().unlock();
+            COMMIT_LOCK.writeLock().unlock();
+        }
+        return changes;
+    }
+
+    /**
+     * Aktiviert verzögertes Speichern. Statt die Properties Datei bei jeder Änderung komplett neu zu schreiben, werden
+     * geänderte Schlüssel gesammelt und in einem Hintergrund-Thread gemeinsam gespeichert, spätestens nach
+     * {@code delayMillis} oder sobald {@code maxDirty} Schlüssel geändert wurden. Beim Beenden der JVM wird ein letztes
+     * Mal gespeichert. Die Datei wird dabei immer vollständig in eine temporäre Datei geschrieben und dann ersetzt.
+     * @param delayMillis Wie lange nach der ersten Änderung höchstens gewartet wird.
+     * @param maxDirty Ab so vielen geänderten Schlüsseln wird sofort gespeichert.
+     * @throws ConfigurationException Wenn ausstehende Änderungen eines vorherigen Aufrufs nicht gespeichert werden können.
+     */
+    public synchronized void enableWriteBehind(final long delayMillis, final int maxDirty) throws ConfigurationException {
+        if (CONFIG == null) {
+            throw new IllegalStateException("Die Konfiguration wurde nicht aus einer Datei geladen!");
+        }
+        disableWriteBehind();
+        LOCK.writeLock().lock();
+        try {
+            PROPERTIES_CONFIGURATION.setAutoSave(false);
+            writeBehind = new WriteBehind(delayMillis, maxDirty, () -> {
+                try {
+                    flush();
+                } catch (ConfigurationException e) {
+                    warn("Verzögertes Speichern fehlgeschlagen: "+e.getMessage());
+                }
+            });
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+        if (informs())
+            info("Änderungen werden verzögert gespeichert...");
+    }
+
+    /**
+     * Beendet verzögertes Speichern. Ausstehende Änderungen werden vorher gespeichert, danach gilt wieder
+     * {@link #getAutoSaveProperty()}.
+     * @throws ConfigurationException Wenn die ausstehenden Änderungen nicht gespeichert werden können.
+     */
+    public synchronized void disableWriteBehind() throws ConfigurationException {
+        WriteBehind current = writeBehind;
+        if (current == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            LOCK.writeLock().lock();
+            try {
+                writeBehind = null;
+                PROPERTIES_CONFIGURATION.setAutoSave(autoSave.get());
+            } finally {
+                LOCK.writeLock().unlock();
+            }
+            current.close();
+        }
+    }
+
+    /**
+     * Speichert alle ausstehenden Änderungen sofort. Ohne verzögertes Speichern gibt es keine ausstehenden
+     * Änderungen und es passiert nichts.
+     * @throws ConfigurationException Wenn die Datei nicht geschrieben werden kann. Die Änderungen bleiben dann
+     * ausstehend.
+     */
+    public void flush() throws ConfigurationException {
+        WriteBehind current = writeBehind;
+        if (current == null) {
+            return;
+        }
+        synchronized (current) {
+            File temp = new File(CONFIG.getAbsoluteFile().getParentFile(), CONFIG.getName() + ".tmp");
+            Set<String> keys = Collections.emptySet();
+            LOCK.readLock().lock();
+            try {
+                keys = current.drain();
+                if (keys.isEmpty()) {
+                    return;
+                }
+                long start = System.nanoTime();
+                String encoding = PROPERTIES_CONFIGURATION.getEncoding();
+                try (FileOutputStream out = new FileOutputStream(temp);
+                     Writer writer = new OutputStreamWriter(out, encoding != null ? encoding : "ISO-8859-1")) {
+                    PROPERTIES_CONFIGURATION.save(writer);
+                    writer.flush();
+                    out.getFD().sync();
+                }
+                Files.move(temp.toPath(), CONFIG.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                if (informs())
+                    diagnostics.timed(keys.size()+" geänderte Schlüssel gespeichert", System.nanoTime() - start);
+            } catch (IOException e) {
+                current.restore(keys);
+                throw new ConfigurationException("Die Konfiguration konnte nicht gespeichert werden!", e);
+            } catch (ConfigurationException e) {
+                current.restore(keys);
+                throw e;
+            } finally {
+                LOCK.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Aktiviert die Rückbindung. Ändert jemand den Wert einer ausgegebenen Property, wird er in die Konfiguration
+     * übernommen, als wäre der passende Setter aufgerufen worden. Schnell aufeinander folgende Änderungen werden
+     * gesammelt und nach {@code windowMillis} in einem Hintergrund-Thread gemeinsam übernommen; gespeichert wird dabei
+     * höchstens einmal. Die übrigen Properties desselben Schlüssels werden in diesem Thread angeglichen, für JavaFX
+     * Oberflächen sollte deshalb {@link #enableBinding(long, Executor)} oder {@link #enableBinding(Executor)} genutzt
+     * werden. Wird ein Schlüssel innerhalb des Zeitfensters über einen Setter gesetzt, gilt der Wert des Setters.
+     * @param windowMillis Wie lange nach der ersten Änderung gesammelt wird.
+     */
+    public void enableBinding(final long windowMillis) {
+        enableBinding(windowMillis, Runnable::run);
+    }
+
+    /**
+     * Aktiviert die Rückbindung wie {@link #enableBinding(long)}. Die übrigen Properties der übernommenen Schlüssel
+     * werden aber über einen {@link Executor} angeglichen, z.B. {@code Platform::runLater}.
+     * @param windowMillis Wie lange nach der ersten Änderung gesammelt wird.
+     * @param notifier Führt die Aktualisierung der ausgegebenen Properties aus.
+     */
+    public synchronized void enableBinding(final long windowMillis, @NonNull final Executor notifier) {
+        disableBinding();
+        bindingNotifier = notifier;
+        binding = new PropertyBinding(windowMillis, this::applyBound);
+        if (informs())
+            info("Änderungen an Properties werden nach "+windowMillis+" ms übernommen...");
+    }
+
+    /**
+     * Aktiviert die Rückbindung wie {@link #enableBinding(long)}, übernimmt die gesammelten Änderungen aber über
+     * einen {@link Executor}. Mit {@code Platform::runLater} werden alle Änderungen eines JavaFX Durchlaufs im
+     * JavaFX Thread gemeinsam übernommen.
+     * @param executor Führt das Übernehmen aus.
+     */
+    public synchronized void enableBinding(@NonNull final Executor executor) {
+        disableBinding();
+        bindingNotifier = Runnable::run;
+        binding = new PropertyBinding(executor, this::applyBound);
+        if (informs())
+            info("Änderungen an Properties werden gebündelt übernommen...");
+    }
+
+    /**
+     * Beendet die Rückbindung. Noch nicht übernommene Änderungen werden vorher im aufrufenden Thread übernommen.
+     */
+    public synchronized void disableBinding() {
+        PropertyBinding current = binding;
+        if (current == null) {
+            return;
+        }
+        binding = null;
+        current.close();
+        current.run();
+    }
+
+    /**
+     * Durchläuft alle Schlüssel der Konfiguration, ohne Werte zu dekodieren.
+     * @param action Wird für jeden Schlüssel aufgerufen.
+     */
+    void forEachKey(final Consumer<String> action) {
+        LOCK.readLock().lock();
+        try {
+            ConfigurationSource mapped = source;
+            if (mapped != null) {
+                mapped.forEachKey(action);
+            } else {
+                PROPERTIES_CONFIGURATION.getKeys().forEachRemaining(action);
+            }
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Die JavaFX Properties. Werden beim ersten Aufruf erzeugt.
+     */
+    private FXProperties fx() {
+        FXProperties current = fx;
+        if (current == null) {
+            synchronized (LITE_MAP) {
+                current = fx;
+                if (current == null) {
+                    current = new FXProperties(this, registryMode, registryMaxSize);
+                    fx = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return Die sortierte Menge aller Schlüssel. Wird beim ersten Aufruf aufgebaut.
+     */
+    private NavigableSet<String> keyIndex() {
+        ConcurrentSkipListSet<String> index = keyIndex;
+        if (index == null) {
+            LOCK.writeLock().lock();
+            try {
+                index = keyIndex;
+                if (index == null) {
+                    index = new ConcurrentSkipListSet<>();
+                    forEachKey(index::add);
+                    keyIndex = index;
+                }
+            } finally {
+                LOCK.writeLock().unlock();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Benachrichtigt alle {@link ConfigurationListener}. Darf nicht unter der Sperre aufgerufen werden.
+     * @param keys Die geänderten Schlüssel.
+     */
+    private void fireKeysChanged(final Set<String> keys) {
+        for (ConfigurationListener listener : LISTENERS) {
+            listener.keysChanged(keys);
+        }
+    }
+
+    /**
+     * @param encoding Name eines Zeichensatzes oder {@code null}.
+     * @return Der Zeichensatz, bzw. ISO-8859-1 wie bei {@link PropertiesConfiguration}.
+     */
+    private static Charset charset(final String encoding) {
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+    }
+
+    /**
+     * Liefert den ausgewerteten Wert eines Schlüssels. Die Properties Datei wird nur gelesen, wenn der Schlüssel noch
+     * nicht ausgewertet wurde. Das Lesen findet außerhalb von {@link ConcurrentHashMap#computeIfAbsent} statt, damit
+     * ein gleichzeitig schreibender Thread, der die Sperre hält, nicht auf den Eintrag warten muss.
+     * <p>
+     * Läuft gerade eine Übernahme mehrerer Werte, wartet der Aufruf auf deren Ende. Sonst könnte ein Leser den neuen
+     * Wert eines Schlüssels und danach den alten Wert eines anderen sehen.
+     * @param keyWord Der Schlüssel.
+     * @return Der ausgewertete Wert, bzw. {@link ConfigurationValue#MISSING}.
+     */
+    ConfigurationValue lookup(final String keyWord) {
+        if (!committing) {
+            return resolve(keyWord);
+        }
+        COMMIT_LOCK.readLock().lock();
+        try {
+            return resolve(keyWord);
+        } finally {
+            COMMIT_LOCK.readLock().unlock();
+        }
+    }
+
+    /**
+     * Liefert den ausgewerteten Wert eines Schlüssels, siehe {@link #lookup(String)}.
+     * @param keyWord Der Schlüssel.
+     * @return Der ausgewertete Wert, bzw. {@link ConfigurationValue#MISSING}.
+     */
+    private ConfigurationValue resolve(final String keyWord) {
+        ConfigurationValue value = VALUES.get(keyWord);
+        if (value != null) {
+            return value;
+        }
+        LOCK.readLock().lock();
+        try {
+            ConfigurationSource mapped = source;
+            if (mapped != null) {
+                value = mapped.value(keyWord);
+                String text = value.text();
+                if (text == null) {
+                    return cache(keyWord, value);
+                }
+                if (!mapped.isDuplicate(keyWord) && !text.contains("${")) {
+                    String single = PROPERTIES_CONFIGURATION.isDelimiterParsingDisabled() ? text
+                            : unescapeDelimiters(text, PROPERTIES_CONFIGURATION.getListDelimiter());
+                    if (single != null) {
+                        return cache(keyWord, single.equals(text) ? value : ConfigurationValue.of(single));
+                    }
+                }
+            }
+        } finally {
+            LOCK.readLock().unlock();
+        }
+        if (value != null) {
+            materialize();
+        }
+        LOCK.readLock().lock();
+        try {
+            return cache(keyWord, evaluate(keyWord));
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entfernt die Maskierung von Listentrennern so, wie es {@link PropertiesConfiguration} beim Trennen tut. Ein
+     * maskierter Trenner macht einen Wert also nicht zur Liste und muss nicht über die ganze Datei ausgewertet werden.
+     * @param text Der Rohwert.
+     * @param delimiter Der Listentrenner.
+     * @return Der Wert ohne Maskierung, oder {@code null}, wenn er einen unmaskierten Trenner enthält.
+     */
+    private static String unescapeDelimiters(final String text, final char delimiter) {
+        if (text.indexOf(delimiter) < 0) {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == delimiter) {
+                return null;
+            }
+            if (c == '\\' && i + 1 < text.length()
+                    && (text.charAt(i + 1) == delimiter || text.charAt(i + 1) == '\\')) {
+                c = text.charAt(++i);
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Legt einen ausgewerteten Wert ab, sofern nicht inzwischen ein anderer Thread einen abgelegt hat. Muss unter der
+     * Sperre aufgerufen werden, damit kein veralteter Wert einen gerade geschriebenen verdrängt.
+     * @param keyWord Der Schlüssel.
+     * @param value Der ausgewertete Wert.
+     * @return Der abgelegte Wert.
+     */
+    private ConfigurationValue cache(final String keyWord, final ConfigurationValue value) {
+        ConfigurationValue existing = VALUES.putIfAbsent(keyWord, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Wertet einen Schlüssel in {@link #PROPERTIES_CONFIGURATION} aus, also nach Listentrennung und Ersetzen von
+     * Variablen, und merkt sich, ob der Wert von anderen Schlüsseln abhängt. Muss unter der Sperre aufgerufen werden.
+     * @param keyWord Der Schlüssel.
+     * @return Der ausgewertete Wert.
+     */
+    private ConfigurationValue evaluate(final String keyWord) {
+        Object raw = PROPERTIES_CONFIGURATION.getProperty(keyWord);
+        if (raw != null && String.valueOf(raw).contains("${")) {
+            INTERPOLATED.add(keyWord);
+        } else {
+            INTERPOLATED.remove(keyWord);
+        }
+        return ConfigurationValue.of(PROPERTIES_CONFIGURATION.getString(keyWord));
+    }
+
+    /**
+     * Verwirft die ausgewerteten Werte aller Schlüssel mit Variablen, da sie von einem geänderten Schlüssel abhängen
+     * können. Sie werden beim nächsten Zugriff neu ausgewertet. Muss unter der Schreibsperre aufgerufen werden.
+     * @param changed Der geänderte Schlüssel, dessen Wert bereits neu ausgewertet wurde.
+     */
+    private void invalidateInterpolated(final String changed) {
+        for (String dependent : INTERPOLATED) {
+            if (!dependent.equals(changed)) {
+                VALUES.remove(dependent);
+            }
+        }
+    }
+
+    boolean traces() {
+        return diagnosticsLevel.includes(DiagnosticsLevel.TRACE);
+    }
+
+    private boolean informs() {
+        return diagnosticsLevel.includes(DiagnosticsLevel.INFO);
+    }
+
+    void trace(final String message) {
+        diagnostics.log(DiagnosticsLevel.TRACE, message);
+    }
+
+    private void info(final String message) {
+        diagnostics.log(DiagnosticsLevel.INFO, message);
+    }
+
+    void warn(final String message) {
+        if (diagnosticsLevel.includes(DiagnosticsLevel.WARN)) {
+            diagnostics.log(DiagnosticsLevel.WARN, message);
+        }
+    }
+
+    /**
+     * Für Warnungen, bevor es eine Konfiguration gibt.
+     */
+    private static void warnDefault(final String message) {
+        if (defaultLevel.includes(DiagnosticsLevel.WARN)) {
+            defaultDiagnostics.log(DiagnosticsLevel.WARN, message);
+        }
+    }
+
+    /**
+     * Passt die Stufe an {@link #printInfos} an. Stimmt sie bereits überein, z.B. weil {@link #setDiagnostics} beide
+     * gesetzt hat, bleibt sie unverändert.
+     */
+    private void followPrintInfos(final boolean printInfos) {
+        if (printInfos != traces()) {
+            diagnosticsLevel = printInfos ? DiagnosticsLevel.TRACE : DiagnosticsLevel.WARN;
+        }
+    }
+
+    /**
+     * Meldet das Ende eines Konstruktors.
+     * @param loaded Die vollständig geladene Datei, oder {@code null}, wenn aus einer Quelle gelesen wird.
+     * @param start Beginn des Ladens laut {@link System#nanoTime()}.
+     */
+    private void initialized(final File loaded, final long start) {
+        if (informs()) {
+            if (loaded != null) {
+                diagnostics.timed(loaded+" geladen", System.nanoTime() - start);
+            }
+            info(autoSave.get() ? "Änderungen an der Konfiguration werden automatisch gespeichert."
+                    : "Änderungen an der Konfiguration werden nicht gespeichert.");
+        }
+    }
+
+    /**
+     * Meldet die Dauer, die das Öffnen einer Quelle einschließlich des Konstruktors gebraucht hat.
+     * @return Diese Konfiguration.
+     */
+    private ObservableConfiguration opened(final File file, final long start) {
+        if (informs())
+            diagnostics.timed(file+" geöffnet", System.nanoTime() - start);
+        return this;
+    }
+
+    private void count(final String keyWord) {
+        ConcurrentHashMap<String, LongAdder> counts = accessCounts;
+        if (counts != null) {
+            LongAdder count = counts.get(keyWord);
+            if (count == null) {
+                count = counts.computeIfAbsent(keyWord, key -> new LongAdder());
+            }
+            count.increment();
+        }
+    }
+
+    /**
+     * Übernimmt alle Werte der abgebildeten Datei bzw. des Schnappschusses in {@link #PROPERTIES_CONFIGURATION}, damit
+     * diese wie eine normal geladene Konfiguration gelesen, verändert und gespeichert werden kann. Gibt es eine
+     * Properties Datei, wird sie normal geladen, damit mehrfache Schlüssel, Kommentare und die Reihenfolge erhalten
+     * bleiben; hat sie sich seit dem Öffnen geändert, gilt ihr neuer Stand. Nur ohne Datei, z.B. bei YAML, werden die
+     * Werte der Quelle übernommen. Beim Übernehmen wird nicht gespeichert.
+     */
+    private void materialize() {
+        LOCK.writeLock().lock();
+        try {
+            ConfigurationSource mapped = source;
+            if (mapped == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            boolean saving = PROPERTIES_CONFIGURATION.isAutoSave();
+            PROPERTIES_CONFIGURATION.setAutoSave(false);
+            try {
+                if (!load()) {
+                    mapped.forEach(PROPERTIES_CONFIGURATION::addProperty);
+                }
+            } finally {
+                PROPERTIES_CONFIGURATION.setAutoSave(saving);
+            }
+            source = null;
+            if (informs())
+                diagnostics.timed(mapped.size()+" Schlüssel aus "+(CONFIG != null ? CONFIG : "der Quelle")
+                        +" übernommen", System.nanoTime() - start);
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lädt die Properties Datei in {@link #PROPERTIES_CONFIGURATION}, solange die Werte noch aus einer Quelle stammen.
+     * Bereits ausgewertete Werte werden verworfen, damit sie zum geladenen Stand passen. Muss unter der Schreibsperre
+     * aufgerufen werden.
+     * @return {@code false}, wenn es keine Datei gibt oder sie nicht gelesen werden kann.
+     */
+    private boolean load() {
+        if (CONFIG == null) {
+            return false;
+        }
+        try {
+            PROPERTIES_CONFIGURATION.load(CONFIG);
+        } catch (ConfigurationException e) {
+            PROPERTIES_CONFIGURATION.clear();
+            warn(CONFIG+" konnte nicht geladen werden, die Werte werden aus der Quelle übernommen: "+e.getMessage());
+            return false;
+        }
+        VALUES.clear();
+        INTERPOLATED.clear();
+        return true;
+    }
+
+    /**
+     * Schreibt einen Wert und überträgt ihn auf die bereits ausgegebenen Properties des Schlüssels. Die Listener der
+     * Properties werden erst nach dem Freigeben der Sperre benachrichtigt, damit sie selbst auf die Konfiguration
+     * zugreifen dürfen. Es wird der dann aktuelle Wert übertragen, bei gleichzeitigen Setzern also der zuletzt
+     * gespeicherte.
+     * @param keyWord Der Schlüssel.
+     * @param value Der neue Wert.
+     */
+    private void set(final String keyWord, final Object value) {
+        LOCK.writeLock().lock();
+        try {
+            store(keyWord, value);
+            discardStaged(keyWord);
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+        publish(keyWord, lookup(keyWord));
+        fireKeysChanged(Collections.singleton(keyWord));
+        if (traces())
+            trace("Setze neuen Wert für "+keyWord+"...");
+    }
+
+    /**
+     * Schreibt einen Wert in die Properties Datei und ersetzt seinen ausgewerteten Wert. Abgelegt wird der Wert, den
+     * auch ein späteres Lesen liefern würde, also z.B. bei Listen nur das erste Element. Muss unter der Schreibsperre
+     * aufgerufen werden.
+     * @param keyWord Der Schlüssel.
+     * @param value Der neue Wert.
+     */
+    private void store(final String keyWord, final Object value) {
+        materialize();
+        PROPERTIES_CONFIGURATION.setProperty(keyWord, value);
+        VALUES.put(keyWord, evaluate(keyWord));
+        invalidateInterpolated(keyWord);
+        ConcurrentSkipListSet<String> index = keyIndex;
+        if (index != null) {
+            index.add(keyWord);
+        }
+        WriteBehind current = writeBehind;
+        if (current != null) {
+            current.markDirty(keyWord);
+        }
+    }
+
+    /**
+     * Überträgt einen neuen Wert auf die bereits ausgegebenen Properties des Schlüssels. Darf nicht unter der Sperre
+     * aufgerufen werden.
+     * @param keyWord Der Schlüssel.
+     * @param value Der neue Wert.
+     */
+    private void publish(final String keyWord, final ConfigurationValue value) {
+        if (!value.isPresent()) {
+            return;
+        }
+        PUBLISHING.set(Boolean.TRUE);
+        try {
+            FXProperties current = fx;
+            if (current != null) {
+                current.publish(keyWord, value);
+            }
+            LiteProperty<?> lite = LITE_MAP.peek(keyWord);
+            if (lite instanceof LiteStringProperty) {
+                ((LiteStringProperty) lite).set(value.text());
+            } else if (lite instanceof LiteIntegerProperty) {
+                ((LiteIntegerProperty) lite).set(value.intValue(keyWord));
+            } else if (lite instanceof LiteDoubleProperty) {
+                ((LiteDoubleProperty) lite).set(value.doubleValue(keyWord));
+            } else if (lite instanceof LiteBooleanProperty) {
+                ((LiteBooleanProperty) lite).set(value.booleanValue(keyWord));
+            }
+        } catch (ConversionException e) {
+            if (traces())
+                trace("Neuer Wert für "+keyWord+" passt nicht zum Typ der Property und wird ignoriert...");
+        } finally {
+            PUBLISHING.remove();
+        }
+    }
+
+    /**
+     * Verbindet eine neu erzeugte Property ohne JavaFX mit der Konfiguration, damit ihre Änderungen bei aktiver
+     * Rückbindung übernommen werden.
+     * @param keyWord Der Schlüssel.
+     * @param property Die Property.
+     * @return Die Property.
+     */
+    private <T, P extends LiteProperty<T>> P bindToStore(final String keyWord, final P property) {
+        property.addListener((observable, oldValue, newValue) -> stage(keyWord, newValue));
+        return property;
+    }
+
+    /**
+     * Merkt eine Änderung an einer ausgegebenen Property zum Übernehmen vor. Ohne Rückbindung, bei {@code null} und
+     * bei Änderungen durch die Konfiguration selbst passiert nichts.
+     * @param keyWord Der Schlüssel.
+     * @param value Der neue Wert.
+     */
+    void stage(final String keyWord, final Object value) {
+        PropertyBinding current = binding;
+        if (current != null && value != null && PUBLISHING.get() == null) {
+            current.stage(keyWord, value);
+        }
+    }
+
+    /**
+     * Verwirft eine noch nicht übernommene Änderung der Rückbindung, weil der Schlüssel direkt gesetzt wurde.
+     * @param keyWord Der Schlüssel.
+     */
+    private void discardStaged(final String keyWord) {
+        PropertyBinding current = binding;
+        if (current != null) {
+            current.discard(keyWord);
+        }
+    }
+
+    /**
+     * Übernimmt gesammelte Änderungen an ausgegebenen Properties in einem Schritt.
+     * @param changes Die neuen Werte je Schlüssel.
+     */
+    private void applyBound(final Map<String, Object> changes) {
+        try {
+            commit(changes, true);
+        } catch (ConfigurationException e) {
+            warn("Geänderte Properties konnten nicht gespeichert werden: "+e.getMessage());
+        }
+    }
+
+    /**
+     * Übernimmt mehrere Werte in einem Schritt. Die Werte werden gemeinsam unter der Schreibsperre gesetzt, Leser
+     * sehen also entweder alle alten oder alle neuen Werte, siehe {@link #lookup(String)}. Gespeichert wird
+     * höchstens einmal, danach werden die ausgegebenen Properties angeglichen und die Listener einmal benachrichtigt.
+     * Noch nicht übernommene Änderungen der Rückbindung an denselben Schlüsseln werden verworfen.
+     * @param changes Die neuen Werte je Schlüssel.
+     * @throws ConfigurationException Wenn nicht gespeichert werden kann. Die Werte sind dann trotzdem übernommen.
+     */
+    void applyAll(final Map<String, ?> changes) throws ConfigurationException {
+        commit(changes, false);
+    }
+
+    /**
+     * Übernimmt mehrere Werte in einem Schritt, siehe {@link #applyAll(Map)}.
+     * @param changes Die neuen Werte je Schlüssel.
+     * @param bound {@code true}, wenn die Werte von der Rückbindung stammen. Die Properties werden dann über
+     * {@link #bindingNotifier} angeglichen.
+     * @throws ConfigurationException Wenn nicht gespeichert werden kann. Die Werte sind dann trotzdem übernommen.
+     */
+    private void commit(final Map<String, ?> changes, final boolean bound) throws ConfigurationException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        ConfigurationException failure = null;
+        boolean saved = false;
+        long start = System.nanoTime();
+        Map<String, ConfigurationValue> values = new HashMap<>();
+        COMMIT_LOCK.writeLock().lock();
+        LOCK.writeLock().lock();
+        committing = true;
+        try {
+            materialize();
+            boolean saving = PROPERTIES_CONFIGURATION.isAutoSave();
+            PROPERTIES_CONFIGURATION.setAutoSave(false);
+            try {
+                changes.forEach((keyWord, value) -> {
+                    store(keyWord, value);
+                    if (!bound) {
+                        discardStaged(keyWord);
+                    }
+                    values.put(keyWord, VALUES.get(keyWord));
+                });
+            } finally {
+                PROPERTIES_CONFIGURATION.setAutoSave(saving);
+            }
+            if (saving && CONFIG != null) {
+                try {
+                    PROPERTIES_CONFIGURATION.save();
+                    saved = true;
+                } catch (ConfigurationException e) {
+                    failure = e;
+                }
+            }
+        } finally {
+            committing = false;
+            LOCK.writeLock().unlock();
+            COMMIT_LOCK.writeLock().unlock();
+        }
+        if (bound) {
+            bindingNotifier.execute(() -> values.forEach(this::publish));
+        } else {
+            values.forEach(this::publish);
+        }
+        fireKeysChanged(Collections.unmodifiableSet(changes.keySet()));
+        if (informs())
+            diagnostics.timed(changes.size()+" Schlüssel übernommen"+(saved ? " und gespeichert" : ""),
+                    System.nanoTime() - start);
+        if (failure != null) {
+            throw failure;
+        }
+    }
 }
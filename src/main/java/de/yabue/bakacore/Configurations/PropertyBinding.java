@@ -0,0 +1,119 @@
+package de.yabue.bakacore.Configurations;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Sammelt Änderungen an ausgegebenen Properties und überträgt sie gebündelt in die Konfiguration. Pro Schlüssel
+ * zählt nur der letzte Wert. Übertragen wird entweder nach einem Zeitfenster in einem Hintergrund-Thread oder über
+ * einen {@link Executor}, z.B. {@code Platform::runLater}, einmal je Durchlauf.
+ *
+ * @author Yannick Bülter
+ */
+final class PropertyBinding {
+
+    private final Map<String, Object> pending = new ConcurrentHashMap<>();
+
+    private final Consumer<Map<String, Object>> apply;
+
+    private final Executor executor;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final long windowMillis;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Überträgt nach einem Zeitfenster in einem eigenen Hintergrund-Thread.
+     *
+     * @param windowMillis Wie lange nach der ersten Änderung gesammelt wird.
+     * @param apply Übernimmt die gesammelten Werte.
+     */
+    PropertyBinding(final long windowMillis, final Consumer<Map<String, Object>> apply) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("Das Zeitfenster darf nicht negativ sein!");
+        }
+        this.windowMillis = windowMillis;
+        this.apply = apply;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ConfigurationBinding");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = scheduler;
+    }
+
+    /**
+     * Überträgt über einen fremden {@link Executor}. Alle Änderungen bis zur Ausführung werden zusammengefasst.
+     *
+     * @param executor Führt die Übertragung aus.
+     * @param apply Übernimmt die gesammelten Werte.
+     */
+    PropertyBinding(final Executor executor, final Consumer<Map<String, Object>> apply) {
+        this.windowMillis = 0;
+        this.apply = apply;
+        this.executor = executor;
+        scheduler = null;
+    }
+
+    /**
+     * Merkt einen neuen Wert vor und plant die Übertragung.
+     *
+     * @param key Der Schlüssel.
+     * @param value Der neue Wert.
+     */
+    void stage(final String key, final Object value) {
+        pending.put(key, value);
+        if (scheduled.compareAndSet(false, true)) {
+            if (scheduler != null && windowMillis > 0) {
+                scheduler.schedule(this::run, windowMillis, TimeUnit.MILLISECONDS);
+            } else {
+                executor.execute(this::run);
+            }
+        }
+    }
+
+    /**
+     * Verwirft den vorgemerkten Wert eines Schlüssels, z.B. weil er inzwischen direkt gesetzt wurde. Sonst würde der
+     * ältere Wert den neueren beim Übertragen überschreiben.
+     *
+     * @param key Der Schlüssel.
+     */
+    void discard(final String key) {
+        pending.remove(key);
+    }
+
+    /**
+     * Überträgt alle vorgemerkten Werte sofort im aufrufenden Thread.
+     */
+    void run() {
+        scheduled.set(false);
+        Map<String, Object> changes = new HashMap<>();
+        for (String key : pending.keySet()) {
+            Object value = pending.remove(key);
+            if (value != null) {
+                changes.put(key, value);
+            }
+        }
+        if (!changes.isEmpty()) {
+            apply.accept(changes);
+        }
+    }
+
+    /**
+     * Beendet den Hintergrund-Thread. Vorgemerkte Werte werden nicht mehr übertragen.
+     */
+    void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
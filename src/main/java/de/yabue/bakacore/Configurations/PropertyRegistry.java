@@ -0,0 +1,361 @@
+package de.yabue.bakacore.Configurations;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Hält die von einer {@link ObservableConfiguration} ausgegebenen Properties, damit zu einem Schlüssel immer dieselbe
+ * Instanz geliefert wird. Je nach {@link RegistryMode} werden Properties, die niemand mehr nutzt, dem Garbage
+ * Collector überlassen. Solange jemand eine Property hält, bekommt er bei erneuter Anfrage genau diese Instanz.
+ * <p>
+ * Optional kann die Anzahl der Einträge begrenzt werden. Beim Überschreiten wird nach dem Second-Chance Verfahren
+ * verdrängt: seit dem letzten Durchlauf genutzte Einträge bekommen eine zweite Chance, die anderen werden entfernt.
+ * Wer eine verdrängte Property noch hält, behält sie, bekommt bei der nächsten Anfrage aber eine neue Instanz.
+ *
+ * @param <V> Typ der Properties.
+ * @author Yannick Bülter
+ */
+public class PropertyRegistry<V> {
+
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+    /**
+     * Einfügereihenfolge für die Verdrängung. Wird nur bei begrenzter Größe gepflegt.
+     */
+    private final ConcurrentLinkedQueue<Entry<V>> clock = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger clockSize = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder collected = new LongAdder();
+
+    @Getter
+    private volatile RegistryMode mode = RegistryMode.STRONG;
+
+    /**
+     * Höchstzahl der Einträge, {@code 0} für unbegrenzt.
+     */
+    @Getter
+    private volatile int maxSize;
+
+    /**
+     * Ändert Modus und Größe. Bereits vorhandene Einträge werden in den neuen Modus übernommen.
+     * @param mode Wie fest Properties gehalten werden.
+     * @param maxSize Höchstzahl der Einträge, {@code 0} für unbegrenzt.
+     */
+    public synchronized void configure(@NonNull final RegistryMode mode, final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Die Größe darf nicht negativ sein!");
+        }
+        this.mode = mode;
+        this.maxSize = maxSize;
+        expunge();
+        entries.replaceAll((key, entry) -> {
+            V value = entry.get();
+            return value == null ? entry : wrap(key, value);
+        });
+        clock.clear();
+        clockSize.set(0);
+        if (maxSize > 0) {
+            for (Entry<V> entry : entries.values()) {
+                clock.add(entry);
+                clockSize.incrementAndGet();
+            }
+            evict();
+        }
+    }
+
+    /**
+     * Liefert die Property zu einem Schlüssel, falls sie noch existiert. Ein Treffer wird gezählt.
+     * @param key Der Schlüssel.
+     * @return Die Property oder {@code null}.
+     */
+    public V get(@NonNull final String key) {
+        Entry<V> entry = entries.get(key);
+        V value = entry != null ? entry.get() : null;
+        if (value != null) {
+            entry.touch();
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Wie {@link #get(String)}, aber ohne Zählung. Für interne Zugriffe, die keine Anfragen von Nutzern sind.
+     */
+    V peek(final String key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null ? entry.get() : null;
+    }
+
+    /**
+     * Liefert die Property zu einem Schlüssel und erzeugt sie, falls es keine gibt. Für jeden Schlüssel wird
+     * höchstens eine lebende Instanz erzeugt.
+     * @param key Der Schlüssel.
+     * @param factory Erzeugt eine neue Property. Darf keine Sperren anfordern.
+     * @return Die vorhandene oder neue Property.
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(@NonNull final String key, @NonNull final Function<String, ? extends V> factory) {
+        Entry<V> current = entries.get(key);
+        V value = current != null ? current.get() : null;
+        if (value != null) {
+            current.touch();
+            hits.increment();
+            return value;
+        }
+        expunge();
+        Object[] result = new Object[1];
+        boolean[] created = new boolean[1];
+        entries.compute(key, (k, old) -> {
+            V existing = old != null ? old.get() : null;
+            if (existing != null) {
+                result[0] = existing;
+                return old;
+            }
+            V fresh = factory.apply(k);
+            result[0] = fresh;
+            created[0] = true;
+            Entry<V> entry = wrap(k, fresh);
+            if (maxSize > 0) {
+                clock.add(entry);
+                clockSize.incrementAndGet();
+            }
+            return entry;
+        });
+        if (created[0]) {
+            misses.increment();
+            if (maxSize > 0) {
+                evict();
+            }
+        } else {
+            hits.increment();
+        }
+        return (V) result[0];
+    }
+
+    /**
+     * @return Anzahl der Einträge, einschließlich solcher, deren Property gerade freigegeben wurde.
+     */
+    public int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * @return Anzahl der Anfragen, für die eine vorhandene Property geliefert wurde.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Anzahl der Anfragen, für die eine neue Property erzeugt wurde.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Anzahl der Einträge, die wegen der Größenbeschränkung verdrängt wurden.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Anzahl der Einträge, deren Property vom Garbage Collector freigegeben wurde.
+     */
+    public long getCollectedCount() {
+        expunge();
+        return collected.sum();
+    }
+
+    private Entry<V> wrap(final String key, final V value) {
+        switch (mode) {
+            case WEAK:
+                return new WeakEntry<>(key, value, queue);
+            case SOFT:
+                return new SoftEntry<>(key, value, queue);
+            default:
+                return new StrongEntry<>(key, value);
+        }
+    }
+
+    /**
+     * Entfernt Einträge, deren Property vom Garbage Collector freigegeben wurde.
+     */
+    @SuppressWarnings("unchecked")
+    private void expunge() {
+        Reference<? extends V> reference;
+        while ((reference = queue.poll()) != null) {
+            Entry<V> entry = (Entry<V>) reference;
+            if (entries.remove(entry.key(), entry)) {
+                collected.increment();
+            }
+        }
+    }
+
+    /**
+     * Verdrängt Einträge, bis die Höchstzahl eingehalten wird.
+     */
+    private void evict() {
+        int limit = maxSize;
+        while (limit > 0 && entries.size() > limit) {
+            Entry<V> entry = clock.poll();
+            if (entry == null) {
+                return;
+            }
+            clockSize.decrementAndGet();
+            if (entries.get(entry.key()) != entry) {
+                continue;
+            }
+            if (entry.clearReferenced()) {
+                clock.add(entry);
+                clockSize.incrementAndGet();
+            } else if (entries.remove(entry.key(), entry)) {
+                evictions.increment();
+            }
+        }
+        if (clockSize.get() > 2 * limit + 16) {
+            clock.removeIf(entry -> entries.get(entry.key()) != entry && clockSize.decrementAndGet() >= 0);
+        }
+    }
+
+    /**
+     * Ein Eintrag der Registry.
+     */
+    private interface Entry<V> {
+
+        V get();
+
+        String key();
+
+        /**
+         * Markiert den Eintrag als genutzt.
+         */
+        void touch();
+
+        /**
+         * @return {@code true}, wenn der Eintrag seit dem letzten Aufruf genutzt wurde.
+         */
+        boolean clearReferenced();
+    }
+
+    private static final class StrongEntry<V> implements Entry<V> {
+
+        private final String key;
+
+        private final V value;
+
+        private volatile boolean referenced;
+
+        StrongEntry(final String key, final V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public V get() {
+            return value;
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+
+        @Override
+        public void touch() {
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+
+        @Override
+        public boolean clearReferenced() {
+            boolean was = referenced;
+            referenced = false;
+            return was;
+        }
+    }
+
+    private static final class WeakEntry<V> extends WeakReference<V> implements Entry<V> {
+
+        private final String key;
+
+        private volatile boolean referenced;
+
+        WeakEntry(final String key, final V value, final ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+
+        @Override
+        public void touch() {
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+
+        @Override
+        public boolean clearReferenced() {
+            boolean was = referenced;
+            referenced = false;
+            return was;
+        }
+    }
+
+    private static final class SoftEntry<V> extends SoftReference<V> implements Entry<V> {
+
+        private final String key;
+
+        private volatile boolean referenced;
+
+        SoftEntry(final String key, final V value, final ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+
+        @Override
+        public void touch() {
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+
+        @Override
+        public boolean clearReferenced() {
+            boolean was = referenced;
+            referenced = false;
+            return was;
+        }
+    }
+}
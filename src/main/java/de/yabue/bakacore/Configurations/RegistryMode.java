@@ -0,0 +1,21 @@
+package de.yabue.bakacore.Configurations;
+
+/**
+ * Gibt an, wie fest eine {@link PropertyRegistry} die ausgegebenen Properties hält.
+ *
+ * @author Yannick Bülter
+ */
+public enum RegistryMode {
+    /**
+     * Properties werden gehalten, bis sie verdrängt werden. Entspricht dem bisherigen Verhalten.
+     */
+    STRONG,
+    /**
+     * Properties werden freigegeben, sobald außerhalb der Registry niemand mehr eine Referenz darauf hält.
+     */
+    WEAK,
+    /**
+     * Wie {@link #WEAK}, aber Properties werden erst freigegeben, wenn der Speicher knapp wird.
+     */
+    SOFT
+}
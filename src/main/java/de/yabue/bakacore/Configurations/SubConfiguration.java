@@ -0,0 +1,141 @@
+package de.yabue.bakacore.Configurations;
+
+import de.yabue.bakacore.Observable.LiteBooleanProperty;
+import de.yabue.bakacore.Observable.LiteDoubleProperty;
+import de.yabue.bakacore.Observable.LiteIntegerProperty;
+import de.yabue.bakacore.Observable.LiteStringProperty;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sicht auf alle Schlüssel einer {@link ObservableConfiguration} unterhalb eines Präfixes, z.B. {@code "db.pool."}.
+ * Die Getter erwarten den Namen ohne Präfix, {@code subset("db.pool.").getIntValue("size", 10)} liest also
+ * {@code db.pool.size}. Die Sicht hält keine eigenen Werte, Änderungen an der Konfiguration sind sofort sichtbar.
+ *
+ * @author Yannick Bülter
+ */
+public class SubConfiguration {
+
+    private final ObservableConfiguration parent;
+
+    @Getter
+    private final String prefix;
+
+    private final ConcurrentHashMap<ConfigurationListener, ConfigurationListener> listeners = new ConcurrentHashMap<>();
+
+    SubConfiguration(final ObservableConfiguration parent, final String prefix) {
+        this.parent = parent;
+        this.prefix = prefix;
+    }
+
+    /**
+     * @return Die vollständigen Schlüssel unterhalb des Präfixes, sortiert. Die Menge folgt späteren Änderungen.
+     */
+    public SortedSet<String> getKeys() {
+        return parent.getKeys(prefix);
+    }
+
+    /**
+     * @param name Name ohne Präfix, z.B. {@code "size."}.
+     * @return Eine Sicht unterhalb von Präfix und Name.
+     */
+    public SubConfiguration subset(@NonNull final String name) {
+        return new SubConfiguration(parent, prefix + name);
+    }
+
+    /**
+     * @see ObservableConfiguration#getString(String, String)
+     */
+    public String getString(@NonNull final String name, @NonNull final String defaultValue) {
+        return parent.getString(prefix + name, defaultValue);
+    }
+
+    /**
+     * @see ObservableConfiguration#getIntValue(String, int)
+     */
+    public int getIntValue(@NonNull final String name, final int defaultValue) {
+        return parent.getIntValue(prefix + name, defaultValue);
+    }
+
+    /**
+     * @see ObservableConfiguration#getDoubleValue(String, double)
+     */
+    public double getDoubleValue(@NonNull final String name, final double defaultValue) {
+        return parent.getDoubleValue(prefix + name, defaultValue);
+    }
+
+    /**
+     * @see ObservableConfiguration#getBooleanValue(String, boolean)
+     */
+    public boolean getBooleanValue(@NonNull final String name, final boolean defaultValue) {
+        return parent.getBooleanValue(prefix + name, defaultValue);
+    }
+
+    /**
+     * @see ObservableConfiguration#getLiteStringProperty(String, String)
+     */
+    public LiteStringProperty getLiteStringProperty(@NonNull final String name, @NonNull final String defaultValue) {
+        return parent.getLiteStringProperty(prefix + name, defaultValue);
+    }
+
+    /**
+     * @see ObservableConfiguration#getLiteIntegerProperty(String, int)
+     */
+    public LiteIntegerProperty getLiteIntegerProperty(@NonNull final String name, final int defaultValue) {
+        return parent.getLiteIntegerProperty(prefix + name, defaultValue);
+    }
+
+    /**
+     * @see ObservableConfiguration#getLiteDoubleProperty(String, double)
+     */
+    public LiteDoubleProperty getLiteDoubleProperty(@NonNull final String name, final double defaultValue) {
+        return parent.getLiteDoubleProperty(prefix + name, defaultValue);
+    }
+
+    /**
+     * @see ObservableConfiguration#getLiteBooleanProperty(String, boolean)
+     */
+    public LiteBooleanProperty getLiteBooleanProperty(@NonNull final String name, final boolean defaultValue) {
+        return parent.getLiteBooleanProperty(prefix + name, defaultValue);
+    }
+
+    /**
+     * Registriert einen Listener, der nur über geänderte Schlüssel unterhalb des Präfixes benachrichtigt wird.
+     * Übergeben werden die vollständigen Schlüssel.
+     * @param listener Der Listener.
+     */
+    public void addConfigurationListener(@NonNull final ConfigurationListener listener) {
+        ConfigurationListener filter = keys -> {
+            Set<String> matching = null;
+            for (String key : keys) {
+                if (key.startsWith(prefix)) {
+                    if (matching == null) {
+                        matching = new HashSet<>();
+                    }
+                    matching.add(key);
+                }
+            }
+            if (matching != null) {
+                listener.keysChanged(matching);
+            }
+        };
+        if (listeners.putIfAbsent(listener, filter) == null) {
+            parent.addConfigurationListener(filter);
+        }
+    }
+
+    /**
+     * @param listener Ein mit {@link #addConfigurationListener(ConfigurationListener)} registrierter Listener.
+     */
+    public void removeConfigurationListener(@NonNull final ConfigurationListener listener) {
+        ConfigurationListener filter = listeners.remove(listener);
+        if (filter != null) {
+            parent.removeConfigurationListener(filter);
+        }
+    }
+}
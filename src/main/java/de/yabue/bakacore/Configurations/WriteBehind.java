@@ -0,0 +1,139 @@
+package de.yabue.bakacore.Configurations;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sammelt geänderte Schlüssel und stößt das Speichern verzögert in einem Hintergrund-Thread an. Gespeichert wird
+ * spätestens nach {@code delayMillis} oder sobald {@code maxDirty} Schlüssel geändert wurden, und ein letztes Mal
+ * beim Beenden der JVM.
+ *
+ * @author Yannick Bülter
+ */
+final class WriteBehind {
+
+    /**
+     * Mindestabstand zwischen einem fehlgeschlagenen und dem nächsten Versuch.
+     */
+    private static final long RETRY_MILLIS = 1000;
+
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private final long delayMillis;
+
+    private final int maxDirty;
+
+    private final Runnable flush;
+
+    private final ScheduledExecutorService executor;
+
+    private final Thread shutdownHook;
+
+    private final AtomicBoolean delayed = new AtomicBoolean();
+
+    private final AtomicBoolean urgent = new AtomicBoolean();
+
+    /**
+     * @param delayMillis Wie lange nach der ersten Änderung höchstens gewartet wird.
+     * @param maxDirty Ab so vielen geänderten Schlüsseln wird sofort gespeichert.
+     * @param flush Speichert alle geänderten Schlüssel.
+     */
+    WriteBehind(final long delayMillis, final int maxDirty, final Runnable flush) {
+        if (delayMillis < 0 || maxDirty < 1) {
+            throw new IllegalArgumentException("Die Verzögerung darf nicht negativ und die Anzahl muss positiv sein!");
+        }
+        this.delayMillis = delayMillis;
+        this.maxDirty = maxDirty;
+        this.flush = flush;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ConfigurationWriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        shutdownHook = new Thread(flush, "ConfigurationWriteBehind-Shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Merkt einen geänderten Schlüssel vor und plant das Speichern.
+     *
+     * @param key Der Schlüssel.
+     */
+    void markDirty(final String key) {
+        dirty.add(key);
+        if (dirty.size() >= maxDirty) {
+            if (urgent.compareAndSet(false, true)) {
+                executor.execute(this::run);
+            }
+        } else if (delayed.compareAndSet(false, true)) {
+            executor.schedule(this::run, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Entnimmt alle vorgemerkten Schlüssel.
+     *
+     * @return Die Schlüssel, die seit dem letzten Aufruf geändert wurden.
+     */
+    Set<String> drain() {
+        Set<String> keys = new HashSet<>();
+        for (String key : dirty) {
+            if (dirty.remove(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @param key Der Schlüssel.
+     * @return {@code true}, wenn der Schlüssel geändert, aber noch nicht gespeichert wurde.
+     */
+    boolean isDirty(final String key) {
+        return dirty.contains(key);
+    }
+
+    /**
+     * Merkt Schlüssel erneut vor, z.B. wenn das Speichern fehlgeschlagen ist, und plant einen neuen Versuch nach
+     * frühestens einer Sekunde.
+     *
+     * @param keys Die Schlüssel.
+     */
+    void restore(final Set<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        dirty.addAll(keys);
+        if (delayed.compareAndSet(false, true)) {
+            try {
+                executor.schedule(this::run, Math.max(delayMillis, RETRY_MILLIS), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // bereits beendet, die Schlüssel werden nicht mehr gespeichert
+            }
+        }
+    }
+
+    /**
+     * Beendet den Hintergrund-Thread. Vorgemerkte Schlüssel werden nicht mehr gespeichert.
+     */
+    void close() {
+        executor.shutdownNow();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // die JVM wird bereits beendet
+        }
+    }
+
+    private void run() {
+        urgent.set(false);
+        delayed.set(false);
+        flush.run();
+    }
+}
@@ -0,0 +1,562 @@
+package de.yabue.bakacore.Configurations;
+
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionEndEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Liest eine YAML Datei als flache Schlüssel, wie sie eine {@code .properties} Datei hätte: verschachtelte Mappings
+ * werden mit Punkten verbunden, aus {@code db: {pool: {size: 10}}} wird also {@code db.pool.size}. Listen aus
+ * einfachen Werten werden wie Listen in Properties Dateien mit Kommas verbunden, Listeneinträge mit eigener Struktur
+ * bekommen ihre Position als Namen, z.B. {@code servers.0.host}. Anker, Aliase und {@code <<} Merge-Schlüssel werden
+ * aufgelöst.
+ * <p>
+ * Die Datei wird beim Öffnen einmal über einen {@link Reader} mit dem Event-Parser von SnakeYAML durchlaufen, ohne
+ * einen Objektbaum aufzubauen oder den Text im Speicher zu halten. Für einfache, einzeilige Werte ohne
+ * Anführungszeichen wird wie bei {@link MappedProperties} nur die Byteposition gemerkt; der Wert wird erst bei Bedarf
+ * aus der in den Speicher abgebildeten Datei dekodiert. Das geht nur für UTF-8 und Zeichensätze mit einem Byte je
+ * Zeichen, in allen anderen Fällen und für mehrzeilige, maskierte oder verbundene Werte wird der Wert beim Öffnen
+ * übernommen. Für Anker wird gemerkt, welche Schlüssel zu ihrem Teilbaum gehören, damit Aliase diesen Bereich
+ * übernehmen können.
+ * <p>
+ * Werte werden wie in einer Properties Datei geliefert: Kommas in einfachen Werten sind mit einem Backslash maskiert,
+ * damit sie nicht als Listentrenner gelten. Aus {@code gruss: Hallo, Welt} wird also nicht die Liste
+ * {@code [Hallo, Welt]}. Die Konfiguration entfernt die Maskierung beim Lesen, ohne die Datei vollständig zu übernehmen.
+ * <p>
+ * Die Klasse ist nach dem Öffnen unveränderlich und darf von mehreren Threads gleichzeitig gelesen werden.
+ *
+ * @author Yannick Bülter
+ */
+final class YamlSource implements ConfigurationSource {
+
+    /**
+     * Die abgebildete Datei, oder {@code null}, wenn alle Werte bereits beim Öffnen übernommen wurden.
+     */
+    private final ByteBuffer buffer;
+
+    private final Charset charset;
+
+    /**
+     * {@code true}, wenn ein Zeichen mehrere Bytes belegen kann und Positionen des Parsers umgerechnet werden müssen.
+     */
+    private final boolean utf8;
+
+    /**
+     * Position des Parsers in Codepoints und in Bytes, bis zu der die Datei beim Umrechnen bereits durchlaufen wurde.
+     */
+    private int scannedIndex;
+
+    private int scannedByte;
+
+    private final Map<String, Integer> index = new HashMap<>();
+
+    private int[] starts = new int[64];
+
+    private int[] ends = new int[64];
+
+    /**
+     * Bereits beim Öffnen übernommene Werte, z.B. mehrzeilige, maskierte oder verbundene Werte.
+     */
+    private String[] values = new String[64];
+
+    /**
+     * Werte, die bereits als Liste verbunden und maskiert sind.
+     */
+    private final BitSet lists = new BitSet();
+
+    private int size;
+
+    private YamlSource(final ByteBuffer buffer, final Charset charset) {
+        this.buffer = buffer;
+        this.charset = charset;
+        utf8 = charset.equals(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Liest und indiziert eine YAML Datei. Enthält die Datei mehrere Dokumente, überschreiben spätere Dokumente die
+     * Werte früherer.
+     *
+     * @param file Die YAML Datei.
+     * @param charset Der Zeichensatz der Datei.
+     * @return Die indizierte Datei.
+     * @throws IOException Wenn die Datei nicht gelesen werden kann oder kein gültiges YAML enthält.
+     */
+    static YamlSource open(final File file, final Charset charset) throws IOException {
+        ByteBuffer buffer = null;
+        if (supports(charset)) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+                if (channel.size() <= Integer.MAX_VALUE) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            }
+        }
+        YamlSource source = new YamlSource(buffer, charset);
+        try (Reader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file.toPath()),
+                charset.newDecoder()))) {
+            source.scan(new Yaml().parse(reader));
+        } catch (YAMLException e) {
+            throw new IOException("Die Datei " + file + " enthält kein gültiges YAML: " + e.getMessage(), e);
+        }
+        source.trim();
+        return source;
+    }
+
+    /**
+     * @return {@code true}, wenn sich Positionen des Parsers in Bytepositionen umrechnen lassen.
+     */
+    private static boolean supports(final Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8)
+                || charset.newEncoder().maxBytesPerChar() == 1 && charset.newDecoder().maxCharsPerByte() == 1;
+    }
+
+    @Override
+    public String get(final String key) {
+        Integer slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        String value = valueOf(slot);
+        return lists.get(slot) ? value : escape(value);
+    }
+
+    @Override
+    public boolean isDuplicate(final String key) {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void forEach(final BiConsumer<String, String> action) {
+        for (String key : index.keySet()) {
+            action.accept(key, get(key));
+        }
+    }
+
+    @Override
+    public void forEachKey(final Consumer<String> action) {
+        index.keySet().forEach(action);
+    }
+
+    /**
+     * Durchläuft die Events und baut den Index auf.
+     *
+     * @param events Die Events des Parsers.
+     */
+    private void scan(final Iterable<Event> events) {
+        Deque<Frame> stack = new ArrayDeque<>();
+        Map<String, Anchor> anchors = new HashMap<>();
+        Log log = new Log();
+        for (Event event : events) {
+            Frame top = stack.peek();
+            if (event instanceof DocumentStartEvent) {
+                stack.clear();
+            } else if (top != null && top.skip > 0) {
+                if (event instanceof CollectionStartEvent) {
+                    top.skip++;
+                } else if (event instanceof CollectionEndEvent && --top.skip == 0) {
+                    stack.pop();
+                    completed(stack.peek());
+                }
+            } else if (event instanceof CollectionStartEvent) {
+                Frame frame = new Frame(event instanceof MappingStartEvent);
+                if (top == null) {
+                    frame.prefix = "";
+                } else {
+                    String name = top.expectsKey() || top.merge != null ? null : top.nextName();
+                    if (name == null) {
+                        frame.skip = 1;
+                    } else if (top.mapping && name.equals("<<")) {
+                        frame.prefix = top.prefix;
+                        frame.merge = frame.mapping ? null : top.prefix;
+                    } else {
+                        frame.prefix = join(top.prefix, name);
+                    }
+                }
+                frame.anchor = ((CollectionStartEvent) event).getAnchor();
+                frame.log = log.size();
+                stack.push(frame);
+            } else if (event instanceof CollectionEndEvent) {
+                Frame frame = stack.pop();
+                if (frame.joined != null) {
+                    int slot = add(-1, -1, frame.joined.toString());
+                    lists.set(slot);
+                    put(log, frame.prefix, slot, false);
+                }
+                if (frame.anchor != null) {
+                    anchors.put(frame.anchor, log.anchor(frame.prefix, frame.log));
+                }
+                completed(stack.peek());
+            } else if (event instanceof ScalarEvent && top != null) {
+                ScalarEvent scalar = (ScalarEvent) event;
+                if (top.expectsKey()) {
+                    top.setKey(scalar.getValue());
+                    continue;
+                }
+                String name = top.nextName();
+                int slot = -1;
+                if (scalar.getAnchor() != null || top.mapping && name != null) {
+                    slot = scalar(scalar);
+                    if (scalar.getAnchor() != null) {
+                        anchors.put(scalar.getAnchor(), new Anchor(slot));
+                    }
+                }
+                if (name != null && top.merge == null) {
+                    if (top.mapping) {
+                        put(log, join(top.prefix, name), slot, false);
+                    } else {
+                        top.append(slot >= 0 ? valueOf(slot) : text(scalar));
+                    }
+                }
+                top.done();
+            } else if (event instanceof AliasEvent && top != null) {
+                Anchor anchor = anchors.get(((AliasEvent) event).getAnchor());
+                if (top.expectsKey()) {
+                    top.setKey(anchor != null && anchor.slot >= 0 ? valueOf(anchor.slot) : null);
+                    continue;
+                }
+                String name = top.nextName();
+                if (anchor != null && name != null) {
+                    if (top.merge != null || top.mapping && name.equals("<<")) {
+                        copy(log, anchor, top.merge != null ? top.merge : top.prefix, true);
+                    } else if (anchor.slot < 0) {
+                        copy(log, anchor, join(top.prefix, name), false);
+                    } else if (top.mapping) {
+                        put(log, join(top.prefix, name), anchor.slot, false);
+                    } else {
+                        top.append(valueOf(anchor.slot));
+                    }
+                }
+                top.done();
+            }
+        }
+    }
+
+    /**
+     * Vermerkt, dass ein Teilbaum vollständig gelesen wurde. War er ein zusammengesetzter Schlüssel, wird der
+     * zugehörige Wert übersprungen.
+     */
+    private static void completed(final Frame parent) {
+        if (parent == null) {
+            return;
+        }
+        if (parent.expectsKey()) {
+            parent.setKey(null);
+        } else {
+            parent.done();
+        }
+    }
+
+    /**
+     * Trägt einen Schlüssel in den Index ein und vermerkt ihn für Anker.
+     *
+     * @param merge Wenn {@code true}, wird ein vorhandener Schlüssel nicht überschrieben.
+     */
+    private void put(final Log log, final String key, final int slot, final boolean merge) {
+        if (key.isEmpty()) {
+            return;
+        }
+        if (merge) {
+            if (index.putIfAbsent(key, slot) != null) {
+                return;
+            }
+        } else {
+            index.put(key, slot);
+        }
+        log.add(key, slot);
+    }
+
+    /**
+     * Übernimmt den Teilbaum eines Ankers unter einen neuen Schlüssel.
+     *
+     * @param merge Wenn {@code true}, werden vorhandene Schlüssel nicht überschrieben.
+     */
+    private void copy(final Log log, final Anchor anchor, final String target, final boolean merge) {
+        if (anchor.slot >= 0) {
+            return;
+        }
+        if (merge) {
+            for (int i = anchor.keys.length - 1; i >= 0; i--) {
+                put(log, join(target, anchor.keys[i]), anchor.slots[i], true);
+            }
+        } else {
+            for (int i = 0; i < anchor.keys.length; i++) {
+                put(log, join(target, anchor.keys[i]), anchor.slots[i], false);
+            }
+        }
+    }
+
+    /**
+     * Legt einen einfachen Wert an. Einzeilige Werte ohne Anführungszeichen werden nur mit ihrer Position gemerkt.
+     * Ein solcher Wert steht unverändert in der Datei; wäre er gefaltet, wäre er kürzer als sein Bereich.
+     *
+     * @return Die Nummer des Wertes.
+     */
+    private int scalar(final ScalarEvent scalar) {
+        String value = text(scalar);
+        int start = scalar.getStartMark().getIndex();
+        int end = scalar.getEndMark().getIndex();
+        if (buffer != null && scalar.isPlain() && !value.isEmpty()
+                && end - start == value.codePointCount(0, value.length())) {
+            return add(position(start), position(end), null);
+        }
+        return add(-1, -1, value);
+    }
+
+    /**
+     * Rechnet eine Position des Parsers in Codepoints in eine Byteposition um. Die Positionen werden in aufsteigender
+     * Reihenfolge abgefragt, die Datei wird dafür also insgesamt nur einmal durchlaufen.
+     *
+     * @param index Position in Codepoints.
+     * @return Position in Bytes.
+     */
+    private int position(final int index) {
+        if (!utf8) {
+            return index;
+        }
+        if (index < scannedIndex) {
+            scannedIndex = 0;
+            scannedByte = 0;
+        }
+        while (scannedIndex < index) {
+            byte b = buffer.get(scannedByte);
+            scannedByte += b >= 0 ? 1 : (b & 0xE0) == 0xC0 ? 2 : (b & 0xF0) == 0xE0 ? 3 : 4;
+            scannedIndex++;
+        }
+        return scannedByte;
+    }
+
+    /**
+     * @return Der Wert, wobei {@code ~} und {@code null} ohne Anführungszeichen zu einem leeren Wert werden.
+     */
+    private static String text(final ScalarEvent scalar) {
+        String value = scalar.getValue();
+        return scalar.isPlain() && (value.equals("~") || value.equalsIgnoreCase("null")) ? "" : value;
+    }
+
+    private String valueOf(final int slot) {
+        String value = values[slot];
+        if (value != null) {
+            return value;
+        }
+        byte[] bytes = new byte[ends[slot] - starts[slot]];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(starts[slot]);
+        slice.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    private int add(final int start, final int end, final String value) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        values[size] = value;
+        return size++;
+    }
+
+    private void trim() {
+        starts = Arrays.copyOf(starts, size);
+        ends = Arrays.copyOf(ends, size);
+        values = Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Maskiert Listentrenner, wie es in einer Properties Datei nötig wäre.
+     */
+    private static String escape(final String value) {
+        return value.indexOf(',') < 0 ? value : value.replace(",", "\\,");
+    }
+
+    private static String join(final String prefix, final String name) {
+        if (name.isEmpty()) {
+            return prefix;
+        }
+        return prefix.isEmpty() ? name : prefix + "." + name;
+    }
+
+    /**
+     * Ein offenes Mapping oder eine offene Liste während des Durchlaufs.
+     */
+    private static final class Frame {
+
+        final boolean mapping;
+
+        /**
+         * Vollständiger Schlüssel des Teilbaums.
+         */
+        String prefix;
+
+        /**
+         * Ziel, wenn die Liste die Aliase eines {@code <<} Merge-Schlüssels enthält.
+         */
+        String merge;
+
+        String anchor;
+
+        /**
+         * Anzahl der eingetragenen Schlüssel beim Beginn des Teilbaums.
+         */
+        int log;
+
+        /**
+         * Größer Null, solange ein nicht unterstützter Teilbaum, z.B. ein zusammengesetzter Schlüssel, übersprungen
+         * wird.
+         */
+        int skip;
+
+        /**
+         * Der Schlüssel des nächsten Wertes eines Mappings, {@code null}, wenn der Wert übersprungen wird.
+         */
+        String key;
+
+        boolean hasKey;
+
+        int position;
+
+        /**
+         * Die bisher gelesenen einfachen Werte einer Liste.
+         */
+        StringBuilder joined;
+
+        Frame(final boolean mapping) {
+            this.mapping = mapping;
+        }
+
+        boolean expectsKey() {
+            return mapping && !hasKey;
+        }
+
+        void setKey(final String key) {
+            this.key = key;
+            hasKey = true;
+        }
+
+        /**
+         * @return Name des nächsten Wertes, oder {@code null}, wenn er übersprungen wird.
+         */
+        String nextName() {
+            return mapping ? key : Integer.toString(position);
+        }
+
+        void append(final String value) {
+            if (joined == null) {
+                joined = new StringBuilder();
+            } else {
+                joined.append(',');
+            }
+            joined.append(escape(value));
+        }
+
+        void done() {
+            if (mapping) {
+                hasKey = false;
+                key = null;
+            } else {
+                position++;
+            }
+        }
+    }
+
+    /**
+     * Alle bisher eingetragenen Schlüssel in Reihenfolge, um den Teilbaum eines Ankers zu bestimmen.
+     */
+    private static final class Log {
+
+        private final List<String> keys = new ArrayList<>();
+
+        private int[] slots = new int[64];
+
+        int size() {
+            return keys.size();
+        }
+
+        void add(final String key, final int slot) {
+            if (keys.size() == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+            }
+            slots[keys.size()] = slot;
+            keys.add(key);
+        }
+
+        /**
+         * @param prefix Schlüssel des Teilbaums.
+         * @param from Anzahl der Schlüssel beim Beginn des Teilbaums.
+         * @return Anker mit allen seitdem eingetragenen Schlüsseln.
+         */
+        Anchor anchor(final String prefix, final int from) {
+            int count = keys.size() - from;
+            String[] relative = new String[count];
+            for (int i = 0; i < count; i++) {
+                String key = keys.get(from + i);
+                relative[i] = prefix.isEmpty() ? key : key.length() == prefix.length() ? ""
+                        : key.substring(prefix.length() + 1);
+            }
+            return new Anchor(relative, Arrays.copyOfRange(slots, from, keys.size()));
+        }
+    }
+
+    /**
+     * Ein benannter Knoten, auf den Aliase verweisen können.
+     */
+    private static final class Anchor {
+
+        /**
+         * Nummer des Wertes, wenn der Anker auf einen einfachen Wert zeigt, sonst {@code -1}.
+         */
+        final int slot;
+
+        /**
+         * Schlüssel des Teilbaums relativ zum Anker.
+         */
+        final String[] keys;
+
+        final int[] slots;
+
+        Anchor(final int slot) {
+            this.slot = slot;
+            keys = null;
+            slots = null;
+        }
+
+        Anchor(final String[] keys, final int[] slots) {
+            this.slot = -1;
+            this.keys = keys;
+            this.slots = slots;
+        }
+    }
+}
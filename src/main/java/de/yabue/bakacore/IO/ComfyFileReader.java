@@ -1,18 +1,162 @@
 package de.yabue.bakacore.IO;
 
+import lombok.NonNull;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  * Diese Klasse dient zum komfortablen Auslesen von Dateien. Komfortabel != Performant.
+ * <p>
+ * Für große Dateien gibt es {@link #forEachLine}, {@link #lines} und {@link #forEachBatch}. Sie lesen zeilenweise
+ * mit einem festen Puffer und halten nie mehr als eine Zeile bzw. einen Block im Speicher. Die Datei wird in jedem
+ * Fall geschlossen, auch wenn ein Fehler auftritt.
  */
 public class ComfyFileReader {
 
+    /**
+     * Größe des Lesepuffers in Zeichen.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
     private ComfyFileReader() {}
 
+    /**
+     * Liest alle Zeilen einer UTF-8 Datei in eine Liste. Die ganze Datei landet im Speicher.
+     * @param file Die Datei.
+     * @param list In diese Liste werden die Zeilen geschrieben.
+     * @throws IOException Wenn die Datei nicht gelesen werden kann.
+     */
     public static void readInList(final File file, final List<String> list) throws IOException {
-        Files.lines(file.toPath()).forEach(list::add);
+        forEachLine(file, StandardCharsets.UTF_8, list::add);
+    }
+
+    /**
+     * Übergibt jede Zeile einer Datei nacheinander an einen Consumer.
+     * @param file Die Datei.
+     * @param charset Zeichensatz der Datei.
+     * @param consumer Erhält die Zeilen ohne Zeilenumbruch.
+     * @throws IOException Wenn die Datei nicht gelesen werden kann oder nicht zum Zeichensatz passt.
+     */
+    public static void forEachLine(@NonNull final File file, @NonNull final Charset charset,
+                                   @NonNull final Consumer<String> consumer) throws IOException {
+        try (BufferedReader reader = open(file, charset)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                consumer.accept(line);
+            }
+        }
+    }
+
+    /**
+     * Übergibt die Zeilen einer Datei in Blöcken. Der letzte Block kann kleiner sein.
+     * <p>
+     * Für alle Blöcke wird dieselbe Liste benutzt und nach dem Aufruf geleert. Wer Zeilen behalten will, muss sie
+     * kopieren.
+     * @param file Die Datei.
+     * @param charset Zeichensatz der Datei.
+     * @param batchSize Wie viele Zeilen ein Block höchstens enthält.
+     * @param consumer Erhält die Blöcke.
+     * @throws IOException Wenn die Datei nicht gelesen werden kann oder nicht zum Zeichensatz passt.
+     */
+    public static void forEachBatch(@NonNull final File file, @NonNull final Charset charset, final int batchSize,
+                                    @NonNull final Consumer<List<String>> consumer) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Ein Block muss mindestens eine Zeile enthalten!");
+        }
+        List<String> batch = new ArrayList<>(batchSize);
+        forEachLine(file, charset, line -> {
+            batch.add(line);
+            if (batch.size() == batchSize) {
+                consumer.accept(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+
+    /**
+     * Öffnet eine Datei zum zeilenweisen Lesen. Der Iterator sollte mit try-with-resources genutzt werden; am Ende der
+     * Datei schließt er sich selbst.
+     * @param file Die Datei.
+     * @param charset Zeichensatz der Datei.
+     * @return Ein Iterator über die Zeilen.
+     * @throws IOException Wenn die Datei nicht geöffnet werden kann.
+     */
+    public static LineIterator lines(@NonNull final File file, @NonNull final Charset charset) throws IOException {
+        return new LineIterator(open(file, charset));
+    }
+
+    private static BufferedReader open(final File file, final Charset charset) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(file.toPath()), charset.newDecoder()),
+                BUFFER_SIZE);
+    }
+
+    /**
+     * Iterator über die Zeilen einer Datei, siehe {@link #lines(File, Charset)}. Lesefehler werden als
+     * {@link UncheckedIOException} geworfen.
+     */
+    public static final class LineIterator implements Iterator<String>, Closeable {
+
+        private final BufferedReader reader;
+
+        private String next;
+
+        private boolean closed;
+
+        private LineIterator(final BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (closed) {
+                return false;
+            }
+            try {
+                next = reader.readLine();
+                if (next == null) {
+                    close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = next;
+            next = null;
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                reader.close();
+            }
+        }
     }
 }
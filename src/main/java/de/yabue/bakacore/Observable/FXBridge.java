@@ -0,0 +1,76 @@
+package de.yabue.bakacore.Observable;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import lombok.NonNull;
+
+/**
+ * Verbindet leichtgewichtige Werte mit JavaFX Properties. Das ist die einzige Klasse, die JavaFX benötigt. Sie wird
+ * erst geladen, wenn tatsächlich eine JavaFX Property angefordert wird.
+ * <p>
+ * Jeder Aufruf erzeugt eine neue JavaFX Property, die dauerhaft mit dem Wert verbunden bleibt. Aufrufer sollten das
+ * Ergebnis deshalb zwischenspeichern.
+ *
+ * @author Yannick Bülter
+ */
+public final class FXBridge {
+
+    private FXBridge() {}
+
+    /**
+     * @param value Der Wert, der gespiegelt werden soll.
+     * @return Eine JavaFX Property, die jede Änderung des Wertes übernimmt.
+     */
+    public static ReadOnlyBooleanProperty readOnly(@NonNull final LiteBooleanProperty value) {
+        final SimpleBooleanProperty fx = new SimpleBooleanProperty(value.get());
+        value.addListener((observable, oldValue, newValue) -> fx.set(newValue));
+        return ReadOnlyBooleanProperty.readOnlyBooleanProperty(fx);
+    }
+
+    /**
+     * @param value Der Wert, der verbunden werden soll.
+     * @return Eine JavaFX Property, die in beide Richtungen mit dem Wert verbunden ist.
+     */
+    public static SimpleBooleanProperty bidirectional(@NonNull final LiteBooleanProperty value) {
+        final SimpleBooleanProperty fx = new SimpleBooleanProperty(value.get());
+        value.addListener((observable, oldValue, newValue) -> fx.set(newValue));
+        fx.addListener((observable, oldValue, newValue) -> value.setValue(newValue));
+        return fx;
+    }
+
+    /**
+     * @param value Der Wert, der verbunden werden soll.
+     * @return Eine JavaFX Property, die in beide Richtungen mit dem Wert verbunden ist.
+     */
+    public static SimpleIntegerProperty bidirectional(@NonNull final LiteIntegerProperty value) {
+        final SimpleIntegerProperty fx = new SimpleIntegerProperty(value.get());
+        value.addListener((observable, oldValue, newValue) -> fx.set(newValue));
+        fx.addListener((observable, oldValue, newValue) -> value.set(newValue.intValue()));
+        return fx;
+    }
+
+    /**
+     * @param value Der Wert, der verbunden werden soll.
+     * @return Eine JavaFX Property, die in beide Richtungen mit dem Wert verbunden ist.
+     */
+    public static SimpleDoubleProperty bidirectional(@NonNull final LiteDoubleProperty value) {
+        final SimpleDoubleProperty fx = new SimpleDoubleProperty(value.get());
+        value.addListener((observable, oldValue, newValue) -> fx.set(newValue));
+        fx.addListener((observable, oldValue, newValue) -> value.set(newValue.doubleValue()));
+        return fx;
+    }
+
+    /**
+     * @param value Der Wert, der verbunden werden soll.
+     * @return Eine JavaFX Property, die in beide Richtungen mit dem Wert verbunden ist.
+     */
+    public static SimpleStringProperty bidirectional(@NonNull final LiteStringProperty value) {
+        final SimpleStringProperty fx = new SimpleStringProperty(value.get());
+        value.addListener((observable, oldValue, newValue) -> fx.set(newValue));
+        fx.addListener((observable, oldValue, newValue) -> value.set(newValue));
+        return fx;
+    }
+}
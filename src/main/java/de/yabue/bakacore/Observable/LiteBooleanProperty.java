@@ -0,0 +1,54 @@
+package de.yabue.bakacore.Observable;
+
+/**
+ * Ein beobachtbarer Wahrheitswert ohne JavaFX. Der Wert wird unverpackt gespeichert.
+ *
+ * @author Yannick Bülter
+ */
+public class LiteBooleanProperty extends LiteProperty<Boolean> {
+
+    private boolean value;
+
+    public LiteBooleanProperty() {
+        this(false);
+    }
+
+    /**
+     * @param value Der Startwert.
+     */
+    public LiteBooleanProperty(final boolean value) {
+        this.value = value;
+    }
+
+    /**
+     * @return Der aktuelle Wert.
+     */
+    public boolean get() {
+        return value;
+    }
+
+    /**
+     * Setzt den Wert. Listener werden nur benachrichtigt, wenn sich der Wert tatsächlich ändert.
+     *
+     * @param newValue Der neue Wert.
+     */
+    public void set(final boolean newValue) {
+        boolean oldValue = value;
+        if (oldValue != newValue) {
+            value = newValue;
+            if (hasListeners()) {
+                fireChanged(oldValue, newValue);
+            }
+        }
+    }
+
+    @Override
+    public Boolean getValue() {
+        return value;
+    }
+
+    @Override
+    public void setValue(final Boolean newValue) {
+        set(newValue != null && newValue);
+    }
+}
@@ -0,0 +1,54 @@
+package de.yabue.bakacore.Observable;
+
+/**
+ * Ein beobachtbarer Gleitkommawert ohne JavaFX. Der Wert wird unverpackt gespeichert.
+ *
+ * @author Yannick Bülter
+ */
+public class LiteDoubleProperty extends LiteProperty<Double> {
+
+    private double value;
+
+    public LiteDoubleProperty() {
+        this(0.0);
+    }
+
+    /**
+     * @param value Der Startwert.
+     */
+    public LiteDoubleProperty(final double value) {
+        this.value = value;
+    }
+
+    /**
+     * @return Der aktuelle Wert.
+     */
+    public double get() {
+        return value;
+    }
+
+    /**
+     * Setzt den Wert. Listener werden nur benachrichtigt, wenn sich der Wert tatsächlich ändert.
+     *
+     * @param newValue Der neue Wert.
+     */
+    public void set(final double newValue) {
+        double oldValue = value;
+        if (Double.compare(oldValue, newValue) != 0) {
+            value = newValue;
+            if (hasListeners()) {
+                fireChanged(oldValue, newValue);
+            }
+        }
+    }
+
+    @Override
+    public Double getValue() {
+        return value;
+    }
+
+    @Override
+    public void setValue(final Double newValue) {
+        set(newValue == null ? 0.0 : newValue);
+    }
+}
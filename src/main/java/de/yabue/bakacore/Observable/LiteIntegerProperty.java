@@ -0,0 +1,54 @@
+package de.yabue.bakacore.Observable;
+
+/**
+ * Ein beobachtbarer ganzzahliger Wert ohne JavaFX. Der Wert wird unverpackt gespeichert.
+ *
+ * @author Yannick Bülter
+ */
+public class LiteIntegerProperty extends LiteProperty<Integer> {
+
+    private int value;
+
+    public LiteIntegerProperty() {
+        this(0);
+    }
+
+    /**
+     * @param value Der Startwert.
+     */
+    public LiteIntegerProperty(final int value) {
+        this.value = value;
+    }
+
+    /**
+     * @return Der aktuelle Wert.
+     */
+    public int get() {
+        return value;
+    }
+
+    /**
+     * Setzt den Wert. Listener werden nur benachrichtigt, wenn sich der Wert tatsächlich ändert.
+     *
+     * @param newValue Der neue Wert.
+     */
+    public void set(final int newValue) {
+        int oldValue = value;
+        if (oldValue != newValue) {
+            value = newValue;
+            if (hasListeners()) {
+                fireChanged(oldValue, newValue);
+            }
+        }
+    }
+
+    @Override
+    public Integer getValue() {
+        return value;
+    }
+
+    @Override
+    public void setValue(final Integer newValue) {
+        set(newValue == null ? 0 : newValue);
+    }
+}
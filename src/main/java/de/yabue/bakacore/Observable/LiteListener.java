@@ -0,0 +1,18 @@
+package de.yabue.bakacore.Observable;
+
+/**
+ * Wird benachrichtigt, wenn sich ein {@link LiteObservable} ändert.
+ *
+ * @param <T> Typ des Wertes.
+ * @author Yannick Bülter
+ */
+@FunctionalInterface
+public interface LiteListener<T> {
+
+    /**
+     * @param observable Der Wert, der sich geändert hat.
+     * @param oldValue   Der alte Wert.
+     * @param newValue   Der neue Wert.
+     */
+    void changed(LiteObservable<? extends T> observable, T oldValue, T newValue);
+}
@@ -0,0 +1,25 @@
+package de.yabue.bakacore.Observable;
+
+/**
+ * Ein beobachtbarer Wert, der nur gelesen werden kann.
+ *
+ * @param <T> Typ des Wertes.
+ * @author Yannick Bülter
+ */
+public interface LiteObservable<T> {
+
+    /**
+     * @return Der aktuelle Wert.
+     */
+    T getValue();
+
+    /**
+     * @param listener Wird bei jeder Änderung benachrichtigt.
+     */
+    void addListener(LiteListener<? super T> listener);
+
+    /**
+     * @param listener Ein zuvor hinzugefügter Listener.
+     */
+    void removeListener(LiteListener<? super T> listener);
+}
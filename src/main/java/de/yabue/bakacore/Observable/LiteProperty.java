@@ -0,0 +1,66 @@
+package de.yabue.bakacore.Observable;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Basisklasse für beobachtbare Werte ohne JavaFX. Die Listener liegen in einem Array, das nur beim Hinzufügen und
+ * Entfernen kopiert wird. Solange niemand zuhört, kostet eine Änderung weder Allokationen noch Aufrufe.
+ * Wie bei JavaFX sind die Werte nicht für den gleichzeitigen Zugriff aus mehreren Threads gedacht.
+ *
+ * @param <T> Typ des Wertes.
+ * @author Yannick Bülter
+ */
+public abstract class LiteProperty<T> implements LiteObservable<T> {
+
+    private static final LiteListener<?>[] NONE = new LiteListener<?>[0];
+
+    private LiteListener<?>[] listeners = NONE;
+
+    /**
+     * @param value Der neue Wert.
+     */
+    public abstract void setValue(T value);
+
+    @Override
+    public void addListener(@NonNull final LiteListener<? super T> listener) {
+        LiteListener<?>[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[listeners.length] = listener;
+        listeners = copy;
+    }
+
+    @Override
+    public void removeListener(@NonNull final LiteListener<? super T> listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                LiteListener<?>[] copy = new LiteListener<?>[listeners.length - 1];
+                System.arraycopy(listeners, 0, copy, 0, i);
+                System.arraycopy(listeners, i + 1, copy, i, copy.length - i);
+                listeners = copy.length == 0 ? NONE : copy;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true}, wenn mindestens ein Listener registriert ist.
+     */
+    protected final boolean hasListeners() {
+        return listeners.length > 0;
+    }
+
+    /**
+     * Benachrichtigt alle Listener. Unterklassen sollten vorher mit {@link #hasListeners()} prüfen, ob sich das
+     * Verpacken primitiver Werte überhaupt lohnt.
+     *
+     * @param oldValue Der alte Wert.
+     * @param newValue Der neue Wert.
+     */
+    @SuppressWarnings("unchecked")
+    protected final void fireChanged(final T oldValue, final T newValue) {
+        for (LiteListener<?> listener : listeners) {
+            ((LiteListener<T>) listener).changed(this, oldValue, newValue);
+        }
+    }
+}
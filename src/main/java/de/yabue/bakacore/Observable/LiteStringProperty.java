@@ -0,0 +1,54 @@
+package de.yabue.bakacore.Observable;
+
+/**
+ * Ein beobachtbarer Text ohne JavaFX.
+ *
+ * @author Yannick Bülter
+ */
+public class LiteStringProperty extends LiteProperty<String> {
+
+    private String value;
+
+    public LiteStringProperty() {
+        this(null);
+    }
+
+    /**
+     * @param value Der Startwert.
+     */
+    public LiteStringProperty(final String value) {
+        this.value = value;
+    }
+
+    /**
+     * @return Der aktuelle Wert.
+     */
+    public String get() {
+        return value;
+    }
+
+    /**
+     * Setzt den Wert. Listener werden nur benachrichtigt, wenn sich der Wert tatsächlich ändert.
+     *
+     * @param newValue Der neue Wert.
+     */
+    public void set(final String newValue) {
+        String oldValue = value;
+        if (oldValue == null ? newValue != null : !oldValue.equals(newValue)) {
+            value = newValue;
+            if (hasListeners()) {
+                fireChanged(oldValue, newValue);
+            }
+        }
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public void setValue(final String newValue) {
+        set(newValue);
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Leichtgewichtige, beobachtbare Werte, die ohne JavaFX auskommen. Damit können die Kernklassen auch in Umgebungen
+ * ohne JavaFX (z.B. auf Servern) genutzt werden. {@link de.yabue.bakacore.Observable.FXBridge} verbindet die Werte
+ * bei Bedarf mit JavaFX Properties und ist die einzige Klasse in diesem Paket, die JavaFX benötigt.
+ *
+ * @author Yannick Bülter
+ */
+package de.yabue.bakacore.Observable;
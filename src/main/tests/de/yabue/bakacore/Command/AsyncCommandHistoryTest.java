@@ -0,0 +1,94 @@
+package de.yabue.bakacore.Command;
+
+import de.yabue.bakacore.Command.CommandExceptions.IllegalRedoException;
+import de.yabue.bakacore.Command.CommandExceptions.IllegalUndoException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class AsyncCommandHistoryTest {
+
+    private ExecutorService executor;
+
+    private AsyncCommandHistory history;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        CommandHistoryTest.i = 0;
+        executor = Executors.newFixedThreadPool(4);
+        history = new AsyncCommandHistory(new CommandHistory(1000), executor, Runnable::run);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        CommandHistoryTest.i = 0;
+    }
+
+    @Test
+    public void testOrdering() throws Exception {
+        for (int j = 0; j < 500; j++) {
+            history.execute(new TestHistoryCommand());
+        }
+        history.undo();
+        CompletableFuture<Void> last = history.undo();
+        last.get();
+        Assert.assertEquals(CommandHistoryTest.i, 498);
+        Assert.assertTrue(history.undoProperty().getValue());
+        Assert.assertTrue(history.redoProperty().getValue());
+        history.redo().get();
+        Assert.assertEquals(CommandHistoryTest.i, 499);
+    }
+
+    @Test
+    public void testFailureDoesNotBlockQueue() throws Exception {
+        CompletableFuture<Void> failed = history.execute(new FXCommand() {
+            @Override
+            protected void executeAction() {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            protected void undoAction() {
+            }
+
+            @Override
+            protected void redoAction() {
+            }
+        });
+        history.execute(new TestHistoryCommand()).get();
+        Assert.assertTrue(failed.isCompletedExceptionally());
+        Assert.assertEquals(CommandHistoryTest.i, 1);
+    }
+
+    @Test
+    public void testUndoFailure() throws Exception {
+        TestHistoryCommand command = new TestHistoryCommand();
+        history.execute(command).get();
+        command.undo();
+        try {
+            history.undo().get();
+            Assert.fail("Das Rückgängigmachen hätte fehlschlagen müssen.");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalUndoException);
+        }
+        Assert.assertTrue(history.undoProperty().getValue());
+        command.redo();
+        history.undo().get();
+        command.redo();
+        try {
+            history.redo().get();
+            Assert.fail("Das Wiederholen hätte fehlschlagen müssen.");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalRedoException);
+        }
+        Assert.assertTrue(history.redoProperty().getValue());
+        Assert.assertEquals(CommandHistoryTest.i, 1);
+    }
+}
@@ -81,6 +81,179 @@ public class CommandHistoryTest {
         Assert.assertTrue(commandHistory.redoProperty().getValue());
     }
 
+    @Test
+    public void testMultiLevelRedo() throws Exception {
+        commandHistory.execute(new TestHistoryCommand());
+        commandHistory.execute(new TestHistoryCommand());
+        commandHistory.undo();
+        commandHistory.undo();
+        Assert.assertEquals(i, 0);
+        commandHistory.redo();
+        commandHistory.redo();
+        Assert.assertEquals(i, 2);
+        Assert.assertFalse(commandHistory.redoProperty().getValue());
+    }
+
+    @Test
+    public void testExecuteClearsRedo() throws Exception {
+        commandHistory.execute(new TestHistoryCommand());
+        commandHistory.execute(new TestHistoryCommand());
+        commandHistory.undo();
+        commandHistory.execute(new TestHistoryCommand());
+        Assert.assertFalse(commandHistory.redoProperty().getValue());
+        commandHistory.redo();
+        Assert.assertEquals(i, 2);
+    }
+
+    @Test
+    public void testWrapAround() throws Exception {
+        for (int j = 0; j < 5; j++) {
+            commandHistory.execute(new TestHistoryCommand());
+        }
+        commandHistory.undo();
+        commandHistory.undo();
+        commandHistory.undo();
+        Assert.assertEquals(i, 3);
+        Assert.assertFalse(commandHistory.undoProperty().getValue());
+    }
+
+    @Test
+    public void testWeightBound() throws Exception {
+        CommandHistory history = new CommandHistory(100, 10, command -> 4);
+        history.execute(new TestHistoryCommand());
+        history.execute(new TestHistoryCommand());
+        history.execute(new TestHistoryCommand());
+        Assert.assertEquals(history.getCount(), 2);
+        Assert.assertEquals(history.getTotalWeight(), 8L);
+        Assert.assertEquals(history.getEvictionCount(), 1L);
+        Assert.assertEquals(history.getEvictedWeight(), 4L);
+        history.undo();
+        history.undo();
+        history.undo();
+        Assert.assertEquals(i, 1);
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        commandHistory.execute(new MergingHistoryCommand());
+        commandHistory.execute(new MergingHistoryCommand());
+        commandHistory.execute(new MergingHistoryCommand());
+        Assert.assertEquals(i, 3);
+        Assert.assertEquals(commandHistory.getCount(), 1);
+        commandHistory.undo();
+        Assert.assertEquals(i, 0);
+        commandHistory.redo();
+        Assert.assertEquals(i, 3);
+    }
+
+    @Test
+    public void testMergeWindow() throws Exception {
+        commandHistory.setMergeWindow(1);
+        commandHistory.execute(new MergingHistoryCommand());
+        Thread.sleep(20);
+        commandHistory.execute(new MergingHistoryCommand());
+        Assert.assertEquals(commandHistory.getCount(), 2);
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        commandHistory.beginBatch();
+        for (int j = 0; j < 10; j++) {
+            commandHistory.execute(new TestHistoryCommand());
+        }
+        Assert.assertFalse(commandHistory.undoProperty().getValue());
+        commandHistory.commit();
+        Assert.assertTrue(commandHistory.undoProperty().getValue());
+        Assert.assertEquals(commandHistory.getCount(), 1);
+        commandHistory.undo();
+        Assert.assertEquals(i, 0);
+        commandHistory.redo();
+        Assert.assertEquals(i, 10);
+    }
+
+    @Test
+    public void testBatchRollback() throws Exception {
+        commandHistory.beginBatch();
+        commandHistory.execute(new TestHistoryCommand());
+        commandHistory.execute(new TestHistoryCommand());
+        commandHistory.rollback();
+        Assert.assertEquals(i, 0);
+        Assert.assertEquals(commandHistory.getCount(), 0);
+        Assert.assertFalse(commandHistory.isBatchActive());
+    }
+
+    @Test
+    public void testCompositeFailure() throws Exception {
+        CompositeCommand composite = new CompositeCommand(new TestHistoryCommand(), new TestHistoryCommand(), new FXCommand() {
+            @Override
+            protected void executeAction() {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            protected void undoAction() {
+            }
+
+            @Override
+            protected void redoAction() {
+            }
+        });
+        try {
+            commandHistory.execute(composite);
+            Assert.fail("Die Ausführung hätte fehlschlagen müssen.");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(i, 0);
+        }
+        Assert.assertFalse(commandHistory.undoProperty().getValue());
+    }
+
+    @Test
+    public void testRollbackFailure() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Ausführung");
+        CompositeCommand composite = new CompositeCommand(new TestHistoryCommand(),
+                new FailingHistoryCommand(null, new IllegalStateException("Rückgängig"), null),
+                new TestHistoryCommand(), new FailingHistoryCommand(failure, null, null));
+        try {
+            commandHistory.execute(composite);
+            Assert.fail("Die Ausführung hätte fehlschlagen müssen.");
+        } catch (IllegalStateException e) {
+            Assert.assertSame(e, failure);
+            Assert.assertEquals(e.getSuppressed().length, 1);
+            Assert.assertEquals(e.getSuppressed()[0].getMessage(), "Rückgängig");
+        }
+        Assert.assertEquals(i, 1);
+    }
+
+    @Test
+    public void testCompositeUndoRedoFailure() throws Exception {
+        IllegalStateException undoFailure = new IllegalStateException("Rückgängig");
+        commandHistory.execute(new CompositeCommand(new TestHistoryCommand(),
+                new FailingHistoryCommand(null, undoFailure, null), new TestHistoryCommand()));
+        Assert.assertEquals(i, 3);
+        try {
+            commandHistory.undo();
+            Assert.fail("Das Rückgängigmachen hätte fehlschlagen müssen.");
+        } catch (IllegalStateException e) {
+            Assert.assertSame(e, undoFailure);
+        }
+        Assert.assertEquals(i, 3);
+        Assert.assertEquals(commandHistory.getUndoCount(), 1);
+
+        IllegalStateException redoFailure = new IllegalStateException("Wiederholen");
+        commandHistory.execute(new CompositeCommand(new TestHistoryCommand(),
+                new FailingHistoryCommand(null, null, redoFailure), new TestHistoryCommand()));
+        commandHistory.undo();
+        Assert.assertEquals(i, 3);
+        try {
+            commandHistory.redo();
+            Assert.fail("Das Wiederholen hätte fehlschlagen müssen.");
+        } catch (IllegalStateException e) {
+            Assert.assertSame(e, redoFailure);
+        }
+        Assert.assertEquals(i, 3);
+        Assert.assertEquals(commandHistory.getRedoCount(), 1);
+    }
+
     @Test
     public void testGetSize() throws Exception {
         Assert.assertEquals(commandHistory.getSize(), 2);
@@ -104,4 +277,73 @@ class TestHistoryCommand extends FXCommand {
     protected void redoAction() {
         executeAction();
     }
-}
\ No newline at end of file
+}
+
+class MergingHistoryCommand extends FXCommand {
+
+    private int amount = 1;
+
+    @Override
+    protected boolean mergeWith(final FXCommand next) {
+        if (next instanceof MergingHistoryCommand) {
+            amount += ((MergingHistoryCommand) next).amount;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void executeAction() {
+        CommandHistoryTest.i += amount;
+    }
+
+    @Override
+    protected void undoAction() {
+        CommandHistoryTest.i -= amount;
+    }
+
+    @Override
+    protected void redoAction() {
+        executeAction();
+    }
+}
+
+class FailingHistoryCommand extends FXCommand {
+
+    private final RuntimeException onExecute;
+
+    private final RuntimeException onUndo;
+
+    private final RuntimeException onRedo;
+
+    FailingHistoryCommand(final RuntimeException onExecute, final RuntimeException onUndo,
+                          final RuntimeException onRedo) {
+        this.onExecute = onExecute;
+        this.onUndo = onUndo;
+        this.onRedo = onRedo;
+    }
+
+    @Override
+    protected void executeAction() {
+        if (onExecute != null) {
+            throw onExecute;
+        }
+        CommandHistoryTest.i += 1;
+    }
+
+    @Override
+    protected void undoAction() {
+        if (onUndo != null) {
+            throw onUndo;
+        }
+        CommandHistoryTest.i -= 1;
+    }
+
+    @Override
+    protected void redoAction() {
+        if (onRedo != null) {
+            throw onRedo;
+        }
+        CommandHistoryTest.i += 1;
+    }
+}
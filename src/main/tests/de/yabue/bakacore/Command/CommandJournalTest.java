@@ -0,0 +1,197 @@
+package de.yabue.bakacore.Command;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+public class CommandJournalTest {
+
+    public static int value = 0;
+
+    private File file;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        file = File.createTempFile("bakacore", ".journal");
+        value = 0;
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        file.delete();
+        value = 0;
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        CommandHistory history = new CommandHistory(10);
+        try (CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.GROUP, 4)) {
+            history.setJournal(journal);
+            history.execute(new JournalTestCommand(1));
+            history.execute(new JournalTestCommand(2));
+            history.execute(new JournalTestCommand(3));
+            history.undo();
+        }
+        Assert.assertEquals(value, 3);
+
+        value = 0;
+        CommandHistory recovered = new CommandHistory(10);
+        try (CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.GROUP, 4)) {
+            Assert.assertEquals(journal.recover(recovered, snapshot -> Assert.fail("Kein Checkpoint erwartet.")), 4);
+        }
+        Assert.assertEquals(value, 3);
+        recovered.redo();
+        Assert.assertEquals(value, 6);
+    }
+
+    @Test
+    public void testCheckpoint() throws Exception {
+        CommandHistory history = new CommandHistory(10);
+        try (CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.ALWAYS, 1)) {
+            history.setJournal(journal);
+            history.execute(new JournalTestCommand(5));
+            history.execute(new JournalTestCommand(7));
+            history.undo();
+            journal.checkpoint(history, value);
+            history.execute(new JournalTestCommand(1));
+        }
+        Assert.assertEquals(value, 6);
+
+        value = 0;
+        CommandHistory recovered = new CommandHistory(10);
+        try (CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.ALWAYS, 1)) {
+            Assert.assertEquals(journal.recover(recovered, snapshot -> value = (Integer) snapshot), 2);
+        }
+        Assert.assertEquals(value, 6);
+        Assert.assertEquals(recovered.getUndoCount(), 2);
+        recovered.undo();
+        recovered.undo();
+        Assert.assertEquals(value, 0);
+    }
+
+    @Test
+    public void testTornTail() throws Exception {
+        CommandHistory history = new CommandHistory(10);
+        try (CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.ALWAYS, 1)) {
+            history.setJournal(journal);
+            history.execute(new JournalTestCommand(1));
+            history.execute(new JournalTestCommand(2));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        value = 0;
+        CommandHistory recovered = new CommandHistory(10);
+        try (CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.ALWAYS, 1)) {
+            Assert.assertEquals(journal.recover(recovered, snapshot -> { }), 1);
+            recovered.setJournal(journal);
+            recovered.execute(new JournalTestCommand(4));
+        }
+        value = 0;
+        try (CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.ALWAYS, 1)) {
+            Assert.assertEquals(journal.recover(new CommandHistory(10), snapshot -> { }), 2);
+        }
+        Assert.assertEquals(value, 5);
+    }
+
+    @Test
+    public void testMergeWindowReplay() throws Exception {
+        CommandHistory history = new CommandHistory(10);
+        history.setMergeWindow(50);
+        try (CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.ALWAYS, 1)) {
+            history.setJournal(journal);
+            history.execute(new MergingJournalCommand(1));
+            Thread.sleep(150);
+            history.execute(new MergingJournalCommand(2));
+            history.execute(new MergingJournalCommand(4));
+            history.undo();
+        }
+        Assert.assertEquals(value, 1);
+
+        value = 0;
+        CommandHistory recovered = new CommandHistory(10);
+        recovered.setMergeWindow(50);
+        try (CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.ALWAYS, 1)) {
+            Assert.assertEquals(journal.recover(recovered, snapshot -> { }), 4);
+        }
+        Assert.assertEquals(value, 1);
+        Assert.assertEquals(recovered.getUndoCount(), 1);
+        Assert.assertEquals(recovered.getRedoCount(), 1);
+        recovered.redo();
+        Assert.assertEquals(value, 7);
+    }
+
+    @Test
+    public void testGroupDelay() throws Exception {
+        CommandHistory history = new CommandHistory(10);
+        try (CommandJournal journal = new CommandJournal(file, JournalSyncPolicy.GROUP, 100, 50)) {
+            history.setJournal(journal);
+            history.execute(new JournalTestCommand(1));
+            for (int j = 0; j < 100 && file.length() == 0; j++) {
+                Thread.sleep(50);
+            }
+            Assert.assertTrue(file.length() > 0);
+        }
+    }
+}
+
+class JournalTestCommand extends FXCommand {
+
+    private final int amount;
+
+    JournalTestCommand(final int amount) {
+        this.amount = amount;
+    }
+
+    @Override
+    protected void executeAction() {
+        CommandJournalTest.value += amount;
+    }
+
+    @Override
+    protected void undoAction() {
+        CommandJournalTest.value -= amount;
+    }
+
+    @Override
+    protected void redoAction() {
+        executeAction();
+    }
+}
+
+class MergingJournalCommand extends FXCommand {
+
+    private int amount;
+
+    MergingJournalCommand(final int amount) {
+        this.amount = amount;
+    }
+
+    @Override
+    protected boolean mergeWith(final FXCommand next) {
+        if (next instanceof MergingJournalCommand) {
+            amount += ((MergingJournalCommand) next).amount;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void executeAction() {
+        CommandJournalTest.value += amount;
+    }
+
+    @Override
+    protected void undoAction() {
+        CommandJournalTest.value -= amount;
+    }
+
+    @Override
+    protected void redoAction() {
+        executeAction();
+    }
+}
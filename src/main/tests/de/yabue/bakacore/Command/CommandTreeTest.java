@@ -0,0 +1,68 @@
+package de.yabue.bakacore.Command;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class CommandTreeTest {
+
+    private CommandTree tree;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        tree = new CommandTree();
+        CommandHistoryTest.i = 0;
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        CommandHistoryTest.i = 0;
+    }
+
+    @Test
+    public void testBranching() throws Exception {
+        tree.execute(new TestHistoryCommand());
+        CommandNode first = tree.execute(new TestHistoryCommand());
+        tree.undo();
+        CommandNode second = tree.execute(new TestHistoryCommand());
+        Assert.assertEquals(first.getParent().getChildren().size(), 2);
+        Assert.assertSame(second.getParent(), first.getParent());
+        tree.undo();
+        tree.redo();
+        Assert.assertSame(tree.getCurrent(), second);
+    }
+
+    @Test
+    public void testJumpTo() throws Exception {
+        CommandNode a = tree.execute(new TestHistoryCommand());
+        CommandNode b = tree.execute(new TestHistoryCommand());
+        CommandNode c = tree.execute(new TestHistoryCommand());
+        tree.undo();
+        tree.undo();
+        CommandNode d = tree.execute(new TestHistoryCommand());
+        CommandNode e = tree.execute(new TestHistoryCommand());
+        Assert.assertEquals(CommandHistoryTest.i, 3);
+        tree.jumpTo(c);
+        Assert.assertSame(tree.getCurrent(), c);
+        Assert.assertEquals(CommandHistoryTest.i, 3);
+        tree.jumpTo(tree.getRoot());
+        Assert.assertEquals(CommandHistoryTest.i, 0);
+        Assert.assertFalse(tree.undoProperty().getValue());
+        Assert.assertTrue(tree.redoProperty().getValue());
+        tree.redo();
+        Assert.assertSame(tree.getCurrent(), a);
+        tree.redo();
+        Assert.assertSame(tree.getCurrent(), b);
+        tree.jumpTo(e);
+        Assert.assertSame(tree.getCurrent(), e);
+        Assert.assertSame(e.getParent(), d);
+        Assert.assertEquals(CommandHistoryTest.i, 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testForeignNode() throws Exception {
+        CommandNode foreign = new CommandTree().execute(new TestHistoryCommand());
+        tree.jumpTo(foreign);
+    }
+}
@@ -0,0 +1,160 @@
+package de.yabue.bakacore.Command;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Belastungstests für {@link ConcurrentCommandHistory} mit vielen gleichzeitigen Produzenten.
+ */
+public class ConcurrentCommandHistoryTest {
+
+    private static final int THREADS = 8;
+
+    private static final int COMMANDS = 5000;
+
+    public static final AtomicInteger value = new AtomicInteger();
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        value.set(0);
+    }
+
+    @Test
+    public void testConcurrentExecute() throws Exception {
+        ConcurrentCommandHistory history = new ConcurrentCommandHistory(THREADS * COMMANDS);
+        runConcurrently(() -> {
+            for (int j = 0; j < COMMANDS; j++) {
+                history.execute(new ConcurrentTestCommand());
+            }
+        });
+        Assert.assertEquals(value.get(), THREADS * COMMANDS);
+        Assert.assertEquals(history.getUndoCount(), THREADS * COMMANDS);
+        while (history.undo()) {
+            // alles rückgängig machen
+        }
+        Assert.assertEquals(value.get(), 0);
+        Assert.assertEquals(history.getRedoCount(), THREADS * COMMANDS);
+    }
+
+    @Test
+    public void testBoundedConcurrentExecute() throws Exception {
+        ConcurrentCommandHistory history = new ConcurrentCommandHistory(100);
+        runConcurrently(() -> {
+            for (int j = 0; j < COMMANDS; j++) {
+                history.execute(new ConcurrentTestCommand());
+            }
+        });
+        Assert.assertEquals(history.getUndoCount(), 100);
+        Assert.assertEquals(history.getEvictionCount(), (long) THREADS * COMMANDS - 100);
+        while (history.undo()) {
+            // alles rückgängig machen
+        }
+        Assert.assertEquals(value.get(), THREADS * COMMANDS - 100);
+    }
+
+    @Test
+    public void testMixedProducersAndConsumers() throws Exception {
+        ConcurrentCommandHistory history = new ConcurrentCommandHistory(1000);
+        AtomicInteger undone = new AtomicInteger();
+        AtomicInteger redone = new AtomicInteger();
+        AtomicInteger turn = new AtomicInteger();
+        runConcurrently(() -> {
+            int role = turn.getAndIncrement() % 3;
+            for (int j = 0; j < COMMANDS; j++) {
+                if (role == 0) {
+                    history.execute(new ConcurrentTestCommand());
+                } else if (role == 1) {
+                    if (history.undo()) {
+                        undone.incrementAndGet();
+                    }
+                } else if (history.redo()) {
+                    redone.incrementAndGet();
+                }
+            }
+        });
+        int executed = ((THREADS + 2) / 3) * COMMANDS;
+        Assert.assertEquals(value.get(), executed - undone.get() + redone.get());
+        Assert.assertTrue(history.getUndoCount() <= 1000);
+    }
+
+    @Test
+    public void testFailedUndoKeepsCommand() throws Exception {
+        ConcurrentCommandHistory history = new ConcurrentCommandHistory(10);
+        FailingUndoCommand failing = new FailingUndoCommand();
+        history.execute(new ConcurrentTestCommand());
+        history.execute(failing);
+        try {
+            history.undo();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // erwartet
+        }
+        Assert.assertEquals(history.getUndoCount(), 2);
+        Assert.assertTrue(history.undo());
+        Assert.assertTrue(history.undo());
+        Assert.assertEquals(value.get(), 0);
+    }
+
+    private static void runConcurrently(final Runnable task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue(errors.isEmpty(), errors.toString());
+    }
+}
+
+class ConcurrentTestCommand extends FXCommand {
+
+    @Override
+    protected void executeAction() {
+        ConcurrentCommandHistoryTest.value.incrementAndGet();
+    }
+
+    @Override
+    protected void undoAction() {
+        ConcurrentCommandHistoryTest.value.decrementAndGet();
+    }
+
+    @Override
+    protected void redoAction() {
+        executeAction();
+    }
+}
+
+class FailingUndoCommand extends ConcurrentTestCommand {
+
+    private boolean failed;
+
+    @Override
+    protected void undoAction() {
+        if (!failed) {
+            failed = true;
+            throw new IllegalStateException("Undo fehlgeschlagen");
+        }
+        super.undoAction();
+    }
+}
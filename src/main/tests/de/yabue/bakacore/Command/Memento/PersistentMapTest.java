@@ -0,0 +1,111 @@
+package de.yabue.bakacore.Command.Memento;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PersistentMapTest {
+
+    @Test
+    public void testPutGetRemove() throws Exception {
+        PersistentMap<String, Integer> empty = PersistentMap.empty();
+        PersistentMap<String, Integer> one = empty.put("a", 1);
+        PersistentMap<String, Integer> two = one.put("b", 2);
+        Assert.assertEquals(empty.size(), 0);
+        Assert.assertEquals(one.size(), 1);
+        Assert.assertEquals(two.size(), 2);
+        Assert.assertNull(one.get("b"));
+        Assert.assertEquals(two.get("b"), (Integer) 2);
+        Assert.assertEquals(two.remove("a").size(), 1);
+        Assert.assertEquals(two.get("a"), (Integer) 1);
+        Assert.assertSame(two.put("a", 1), two);
+    }
+
+    @Test
+    public void testCollisions() throws Exception {
+        PersistentMap<Collider, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 10; i++) {
+            map = map.put(new Collider(i), i);
+        }
+        Assert.assertEquals(map.size(), 10);
+        Assert.assertEquals(map.get(new Collider(7)), (Integer) 7);
+        map = map.remove(new Collider(7));
+        Assert.assertFalse(map.containsKey(new Collider(7)));
+        Assert.assertEquals(map.size(), 9);
+    }
+
+    @Test
+    public void testAgainstHashMap() throws Exception {
+        Random random = new Random(42);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentMap<Integer, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+        }
+        Assert.assertEquals(map.size(), expected.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            Assert.assertEquals(map.get(entry.getKey()), entry.getValue());
+        }
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        Assert.assertEquals(visited, expected);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSerialization() throws Exception {
+        PersistentMap<String, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 1000; i++) {
+            map = map.put("k" + i, i);
+        }
+        PersistentMap<String, Integer> changed = map.put("k1", -1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+            out.writeObject(changed);
+            out.writeObject(PersistentMap.empty());
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            PersistentMap<String, Integer> read = (PersistentMap<String, Integer>) in.readObject();
+            PersistentMap<String, Integer> readChanged = (PersistentMap<String, Integer>) in.readObject();
+            Assert.assertEquals(read.size(), 1000);
+            Assert.assertEquals(read.get("k999"), (Integer) 999);
+            Assert.assertEquals(readChanged.get("k1"), (Integer) (-1));
+            Assert.assertEquals(read.remove("k5").size(), 999);
+            Assert.assertSame(in.readObject(), PersistentMap.empty());
+        }
+    }
+
+    private static final class Collider {
+
+        private final int id;
+
+        private Collider(final int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 17;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Collider && ((Collider) other).id == id;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package de.yabue.bakacore.Command.Memento;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PersistentVectorTest {
+
+    @Test
+    public void testAppendAndGet() throws Exception {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 40000; i++) {
+            vector = vector.append(i);
+        }
+        Assert.assertEquals(vector.size(), 40000);
+        for (int i = 0; i < 40000; i++) {
+            Assert.assertEquals(vector.get(i), (Integer) i);
+        }
+    }
+
+    @Test
+    public void testStructuralSharing() throws Exception {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 100; i++) {
+            vector = vector.append(i);
+        }
+        PersistentVector<Integer> changed = vector.set(50, -1);
+        Assert.assertEquals(vector.get(50), (Integer) 50);
+        Assert.assertEquals(changed.get(50), (Integer) (-1));
+        Assert.assertEquals(changed.get(99), (Integer) 99);
+    }
+
+    @Test
+    public void testRemoveLast() throws Exception {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 1100; i++) {
+            vector = vector.append(i);
+        }
+        for (int i = 1099; i >= 0; i--) {
+            Assert.assertEquals(vector.get(vector.size() - 1), (Integer) i);
+            vector = vector.removeLast();
+        }
+        Assert.assertTrue(vector.isEmpty());
+        vector = vector.append(7);
+        Assert.assertEquals(vector.get(0), (Integer) 7);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() throws Exception {
+        PersistentVector.empty().append(1).get(1);
+    }
+}
@@ -0,0 +1,64 @@
+package de.yabue.bakacore.Configurations;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests für {@link LayeredConfiguration}.
+ */
+public class LayeredConfigurationTest {
+
+    private LayeredConfiguration layered;
+
+    private ObservableConfiguration configuration;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("zahl", 1);
+        defaults.put("name", "standard");
+        configuration = new ObservableConfiguration();
+        configuration.setIntegerProperty("zahl", 2);
+        layered = new LayeredConfiguration();
+        layered.addDefaults(defaults);
+        layered.addConfiguration(configuration);
+    }
+
+    @Test
+    public void testOverride() throws Exception {
+        Assert.assertEquals(layered.getIntValue("zahl", 0), 2);
+        Assert.assertEquals(layered.getString("name", ""), "standard");
+        Assert.assertEquals(layered.getString("fehlt", "x"), "x");
+    }
+
+    @Test
+    public void testIncrementalUpdate() throws Exception {
+        Set<String> changed = new HashSet<>();
+        layered.addConfigurationListener(changed::addAll);
+        configuration.setStringProperty("name", "baka");
+        Assert.assertEquals(layered.getString("name", ""), "baka");
+        Assert.assertEquals(changed.size(), 1);
+        Assert.assertTrue(changed.contains("name"));
+    }
+
+    @Test
+    public void testSystemProperties() throws Exception {
+        layered.addSystemProperties();
+        System.setProperty("zahl", "3");
+        try {
+            Assert.assertEquals(layered.getIntValue("zahl", 0), 2);
+            layered.refresh();
+            Assert.assertEquals(layered.getIntValue("zahl", 0), 3);
+        } finally {
+            System.clearProperty("zahl");
+        }
+        layered.refresh();
+        Assert.assertEquals(layered.getIntValue("zahl", 0), 2);
+    }
+}
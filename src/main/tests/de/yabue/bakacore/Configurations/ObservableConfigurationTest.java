@@ -0,0 +1,582 @@
+package de.yabue.bakacore.Configurations;
+
+import de.yabue.bakacore.Observable.LiteIntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import org.apache.commons.configuration.ConversionException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests für {@link ObservableConfiguration}.
+ */
+public class ObservableConfigurationTest {
+
+    private static final int THREADS = 8;
+
+    private ObservableConfiguration configuration;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        configuration = new ObservableConfiguration();
+    }
+
+    @Test
+    public void testDefaultValue() throws Exception {
+        Assert.assertEquals(configuration.getStringProperty("name", "baka").get(), "baka");
+        Assert.assertEquals(configuration.getInteger("zahl", 3), Integer.valueOf(3));
+    }
+
+    @Test
+    public void testSetUpdatesProperty() throws Exception {
+        SimpleIntegerProperty property = configuration.getIntegerProperty("zahl", 1);
+        Assert.assertSame(configuration.setIntegerProperty("zahl", 5), property);
+        Assert.assertEquals(property.get(), 5);
+        Assert.assertEquals(configuration.getLiteIntegerProperty("zahl", 0).get(), 5);
+    }
+
+    @Test
+    public void testSetWithoutProperty() throws Exception {
+        LiteIntegerProperty lite = configuration.getLiteIntegerProperty("zahl", 1);
+        configuration.setInteger("zahl", 5);
+        Assert.assertEquals(lite.get(), 5);
+        Assert.assertEquals(configuration.getPropertyRegistry().size(), 0);
+        SimpleIntegerProperty property = configuration.getIntegerProperty("zahl", 1);
+        configuration.setInteger("zahl", 6);
+        Assert.assertEquals(property.get(), 6);
+    }
+
+    @Test
+    public void testPrimitiveValues() throws Exception {
+        Assert.assertEquals(configuration.getIntValue("zahl", 7), 7);
+        configuration.setIntegerProperty("zahl", 42);
+        Assert.assertEquals(configuration.getIntValue("zahl", 7), 42);
+        Assert.assertEquals(configuration.getDoubleValue("zahl", 0), 42.0);
+        configuration.setStringProperty("schalter", "yes");
+        Assert.assertTrue(configuration.getBooleanValue("schalter", false));
+    }
+
+    @Test
+    public void testSetEvaluatesLikeLookup() throws Exception {
+        configuration.setString("pfad", "${basis}/daten");
+        configuration.setString("basis", "/opt");
+        Assert.assertEquals(configuration.getString("pfad", ""), "/opt/daten");
+        configuration.setString("basis", "/srv");
+        Assert.assertEquals(configuration.getString("pfad", ""), "/srv/daten");
+        configuration.setString("liste", "a,b");
+        Assert.assertEquals(configuration.getString("liste", ""), "a");
+    }
+
+    @Test(expectedExceptions = ConversionException.class)
+    public void testConversionError() throws Exception {
+        configuration.setStringProperty("zahl", "baka");
+        configuration.getIntValue("zahl", 0);
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        File file = File.createTempFile("bakacore", ".properties");
+        file.deleteOnExit();
+        write(file, "zahl=1\nname=baka\n");
+        ObservableConfiguration fromFile = new ObservableConfiguration(file, false);
+        SimpleIntegerProperty zahl = fromFile.getIntegerProperty("zahl", 0);
+        SimpleStringProperty name = fromFile.getStringProperty("name", "");
+        int[] changes = new int[1];
+        name.addListener((observable, oldValue, newValue) -> changes[0]++);
+        write(file, "zahl=2\nname=baka\n");
+        fromFile.reload();
+        Assert.assertEquals(zahl.get(), 2);
+        Assert.assertEquals(fromFile.getIntValue("zahl", 0), 2);
+        Assert.assertEquals(changes[0], 0);
+    }
+
+    @Test
+    public void testHotReload() throws Exception {
+        File file = File.createTempFile("bakacore", ".properties");
+        file.deleteOnExit();
+        write(file, "zahl=1\n");
+        ObservableConfiguration fromFile = new ObservableConfiguration(file, false);
+        SimpleIntegerProperty zahl = fromFile.getIntegerProperty("zahl", 0);
+        CountDownLatch changed = new CountDownLatch(1);
+        zahl.addListener((observable, oldValue, newValue) -> changed.countDown());
+        fromFile.enableHotReload(50);
+        try {
+            write(file, "zahl=3\n");
+            Assert.assertTrue(changed.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(zahl.get(), 3);
+        } finally {
+            fromFile.disableHotReload();
+        }
+    }
+
+    @Test
+    public void testWriteBehind() throws Exception {
+        File file = File.createTempFile("bakacore", ".properties");
+        file.deleteOnExit();
+        write(file, "");
+        ObservableConfiguration fromFile = new ObservableConfiguration(file, true);
+        fromFile.enableWriteBehind(60000, 3);
+        try {
+            fromFile.setIntegerProperty("a", 1);
+            fromFile.setIntegerProperty("b", 2);
+            Assert.assertEquals(file.length(), 0L);
+            fromFile.flush();
+            Assert.assertEquals(new ObservableConfiguration(file, false).getIntValue("b", 0), 2);
+            fromFile.setIntegerProperty("c", 3);
+            fromFile.setIntegerProperty("d", 4);
+            fromFile.setIntegerProperty("e", 5);
+            for (int j = 0; j < 100 && new ObservableConfiguration(file, false).getIntValue("e", 0) != 5; j++) {
+                Thread.sleep(50);
+            }
+            Assert.assertEquals(new ObservableConfiguration(file, false).getIntValue("e", 0), 5);
+        } finally {
+            fromFile.disableWriteBehind();
+        }
+    }
+
+    @Test
+    public void testReloadKeepsPendingChanges() throws Exception {
+        File file = File.createTempFile("bakacore", ".properties");
+        file.deleteOnExit();
+        write(file, "a=1\nb=1\n");
+        ObservableConfiguration fromFile = new ObservableConfiguration(file, true);
+        fromFile.enableWriteBehind(60000, 100);
+        try {
+            fromFile.setInteger("a", 2);
+            write(file, "a=1\nb=5\n");
+            fromFile.reload();
+            Assert.assertEquals(fromFile.getIntValue("a", 0), 2);
+            Assert.assertEquals(fromFile.getIntValue("b", 0), 5);
+            fromFile.flush();
+            ObservableConfiguration saved = new ObservableConfiguration(file, false);
+            Assert.assertEquals(saved.getIntValue("a", 0), 2);
+            Assert.assertEquals(saved.getIntValue("b", 0), 5);
+        } finally {
+            fromFile.disableWriteBehind();
+        }
+    }
+
+    @Test
+    public void testMapped() throws Exception {
+        File file = File.createTempFile("bakacore", ".properties");
+        file.deleteOnExit();
+        Files.write(file.toPath(), ("# Kommentar\n! auch Kommentar\nzahl = 42\nname:baka\n"
+                + "lang=eins \\\n    zwei\nescape=a\\tb\\u00e4\numlaut=\u00e4\nleer\n").getBytes(StandardCharsets.UTF_8));
+        ObservableConfiguration mapped = ObservableConfiguration.mapped(file, false, "UTF-8");
+        Assert.assertEquals(mapped.getIntValue("zahl", 0), 42);
+        Assert.assertEquals(mapped.getString("name", ""), "baka");
+        Assert.assertEquals(mapped.getString("lang", ""), "eins zwei");
+        Assert.assertEquals(mapped.getString("escape", ""), "a\tb\u00e4");
+        Assert.assertEquals(mapped.getString("umlaut", ""), "\u00e4");
+        Assert.assertEquals(mapped.getString("leer", "x"), "");
+        Assert.assertEquals(mapped.getString("fehlt", "x"), "x");
+        mapped.setIntegerProperty("zahl", 7);
+        Assert.assertEquals(mapped.getString("name", ""), "baka");
+        Assert.assertEquals(mapped.getIntValue("zahl", 0), 7);
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        File file = File.createTempFile("bakacore", ".properties");
+        File snapshot = new File(file.getPath() + ".bin");
+        file.deleteOnExit();
+        snapshot.deleteOnExit();
+        write(file, "zahl=42\nschalter=on\nliste=a,b\nname=baka\n");
+        ObservableConfiguration.fromSnapshot(file, snapshot, false, null);
+        Assert.assertTrue(snapshot.isFile());
+        ObservableConfiguration compiled = ObservableConfiguration.fromSnapshot(file, snapshot, false, null);
+        Assert.assertEquals(compiled.getIntValue("zahl", 0), 42);
+        Assert.assertTrue(compiled.getBooleanValue("schalter", false));
+        Assert.assertEquals(compiled.getString("name", ""), "baka");
+        Assert.assertEquals(compiled.getString("fehlt", "x"), "x");
+        Assert.assertEquals(compiled.getString("liste", ""), "a");
+        write(file, "zahl=43\n");
+        Assert.assertTrue(file.setLastModified(file.lastModified() + 2000));
+        Assert.assertEquals(ObservableConfiguration.fromSnapshot(file, snapshot, false, null).getIntValue("zahl", 0), 43);
+    }
+
+    @Test
+    public void testSnapshotValidation() throws Exception {
+        File file = File.createTempFile("bakacore", ".properties");
+        File snapshot = new File(file.getPath() + ".bin");
+        file.deleteOnExit();
+        snapshot.deleteOnExit();
+        write(file, "zahl=42\nname=baka\n");
+        ObservableConfiguration.fromSnapshot(file, snapshot, false, null);
+        long modified = file.lastModified() + 2000;
+        Assert.assertTrue(file.setLastModified(modified));
+        Assert.assertEquals(ObservableConfiguration.fromSnapshot(file, snapshot, false, null).getIntValue("zahl", 0), 42);
+        try (RandomAccessFile raf = new RandomAccessFile(snapshot, "rw")) {
+            raf.seek(8);
+            Assert.assertEquals(raf.readLong(), file.lastModified());
+            raf.seek(40);
+            raf.writeInt(Integer.MAX_VALUE);
+        }
+        Assert.assertEquals(ObservableConfiguration.fromSnapshot(file, snapshot, false, null).getString("name", ""), "baka");
+    }
+
+    @Test
+    public void testSnapshotCharset() throws Exception {
+        File file = File.createTempFile("bakacore", ".properties");
+        File snapshot = new File(file.getPath() + ".bin");
+        file.deleteOnExit();
+        snapshot.deleteOnExit();
+        Files.write(file.toPath(), "name=grüße\n".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(ObservableConfiguration.fromSnapshot(file, snapshot, false, null).getString("name", ""),
+                new String("grüße".getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1));
+        Assert.assertEquals(ObservableConfiguration.fromSnapshot(file, snapshot, false, "UTF-8").getString("name", ""),
+                "grüße");
+        Assert.assertEquals(ObservableConfiguration.fromSnapshot(file, snapshot, false, "UTF-8").getString("name", ""),
+                "grüße");
+    }
+
+    @Test
+    public void testPrefix() throws Exception {
+        configuration.setIntegerProperty("db.pool.size", 10);
+        configuration.setIntegerProperty("db.pool.timeout", 30);
+        configuration.setStringProperty("db.url", "jdbc:baka");
+        configuration.setBooleanProperty("feature.x", true);
+        SortedSet<String> keys = configuration.getKeys("db.pool.");
+        Assert.assertEquals(keys.size(), 2);
+        Assert.assertEquals(keys.first(), "db.pool.size");
+        configuration.setIntegerProperty("db.pool.max", 50);
+        Assert.assertEquals(keys.size(), 3);
+        SubConfiguration pool = configuration.subset("db.").subset("pool.");
+        Assert.assertEquals(pool.getIntValue("max", 0), 50);
+        Set<String> changed = new HashSet<>();
+        pool.addConfigurationListener(changed::addAll);
+        configuration.setStringProperty("db.url", "jdbc:yabue");
+        configuration.setIntegerProperty("db.pool.size", 20);
+        Assert.assertEquals(changed, Collections.singleton("db.pool.size"));
+        Assert.assertEquals(configuration.getKeys("").size(), 5);
+    }
+
+    @Test
+    public void testConcurrentCreateOnce() throws Exception {
+        configuration.setStringProperty("name", "baka");
+        SimpleStringProperty[] seen = new SimpleStringProperty[THREADS];
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            final int index = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 1000; j++) {
+                    configuration.setIntegerProperty("zahl" + j % 10, j);
+                    seen[index] = configuration.getStringProperty("name", "");
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (SimpleStringProperty property : seen) {
+            Assert.assertSame(property, seen[0]);
+        }
+        Assert.assertEquals(seen[0].get(), "baka");
+    }
+
+    @Test
+    public void testWeakRegistry() throws Exception {
+        configuration.setPropertyRegistryMode(RegistryMode.WEAK, 0);
+        SimpleStringProperty held = configuration.getStringProperty("gehalten", "a");
+        for (int i = 0; i < 1000; i++) {
+            configuration.getStringProperty("mandant." + i, "b");
+        }
+        PropertyRegistry<?> registry = configuration.getPropertyRegistry();
+        for (int i = 0; i < 50 && registry.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertSame(configuration.getStringProperty("gehalten", "x"), held);
+        Assert.assertTrue(registry.size() < 1001);
+        Assert.assertTrue(registry.getCollectedCount() > 0);
+    }
+
+    @Test
+    public void testBoundedRegistry() throws Exception {
+        configuration.setPropertyRegistryMode(RegistryMode.STRONG, 10);
+        SimpleStringProperty hot = configuration.getStringProperty("heiss", "a");
+        for (int i = 0; i < 100; i++) {
+            configuration.getStringProperty("kalt." + i, "b");
+            Assert.assertSame(configuration.getStringProperty("heiss", "a"), hot);
+        }
+        PropertyRegistry<?> registry = configuration.getPropertyRegistry();
+        Assert.assertTrue(registry.size() <= 10);
+        Assert.assertEquals(registry.getMissCount(), 101L);
+        Assert.assertEquals(registry.getHitCount(), 100L);
+        Assert.assertTrue(registry.getEvictionCount() >= 91);
+    }
+
+    @Test
+    public void testBinding() throws Exception {
+        List<Runnable> pulses = new ArrayList<>();
+        List<Set<String>> events = new ArrayList<>();
+        configuration.enableBinding(pulses::add);
+        configuration.addConfigurationListener(events::add);
+        SimpleIntegerProperty property = configuration.getIntegerProperty("zahl", 1);
+        LiteIntegerProperty lite = configuration.getLiteIntegerProperty("zahl", 1);
+        property.set(2);
+        property.set(3);
+        lite.set(4);
+        Assert.assertEquals(pulses.size(), 1);
+        Assert.assertEquals(configuration.getIntValue("zahl", 0), 0);
+        pulses.remove(0).run();
+        Assert.assertEquals(configuration.getIntValue("zahl", 0), 4);
+        Assert.assertEquals(property.get(), 4);
+        Assert.assertEquals(events, Collections.singletonList(Collections.singleton("zahl")));
+        configuration.setIntegerProperty("zahl", 5);
+        Assert.assertTrue(pulses.isEmpty());
+        configuration.disableBinding();
+        property.set(6);
+        Assert.assertTrue(pulses.isEmpty());
+        Assert.assertEquals(configuration.getIntValue("zahl", 0), 5);
+    }
+
+    @Test
+    public void testBindingWindow() throws Exception {
+        List<Runnable> notifications = new ArrayList<>();
+        SimpleIntegerProperty property = configuration.getIntegerProperty("zahl", 1);
+        LiteIntegerProperty lite = configuration.getLiteIntegerProperty("zahl", 1);
+        configuration.enableBinding(60_000, notifications::add);
+        lite.set(2);
+        configuration.setInteger("zahl", 7);
+        configuration.disableBinding();
+        Assert.assertEquals(configuration.getIntValue("zahl", 0), 7);
+        Assert.assertTrue(notifications.isEmpty());
+        configuration.enableBinding(60_000, notifications::add);
+        lite.set(8);
+        configuration.disableBinding();
+        Assert.assertEquals(configuration.getIntValue("zahl", 0), 8);
+        Assert.assertEquals(property.get(), 7);
+        Assert.assertEquals(notifications.size(), 1);
+        notifications.remove(0).run();
+        Assert.assertEquals(property.get(), 8);
+    }
+
+    @Test(timeOut = 10_000)
+    public void testListenerOutsideLock() throws Exception {
+        LiteIntegerProperty lite = configuration.getLiteIntegerProperty("zahl", 1);
+        lite.addListener((observable, oldValue, newValue) -> {
+            Thread writer = new Thread(() -> {
+                try (ConfigurationTransaction transaction = configuration.beginTransaction()) {
+                    transaction.setInteger("andere", newValue).commit();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            writer.start();
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        configuration.setInteger("zahl", 5);
+        Assert.assertEquals(configuration.getIntValue("andere", 0), 5);
+    }
+
+    @Test(timeOut = 30_000)
+    public void testCommitVisibility() throws Exception {
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= 2000; i++) {
+                try (ConfigurationTransaction transaction = configuration.beginTransaction()) {
+                    transaction.setInteger("erst", i).setInteger("dann", i).commit();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            int first = configuration.getIntValue("erst", 0);
+            int then = configuration.getIntValue("dann", 0);
+            Assert.assertTrue(then >= first, first + " vor " + then);
+        }
+        writer.join();
+        Assert.assertEquals(configuration.getIntValue("dann", 0), 2000);
+    }
+
+    @Test
+    public void testTransaction() throws Exception {
+        File file = File.createTempFile("bakacore", ".properties");
+        file.deleteOnExit();
+        write(file, "a=1\nb=1\n");
+        ObservableConfiguration fromFile = new ObservableConfiguration(file, true);
+        List<Set<String>> events = new ArrayList<>();
+        fromFile.addConfigurationListener(events::add);
+        SimpleIntegerProperty a = fromFile.getIntegerProperty("a", 0);
+        try (ConfigurationTransaction transaction = fromFile.beginTransaction()) {
+            transaction.setInteger("a", 2).setInteger("b", 2).setString("c", "neu");
+            Assert.assertEquals(fromFile.getIntValue("a", 0), 1);
+            transaction.commit();
+        }
+        Assert.assertEquals(a.get(), 2);
+        Assert.assertEquals(events.size(), 1);
+        Assert.assertEquals(events.get(0), new HashSet<>(Arrays.asList("a", "b", "c")));
+        Assert.assertEquals(fromFile.readAtomically(() -> fromFile.getIntValue("a", 0) + fromFile.getIntValue("b", 0)),
+                Integer.valueOf(4));
+        String saved = new String(Files.readAllBytes(file.toPath()), StandardCharsets.ISO_8859_1);
+        Assert.assertTrue(saved.contains("c=neu"));
+
+        try (ConfigurationTransaction transaction = fromFile.beginTransaction()) {
+            transaction.setInteger("a", 3);
+        }
+        Assert.assertEquals(fromFile.getIntValue("a", 0), 2);
+        Assert.assertEquals(events.size(), 1);
+    }
+
+    @Test
+    public void testPublisher() throws Exception {
+        List<Runnable> tasks = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+        ConfigurationPublisher.Subscription[] subscription = new ConfigurationPublisher.Subscription[1];
+        boolean[] completed = new boolean[1];
+        ConfigurationPublisher publisher = configuration.publishChanges(tasks::add);
+        publisher.subscribe("db.", new ConfigurationPublisher.Subscriber() {
+            @Override
+            public void onSubscribe(final ConfigurationPublisher.Subscription s) {
+                subscription[0] = s;
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(final ConfigurationChange change) {
+                received.add(change.toString());
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+        configuration.setIntegerProperty("db.a", 1);
+        configuration.setIntegerProperty("db.a", 2);
+        configuration.setStringProperty("db.b", "x");
+        configuration.setStringProperty("anderes", "y");
+        Assert.assertTrue(received.isEmpty());
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+        Assert.assertEquals(received, Collections.singletonList("db.a=2"));
+        subscription[0].request(10);
+        tasks.remove(0).run();
+        Assert.assertEquals(received, Arrays.asList("db.a=2", "db.b=x"));
+        publisher.close();
+        tasks.remove(0).run();
+        Assert.assertTrue(completed[0]);
+        Assert.assertEquals(publisher.getSubscriberCount(), 0);
+    }
+
+    @Test
+    public void testYaml() throws Exception {
+        File file = File.createTempFile("bakacore", ".yaml");
+        file.deleteOnExit();
+        write(file, "defaults: &defaults\n"
+                + "  size: 10\n"
+                + "  timeout: 2.5\n"
+                + "db:\n"
+                + "  pool:\n"
+                + "    <<: *defaults\n"
+                + "    size: 20\n"
+                + "  name: \"haupt\\tdb\"\n"
+                + "  hosts: [a, b]\n"
+                + "  servers:\n"
+                + "    - host: x\n"
+                + "      port: 1\n"
+                + "  leer: ~\n"
+                + "gruss: Hallo, Welt\n"
+                + "namen: [&n 'x, y', z]\n"
+                + "text: |\n"
+                + "  zeile\n");
+        ObservableConfiguration yaml = ObservableConfiguration.yaml(file, null);
+        Assert.assertEquals(yaml.getIntValue("db.pool.size", 0), 20);
+        Assert.assertEquals(yaml.getDoubleValue("db.pool.timeout", 0), 2.5);
+        Assert.assertEquals(yaml.getString("db.name", ""), "haupt\tdb");
+        Assert.assertEquals(yaml.getIntegerProperty("db.servers.0.port", 0).get(), 1);
+        Assert.assertEquals(yaml.getString("db.leer", "x"), "");
+        Assert.assertEquals(yaml.getString("text", ""), "zeile");
+        Assert.assertEquals(yaml.getKeys("db.pool.").size(), 2);
+        Assert.assertEquals(yaml.getString("db.hosts", ""), "a");
+        Assert.assertEquals(yaml.getString("gruss", ""), "Hallo, Welt");
+        Assert.assertEquals(yaml.getString("namen", ""), "x, y");
+        yaml.setIntegerProperty("db.pool.size", 30);
+        Assert.assertEquals(yaml.getIntValue("db.pool.size", 0), 30);
+        Assert.assertEquals(yaml.getIntValue("defaults.size", 0), 10);
+    }
+
+    @Test
+    public void testYamlLazy() throws Exception {
+        File file = File.createTempFile("bakacore", ".yaml");
+        file.deleteOnExit();
+        Files.write(file.toPath(), ("\uFEFFstadt: Köln\n"
+                + "zeichen: \uD83D\uDE00 ä\n"
+                + "gruss: Grüße, Welt\n"
+                + "zitat: 'ß'\n"
+                + "zahl: 7\n").getBytes(StandardCharsets.UTF_8));
+        ObservableConfiguration yaml = ObservableConfiguration.yaml(file, null);
+        List<String> messages = new ArrayList<>();
+        yaml.setDiagnostics((level, message) -> messages.add(message), DiagnosticsLevel.INFO);
+        Assert.assertEquals(yaml.getString("stadt", ""), "Köln");
+        Assert.assertEquals(yaml.getString("zeichen", ""), "\uD83D\uDE00 ä");
+        Assert.assertEquals(yaml.getString("gruss", ""), "Grüße, Welt");
+        Assert.assertEquals(yaml.getString("zitat", ""), "ß");
+        Assert.assertEquals(yaml.getIntValue("zahl", 0), 7);
+        Assert.assertTrue(messages.isEmpty(), messages.toString());
+    }
+
+    @Test
+    public void testDiagnostics() throws Exception {
+        List<String> messages = new ArrayList<>();
+        configuration.setDiagnostics((level, message) -> messages.add(level + " " + message), DiagnosticsLevel.OFF);
+        configuration.setAccessCounting(true);
+        configuration.getString("a", "");
+        configuration.getIntValue("b", 0);
+        configuration.getLiteStringProperty("b", "");
+        configuration.setStringProperty("c", "x");
+        Assert.assertTrue(messages.isEmpty());
+        configuration.setDiagnostics((level, message) -> messages.add(level + " " + message), DiagnosticsLevel.TRACE);
+        configuration.getBooleanValue("b", false);
+        Assert.assertEquals(messages.size(), 0);
+        configuration.getString("a", "");
+        Assert.assertEquals(messages, Collections.singletonList("TRACE Kein Wert für a gefunden..."));
+        List<Map.Entry<String, Long>> hotKeys = configuration.getHotKeys(1);
+        Assert.assertEquals(hotKeys.size(), 1);
+        Assert.assertEquals(hotKeys.get(0).getKey(), "b");
+        Assert.assertEquals(hotKeys.get(0).getValue(), 3L);
+        Assert.assertTrue(configuration.getPrintInfosProperty().get());
+        configuration.setDiagnostics((level, message) -> messages.add(level + " " + message), DiagnosticsLevel.INFO);
+        Assert.assertFalse(configuration.getPrintInfosProperty().get());
+        Assert.assertEquals(configuration.getDiagnosticsLevel(), DiagnosticsLevel.INFO);
+        configuration.setPrintInfos(true);
+        configuration.setPrintInfos(false);
+        Assert.assertEquals(configuration.getDiagnosticsLevel(), DiagnosticsLevel.WARN);
+    }
+
+    private static void write(final File file, final String content) throws Exception {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
@@ -0,0 +1,55 @@
+package de.yabue.bakacore.IO;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class ComfyFileReaderTest {
+
+    private File file;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        file = File.createTempFile("bakacore", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "eins\nzwei\r\ndreiä\nvier\nfünf".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testReadInList() throws Exception {
+        List<String> lines = new ArrayList<>();
+        ComfyFileReader.readInList(file, lines);
+        assertEquals(lines, Arrays.asList("eins", "zwei", "dreiä", "vier", "fünf"));
+    }
+
+    @Test
+    public void testLines() throws Exception {
+        List<String> lines = new ArrayList<>();
+        try (ComfyFileReader.LineIterator iterator = ComfyFileReader.lines(file, StandardCharsets.UTF_8)) {
+            iterator.forEachRemaining(lines::add);
+            assertFalse(iterator.hasNext());
+        }
+        assertEquals(lines.size(), 5);
+        assertEquals(lines.get(2), "dreiä");
+    }
+
+    @Test
+    public void testForEachBatch() throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        ComfyFileReader.forEachBatch(file, StandardCharsets.UTF_8, 2, batch -> {
+            sizes.add(batch.size());
+            lines.addAll(batch);
+        });
+        assertEquals(sizes, Arrays.asList(2, 2, 1));
+        assertEquals(lines.get(4), "fünf");
+    }
+}